@@ -1,9 +1,19 @@
 package com.samma.rcp.app.config;
 
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import com.samma.rcp.app.orchestration.OverflowPolicy;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "ros")
@@ -13,9 +23,38 @@ public class RosDockerProps {
     private Bridge bridge = new Bridge();
     private Video video = new Video();
     private Simulation simulation = new Simulation();
+    private Teleop teleop = new Teleop();
+    private Telemetry telemetry = new Telemetry();
+    private MapStream map = new MapStream();
+    private Tiles tiles = new Tiles();
+    private Scan scan = new Scan();
+    private History history = new History();
+    private Recording recording = new Recording();
+    private Sessions sessions = new Sessions();
+    private Pool pool = new Pool();
+    private Startup startup = new Startup();
+    private Latency latency = new Latency();
+    private Stomp stomp = new Stomp();
 
-    @Data public static class Docker { private String host; private String composeFile; private String network; }
-    @Data public static class Bridge { private String url; private int reconnectInterval; }
+    @Data public static class Docker { private String host; private String composeFile; private String network; private String cli = "docker"; private long apiTimeout = 30000; }
+    @Data public static class Bridge { private String url; private long reconnectInterval = 500; private long reconnectMaxInterval = 10000; private long advertiseIdleTimeout = 60000; private int inboundQueue = 1024; private int connections = 1; private List<String> controlTopics = new ArrayList<>(); private List<TopicShard> shards = new ArrayList<>(); private Outbound outbound = new Outbound(); }
+    @Data public static class TopicShard { private String topic; private int connection; }
+    @Data public static class Outbound { private Lane safety = new Lane(64, OverflowPolicy.CONFLATE); private Lane control = new Lane(256, OverflowPolicy.CONFLATE); private Lane goal = new Lane(32, OverflowPolicy.REJECT); private Lane bulk = new Lane(1024, OverflowPolicy.DROP_OLDEST); private long highWaterBytes = 1 << 20; }
+    @Data @NoArgsConstructor @AllArgsConstructor public static class Lane { private int capacity; private OverflowPolicy policy; }
     @Data public static class Video  { private String streamUrl; }
-    @Data public static class Simulation { private String defaultModel; private int startupTimeout; private int healthCheckInterval; }
+    @Data public static class Simulation { private String defaultModel; private int startupTimeout; private int healthCheckInterval; private long healthProbeTimeout = 1000; }
+    @Data public static class Teleop { private int rateHz = 20; private long deadmanTimeout = 500; private List<String> topics = new ArrayList<>(List.of("/cmd_vel")); }
+    @Data public static class Telemetry { private List<TopicSub> topics = new ArrayList<>(); }
+    @Data public static class MapStream { private String topic = "/map"; private int tileSize = 64; private String compression = "cbor"; private long captureTimeout = 10000; }
+    @Data public static class Tiles { private String cacheDir = "ros-stack/maps/.tiles"; private int memoryCacheMb = 64; private int rawCacheTiles = 256; private long maxAge = 86400; private long recheckInterval = 5000; }
+    @Data public static class Scan { private String topic = "/scan"; private int throttleRate = 100; private String compression = "cbor"; private int decimation = 1; private double minRange; private double maxRange; private int defaultBudget = 360; private int maxBudgets = 8; }
+    @Data public static class History { private String odomTopic = "/odom"; private int odomThrottle = 20; private int odomCapacity = 1 << 19; private String amclTopic = "/amcl_pose"; private int amclCapacity = 1 << 16; private int maxPoints = 10000; }
+    @Data public static class Recording { private boolean enabled; private String dir = "recordings"; private int segmentMb = 64; private long indexInterval = 1000; private int queueMb = 32; private long maxTotalMb = 4096; private long maxAge = 604800; private long retentionInterval = 600000; private List<String> replayBridgeUrls = new ArrayList<>(); }
+    @Data public static class Sessions { private int maxSessions = 4; private String projectPrefix = "tb3"; private int bridgePortBase = 9090; private int novncPortBase = 6080; private int domainIdBase = 42; private String host = "localhost"; }
+    @Data public static class Pool { private boolean enabled; private List<PoolTarget> targets = new ArrayList<>(); private long idleTtl = 1_800_000; private long refillInterval = 5000; }
+    @Data public static class Startup { private Map<String, String> ready = new LinkedHashMap<>(); private Map<String, List<String>> required = new LinkedHashMap<>(); private long pollInterval = 500; }
+    @Data public static class Latency { private boolean enabled = true; private String topic = "/rcp/latency_probe"; private String echoTopic; private long interval = 1000; private long highestTrackable = 60000; }
+    @Data public static class Stomp { private int inboundThreads = 4; private int outboundThreads = 16; private int sendTimeLimit = 5000; private int sendBufferSizeLimit = 512 * 1024; private int messageSizeLimit = 64 * 1024; private List<String> conflate = new ArrayList<>(); private double defaultMaxRate; }
+    @Data public static class PoolTarget { private RobotModel model; private ScenarioType scenario; private int size = 1; }
+    @Data public static class TopicSub { private String topic; private String type; private int throttleRate; private int queueLength = 1; private String compression = "none"; }
 }
@@ -0,0 +1,70 @@
+package com.samma.rcp.app.controller;
+
+import com.samma.rcp.app.dto.LatencyStatsDTO;
+import com.samma.rcp.app.dto.TopicStatsDTO;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
+import com.samma.rcp.app.orchestration.TopicSubscription;
+import com.samma.rcp.app.telemetry.LatencyProbeService;
+import com.samma.rcp.base.controller.BaseController;
+import com.samma.rcp.base.dto.ResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController extends BaseController {
+
+    private final SimulationSessionManager sessions;
+    private final LatencyProbeService latency;
+
+    /**
+     * Oturumun (sessionId yoksa en son oturum) abone olunan topic'leri için teldeki bayt ve çözme süresi
+     * (JSON / CBOR / PNG karşılaştırması) ve atandıkları bağlantı.
+     */
+    @GetMapping("/bridge")
+    public ResponseEntity<ResponseDTO<List<TopicStatsDTO>>> bridge(@RequestParam(required = false) Long sessionId) {
+        SessionRuntime session;
+        try {
+            session = sessions.require(sessionId);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+        return success(session.getClient().getSubscriptions().stream()
+                .map(s -> toStats(s, session.getClient().connectionOf(s.getTopic()))).toList());
+    }
+
+    /** Oturumun (sessionId yoksa en son oturum) uçtan uca gecikme yoklaması: p50/p99/p999 gidiş-dönüş. */
+    @GetMapping("/latency")
+    public ResponseEntity<ResponseDTO<LatencyStatsDTO>> latency(@RequestParam(required = false) Long sessionId) {
+        SessionRuntime session;
+        try {
+            session = sessions.require(sessionId);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+        return latency.stats(session.getId())
+                .map(this::success)
+                .orElseGet(() -> error("Latency probe not active for session " + session.getId(), HttpStatus.NOT_FOUND));
+    }
+
+    private TopicStatsDTO toStats(TopicSubscription s, int connection) {
+        long n = s.getMessages().sum();
+        long bytes = s.getWireBytes().sum();
+        return TopicStatsDTO.builder()
+                .topic(s.getTopic())
+                .type(s.getType())
+                .compression(s.getCompression())
+                .connection(connection)
+                .messages(n)
+                .wireBytes(bytes)
+                .avgWireBytes(n == 0 ? 0 : (double) bytes / n)
+                .avgDecodeMicros(n == 0 ? 0 : s.getDecodeNanos().sum() / 1000.0 / n)
+                .build();
+    }
+}
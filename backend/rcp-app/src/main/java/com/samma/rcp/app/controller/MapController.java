@@ -1,30 +1,93 @@
 package com.samma.rcp.app.controller;
 
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.MapSaveJobDTO;
+import com.samma.rcp.app.dto.MapTileInfoDTO;
 import com.samma.rcp.app.dto.SavedMapDTO;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
 import com.samma.rcp.app.service.MapService;
+import com.samma.rcp.app.service.MapTileService;
 import com.samma.rcp.base.controller.BaseController;
 import com.samma.rcp.base.dto.ResponseDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/map")
 @RequiredArgsConstructor
 public class MapController extends BaseController {
 
+    /** Dosya adı olarak kullanılır; dizin ayırıcı ve '..' kabul edilmez. */
+    private static final Pattern MAP_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
     private final MapService maps;
+    private final MapTileService tiles;
+    private final RosDockerProps props;
+    private final SimulationSessionManager sessions;
 
+    /**
+     * Oturumun haritasını arka planda kaydeder (sessionId yoksa en son oturum); 202 ile iş tanıtıcısı
+     * döner, durum GET /save/{jobId} ile izlenir.
+     */
     @PostMapping("/save")
-    public ResponseEntity<ResponseDTO<SavedMapDTO>> save(@RequestBody Map<String, String> body) {
+    public ResponseEntity<ResponseDTO<MapSaveJobDTO>> save(@RequestBody Map<String, String> body,
+                                                           @RequestParam(required = false) Long sessionId) {
         String name = body.getOrDefault("name", "map_" + System.currentTimeMillis());
-        return created(maps.saveMap(name));
+        if (!MAP_NAME.matcher(name).matches()) {
+            return error("Invalid map name: " + name, HttpStatus.BAD_REQUEST);
+        }
+        SessionRuntime session;
+        try {
+            session = sessions.require(sessionId);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.CONFLICT);
+        }
+        return accepted(maps.submitSave(session.getId(), name));
+    }
+
+    @GetMapping("/save/{jobId}")
+    public ResponseEntity<ResponseDTO<MapSaveJobDTO>> saveStatus(@PathVariable String jobId) {
+        return maps.job(jobId)
+                .map(this::success)
+                .orElseGet(() -> error("Save job not found: " + jobId, HttpStatus.NOT_FOUND));
     }
 
     @GetMapping("/list")
     public ResponseEntity<ResponseDTO<List<SavedMapDTO>>> list() {
         return success(maps.listMaps());
     }
+
+    @GetMapping("/{id}/tiles")
+    public ResponseEntity<ResponseDTO<MapTileInfoDTO>> tileInfo(@PathVariable Long id) {
+        return tiles.info(id)
+                .map(this::success)
+                .orElseGet(() -> error("Map not found: " + id, HttpStatus.NOT_FOUND));
+    }
+
+    /** Karo PNG'si; içerik özetinden strong ETag, If-None-Match eşleşirse 304. */
+    @GetMapping(value = "/{id}/tiles/{z}/{x}/{y}", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> tile(@PathVariable Long id, @PathVariable int z, @PathVariable int x,
+                                       @PathVariable int y, WebRequest request) {
+        Optional<MapTileService.Tile> t = tiles.tile(id, z, x, y);
+        if (t.isEmpty()) return ResponseEntity.notFound().build();
+        CacheControl cache = CacheControl.maxAge(Duration.ofSeconds(props.getTiles().getMaxAge())).cachePublic();
+        if (request.checkNotModified(t.get().etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(t.get().etag()).cacheControl(cache).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(t.get().etag())
+                .cacheControl(cache)
+                .contentType(MediaType.IMAGE_PNG)
+                .body(t.get().png());
+    }
 }
@@ -0,0 +1,60 @@
+package com.samma.rcp.app.controller;
+
+import com.samma.rcp.app.dto.RecordingDTO;
+import com.samma.rcp.app.dto.ReplayDTO;
+import com.samma.rcp.app.recording.SessionRecorder;
+import com.samma.rcp.app.recording.SessionReplayer;
+import com.samma.rcp.base.controller.BaseController;
+import com.samma.rcp.base.dto.ResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recordings")
+@RequiredArgsConstructor
+public class RecordingController extends BaseController {
+
+    private final SessionRecorder recorder;
+    private final SessionReplayer replayer;
+
+    @GetMapping
+    public ResponseEntity<ResponseDTO<List<RecordingDTO>>> list() {
+        return success(recorder.list());
+    }
+
+    /** speed: 1 gerçek zaman, 10 on kat, 0 beklemeden; from kayıt başından ms. */
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<ResponseDTO<ReplayDTO>> replay(@PathVariable String id,
+                                                         @RequestParam(defaultValue = SessionReplayer.TARGET_STOMP) String target,
+                                                         @RequestParam(required = false) String url,
+                                                         @RequestParam(defaultValue = "1") double speed,
+                                                         @RequestParam(defaultValue = "0") long from) {
+        try {
+            return replayer.start(id, target, url, speed, from)
+                    .map(this::accepted)
+                    .orElseGet(() -> error("Recording not found: " + id, HttpStatus.NOT_FOUND));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.FORBIDDEN);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.CONFLICT);
+        }
+    }
+
+    @GetMapping("/replays/{replayId}")
+    public ResponseEntity<ResponseDTO<ReplayDTO>> replayStatus(@PathVariable String replayId) {
+        return replayer.get(replayId)
+                .map(this::success)
+                .orElseGet(() -> error("Replay not found: " + replayId, HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping("/replays/{replayId}")
+    public ResponseEntity<ResponseDTO<ReplayDTO>> cancelReplay(@PathVariable String replayId) {
+        return replayer.cancel(replayId)
+                .map(this::success)
+                .orElseGet(() -> error("Replay not found: " + replayId, HttpStatus.NOT_FOUND));
+    }
+}
@@ -1,12 +1,24 @@
 package com.samma.rcp.app.controller;
 
 import com.samma.rcp.app.domain.SimStatusDto;
+import com.samma.rcp.app.dto.SimulationJobDTO;
+import com.samma.rcp.app.dto.SimulationStartRequest;
+import com.samma.rcp.app.dto.SimulationStatusDTO;
 import com.samma.rcp.app.service.SimulationService;
+import com.samma.rcp.base.controller.BaseController;
+import com.samma.rcp.base.dto.ResponseDTO;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/sim")
-public class SimulationController {
+public class SimulationController extends BaseController {
 
     private final SimulationService service;
 
@@ -14,18 +26,60 @@ public class SimulationController {
         this.service = service;
     }
 
+    /** Başlatma arka planda sürer; iş /api/sim/jobs/{jobId} ve /topic/jobs ile izlenir. */
     @PostMapping("/start")
-    public SimStatusDto start() {
-        return service.start();
+    public ResponseEntity<ResponseDTO<SimulationJobDTO>> start() {
+        return accepted(service.start());
     }
 
     @PostMapping("/stop")
-    public SimStatusDto stop() {
-        return service.stop();
+    public ResponseEntity<ResponseDTO<SimulationJobDTO>> stop() {
+        return accepted(service.stop());
     }
 
     @GetMapping("/status")
     public SimStatusDto status() {
         return service.status();
     }
+
+    /** Durum değişikliklerini SSE ile iter (event: status, health); STOMP'ta /topic/status. */
+    @GetMapping(value = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter statusStream() {
+        return service.statusStream();
+    }
+
+    /**
+     * Yeni eşzamanlı oturum başlatma işi (202). Aynı model + senaryo için süren iş varsa o döner;
+     * slot kalmaması ya da başlatma hatası işte FAILED olarak görünür.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<ResponseDTO<SimulationJobDTO>> startSession(@Valid @RequestBody SimulationStartRequest req) {
+        return accepted(service.startSession(req));
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<ResponseDTO<List<SimulationStatusDTO>>> sessions() {
+        return success(service.sessions());
+    }
+
+    @GetMapping("/sessions/{id}")
+    public ResponseEntity<ResponseDTO<SimulationStatusDTO>> session(@PathVariable long id) {
+        return service.session(id)
+                .map(this::success)
+                .orElseGet(() -> error("Session not found: " + id, HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<ResponseDTO<SimulationJobDTO>> stopSession(@PathVariable long id) {
+        return service.stopSession(id)
+                .map(this::accepted)
+                .orElseGet(() -> error("Session not found: " + id, HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ResponseDTO<SimulationJobDTO>> job(@PathVariable String jobId) {
+        return service.job(jobId)
+                .map(this::success)
+                .orElseGet(() -> error("Job not found: " + jobId, HttpStatus.NOT_FOUND));
+    }
 }
@@ -0,0 +1,44 @@
+package com.samma.rcp.app.controller;
+
+import com.samma.rcp.app.dto.PoseHistoryDTO;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
+import com.samma.rcp.app.telemetry.PoseHistoryService;
+import com.samma.rcp.base.controller.BaseController;
+import com.samma.rcp.base.dto.ResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/telemetry")
+@RequiredArgsConstructor
+public class TelemetryController extends BaseController {
+
+    private final PoseHistoryService history;
+    private final SimulationSessionManager sessions;
+
+    /**
+     * Oturumun poz geçmişi (sessionId yoksa en son oturum); from/to mesaj zamanı (header.stamp, epoch ms),
+     * stride örnekler arası en az ms (0 = hepsi).
+     */
+    @GetMapping("/history")
+    public ResponseEntity<ResponseDTO<PoseHistoryDTO>> history(
+            @RequestParam(required = false) Long sessionId,
+            @RequestParam(defaultValue = PoseHistoryService.ODOM) String source,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(defaultValue = "0") long stride,
+            @RequestParam(defaultValue = "0") int limit) {
+        SessionRuntime session;
+        try {
+            session = sessions.require(sessionId);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+        return history.query(session.getId(), source, from, to, stride, limit)
+                .map(this::success)
+                .orElseGet(() -> error("Unknown source: " + source, HttpStatus.BAD_REQUEST));
+    }
+}
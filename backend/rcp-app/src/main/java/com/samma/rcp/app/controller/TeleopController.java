@@ -2,11 +2,15 @@ package com.samma.rcp.app.controller;
 
 import com.samma.rcp.app.dto.GoalPoseDTO;
 import com.samma.rcp.app.dto.TwistDTO;
+import com.samma.rcp.app.orchestration.SendRejectedException;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
 import com.samma.rcp.app.service.TeleopService;
 import com.samma.rcp.base.controller.BaseController;
 import com.samma.rcp.base.dto.ResponseDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,16 +20,42 @@ import org.springframework.web.bind.annotation.*;
 public class TeleopController extends BaseController {
 
     private final TeleopService teleop;
+    private final SimulationSessionManager sessions;
 
+    /** sessionId yoksa en son oturum; oturum yoksa 404, rosbridge bağlı değilse 409. */
     @PostMapping("/teleop/twist")
-    public ResponseEntity<ResponseDTO<String>> twist(@Valid @RequestBody TwistDTO dto) {
-        teleop.sendTwist(dto);
-        return success("twist_sent");
+    public ResponseEntity<ResponseDTO<String>> twist(@Valid @RequestBody TwistDTO dto,
+                                                     @RequestParam(required = false) Long sessionId) {
+        SessionRuntime session;
+        try {
+            session = sessions.require(sessionId);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+        try {
+            teleop.sendTwist(session, dto);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.CONFLICT);
+        }
+        return success("twist_queued");
     }
 
     @PostMapping("/nav/goal")
-    public ResponseEntity<ResponseDTO<String>> goal(@Valid @RequestBody GoalPoseDTO dto) {
-        teleop.sendGoal(dto);
+    public ResponseEntity<ResponseDTO<String>> goal(@Valid @RequestBody GoalPoseDTO dto,
+                                                    @RequestParam(required = false) Long sessionId) {
+        SessionRuntime session;
+        try {
+            session = sessions.require(sessionId);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+        try {
+            teleop.sendGoal(session, dto);
+        } catch (SendRejectedException e) {
+            return error(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+        }
         return success("goal_sent");
     }
 }
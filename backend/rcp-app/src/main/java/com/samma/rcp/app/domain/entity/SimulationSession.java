@@ -21,6 +21,9 @@ public class SimulationSession {
 
     @Column(name="ros_bridge_url") private String rosBridgeUrl;
     @Column(name="video_url") private String videoUrl;
+    @Column(name="compose_project") private String composeProject;
+    @Column(name="bridge_port") private Integer bridgePort;
+    @Column(name="ros_domain_id") private Integer rosDomainId;
     @Column(name="error_message", columnDefinition = "TEXT") private String errorMessage;
 
     @Column(name="created_at", nullable=false) private LocalDateTime createdAt;
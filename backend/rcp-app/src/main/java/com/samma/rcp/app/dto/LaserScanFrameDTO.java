@@ -0,0 +1,19 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+/**
+ * Seyreltilmiş LaserScan: ranges[i] açısı angleMin + i * angleIncrement.
+ * Mesafeler mm'ye yuvarlanır; 0 geçersiz/menzil dışı ölçümdür.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class LaserScanFrameDTO {
+    private long seq;
+    private String frameId;
+    private long stampMillis;
+    private float angleMin;
+    private float angleIncrement;
+    private float rangeMin;
+    private float rangeMax;
+    private float[] ranges;
+}
@@ -0,0 +1,22 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+/** Gecikme yoklamasının oturum açıldığından beri gidiş-dönüş süreleri (ms). */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class LatencyStatsDTO {
+    private long sessionId;
+    private String topic;
+    private String echoTopic;
+    private long sent;
+    private long received;
+    /** Gönderilip dönmeyen (yoldaki dahil). */
+    private long lost;
+    private double meanMs;
+    private double p50Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+    /** Son dönen yoklamanın süresi. */
+    private double lastMs;
+}
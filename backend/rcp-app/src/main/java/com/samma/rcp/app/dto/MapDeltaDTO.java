@@ -0,0 +1,24 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/** Bir önceki sürüme göre değişen karolar; istemci bunları elindeki snapshot'a uygular. */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class MapDeltaDTO {
+    private long version;
+    private long baseVersion;
+    private int tileSize;
+    private List<Tile> tiles;
+
+    /** (x, y) karonun sol-alt hücresi; data w*h satır sıralı int8 hücreler. */
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class Tile {
+        private int x;
+        private int y;
+        private int w;
+        private int h;
+        private byte[] data;
+    }
+}
@@ -0,0 +1,20 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/** Asenkron harita kaydı; status PENDING -> RUNNING -> DONE | FAILED. */
+@Data @Builder(toBuilder = true) @NoArgsConstructor @AllArgsConstructor
+public class MapSaveJobDTO {
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    private String jobId;
+    private Long sessionId;
+    private String name;
+    private Status status;
+    private SavedMapDTO map;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+/** OccupancyGrid'in tamamı; data satır sıralı int8 hücreler (JSON'da base64). */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class MapSnapshotDTO {
+    private long version;
+    private String frameId;
+    private int width;
+    private int height;
+    private double resolution;
+    private double originX;
+    private double originY;
+    private double originYaw;
+    private int tileSize;
+    private byte[] data;
+}
@@ -0,0 +1,14 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+/** Kayıtlı haritanın karo piramidi: maxZoom'da 1 piksel = 1 hücre, her alt seviye 2x küçültür. */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class MapTileInfoDTO {
+    private Long mapId;
+    private int width;
+    private int height;
+    private int tileSize;
+    private int maxZoom;
+    private Double resolution;
+}
@@ -0,0 +1,16 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+/** Sütunlu poz geçmişi: i. örnek (t[i], x[i], y[i], yaw[i], v[i], w[i]); t header.stamp (epoch ms), v/w amcl için 0. */
+@Data @Builder(toBuilder = true) @NoArgsConstructor @AllArgsConstructor
+public class PoseHistoryDTO {
+    private String source;
+    private int count;
+    private long[] t;
+    private float[] x;
+    private float[] y;
+    private float[] yaw;
+    private float[] v;
+    private float[] w;
+}
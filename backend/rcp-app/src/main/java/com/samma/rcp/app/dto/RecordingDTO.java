@@ -0,0 +1,19 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/** rosbridge oturum kaydı; active=true iken sayaçlar canlıdır. dropped: yazıcı yetişemediği için atlanan frame. */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class RecordingDTO {
+    private String id;
+    private Long sessionId;
+    private Instant startedAt;
+    private Instant stoppedAt;
+    private boolean active;
+    private long frames;
+    private long bytes;
+    private long dropped;
+    private int segments;
+}
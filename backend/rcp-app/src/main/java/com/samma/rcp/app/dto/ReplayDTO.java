@@ -0,0 +1,25 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Kayıt oynatma işi. target: stomp (gelenler uygulama içinden dağıtılır) | bridge (gidenler url'e yollanır).
+ * sessionId: stomp hedefinde yayının yapıldığı replay oturumu (negatif, /topic/sessions/&lt;id&gt;/...).
+ */
+@Data @Builder(toBuilder = true) @NoArgsConstructor @AllArgsConstructor
+public class ReplayDTO {
+    public enum Status { RUNNING, DONE, CANCELLED, FAILED }
+
+    private String replayId;
+    private String recordingId;
+    private Long sessionId;
+    private String target;
+    private String url;
+    private double speed;
+    private Status status;
+    private long frames;
+    private String error;
+    private Instant finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Oturumun son bilinen sağlığı. running: rosbridge portu erişilebilir (bağlıysak probe yapılmaz);
+ * connected: oturumun kendi rosbridge bağlantısı açık. since: son durum değişikliği.
+ */
+@Data @Builder(toBuilder = true) @NoArgsConstructor @AllArgsConstructor
+public class SessionHealthDTO {
+    private long sessionId;
+    private boolean running;
+    private boolean connected;
+    private String wsUrl;
+    private int port;
+    private Instant since;
+}
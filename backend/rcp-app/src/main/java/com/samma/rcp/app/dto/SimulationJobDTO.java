@@ -0,0 +1,30 @@
+package com.samma.rcp.app.dto;
+
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Asenkron oturum başlatma/durdurma işi; status PENDING -> RUNNING -> DONE | FAILED.
+ * phase ilerlemeyi daha ayrıntılı verir; her değişiklik /topic/jobs'a yayınlanır.
+ */
+@Data @Builder(toBuilder = true) @NoArgsConstructor @AllArgsConstructor
+public class SimulationJobDTO {
+    public enum Kind { START, STOP }
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+    public enum Phase { QUEUED, PULLING, STARTING_CONTAINERS, WAITING_FOR_BRIDGE, CONNECTED, STOPPING, STOPPED, FAILED }
+
+    private String jobId;
+    private Kind kind;
+    private Long sessionId;
+    private RobotModel model;
+    private ScenarioType scenario;
+    private Status status;
+    private Phase phase;
+    private SimulationStatusDTO session;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
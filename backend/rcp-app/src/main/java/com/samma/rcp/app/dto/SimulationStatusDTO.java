@@ -3,6 +3,8 @@ package com.samma.rcp.app.dto;
 import com.samma.rcp.app.domain.model.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 public class SimulationStatusDTO {
     private Long sessionId;
@@ -11,5 +13,10 @@ public class SimulationStatusDTO {
     private SimulationStatus status;
     private String rosBridgeUrl;
     private String videoUrl;
+    private String composeProject;
+    private Integer bridgePort;
+    private Integer rosDomainId;
     private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
 }
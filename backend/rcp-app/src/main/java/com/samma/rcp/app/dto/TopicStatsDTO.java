@@ -0,0 +1,16 @@
+package com.samma.rcp.app.dto;
+
+import lombok.*;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class TopicStatsDTO {
+    private String topic;
+    private String type;
+    private String compression;
+    /** Topic'in atandığı rosbridge bağlantısı (0: kontrol). */
+    private int connection;
+    private long messages;
+    private long wireBytes;
+    private double avgWireBytes;
+    private double avgDecodeMicros;
+}
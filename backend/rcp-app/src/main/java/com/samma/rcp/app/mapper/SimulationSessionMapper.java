@@ -0,0 +1,13 @@
+package com.samma.rcp.app.mapper;
+
+import com.samma.rcp.app.domain.entity.SimulationSession;
+import com.samma.rcp.app.dto.SimulationStatusDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MapStructConfig.class)
+public interface SimulationSessionMapper {
+    @Mapping(source = "id", target = "sessionId")
+    @Mapping(source = "errorMessage", target = "message")
+    SimulationStatusDTO toDto(SimulationSession e);
+}
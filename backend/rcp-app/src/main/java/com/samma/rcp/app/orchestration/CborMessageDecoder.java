@@ -0,0 +1,127 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * rosbridge'in compression:"cbor" binary frame'lerini JsonNode ağacına çözer.
+ * Sayısal diziler (RFC 8746 typed array etiketleri) eleman eleman node üretilmeden doğrudan
+ * primitive dizilere okunur: uint8/int8 -&gt; BinaryNode(byte[]), float32 -&gt; POJONode(float[]) vb.
+ * Bu dizilere {@link RosArrays} ile JSON yolundan gelenlerle aynı şekilde erişilir.
+ */
+public class CborMessageDecoder {
+
+    // RFC 8746 typed array etiketleri (rosbridge cbor_conversion ile aynı)
+    private static final int TAG_UINT8 = 64;
+    private static final int TAG_UINT16_LE = 69;
+    private static final int TAG_UINT32_LE = 70;
+    private static final int TAG_UINT64_LE = 71;
+    private static final int TAG_INT8 = 72;
+    private static final int TAG_INT16_LE = 77;
+    private static final int TAG_INT32_LE = 78;
+    private static final int TAG_INT64_LE = 79;
+    private static final int TAG_FLOAT32_LE = 85;
+    private static final int TAG_FLOAT64_LE = 86;
+
+    private static final CBORFactory FACTORY = new CBORFactory();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    public JsonNode decode(ByteBuffer frame) throws IOException {
+        byte[] data;
+        int off, len = frame.remaining();
+        if (frame.hasArray()) {
+            data = frame.array();
+            off = frame.arrayOffset() + frame.position();
+        } else {
+            data = new byte[len];
+            frame.duplicate().get(data);
+            off = 0;
+        }
+        try (CBORParser p = FACTORY.createParser(data, off, len)) {
+            JsonToken t = p.nextToken();
+            return t == null ? NODES.missingNode() : read(p, t);
+        }
+    }
+
+    private JsonNode read(CBORParser p, JsonToken t) throws IOException {
+        switch (t) {
+            case START_OBJECT: {
+                ObjectNode o = NODES.objectNode();
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = p.getCurrentName();
+                    o.set(name, read(p, p.nextToken()));
+                }
+                return o;
+            }
+            case START_ARRAY: {
+                ArrayNode a = NODES.arrayNode();
+                JsonToken e;
+                while ((e = p.nextToken()) != JsonToken.END_ARRAY) a.add(read(p, e));
+                return a;
+            }
+            case VALUE_STRING: return NODES.textNode(p.getText());
+            case VALUE_NUMBER_INT: {
+                JsonParser.NumberType nt = p.getNumberType();
+                if (nt == JsonParser.NumberType.INT) return NODES.numberNode(p.getIntValue());
+                if (nt == JsonParser.NumberType.LONG) return NODES.numberNode(p.getLongValue());
+                return NODES.numberNode(p.getBigIntegerValue());
+            }
+            case VALUE_NUMBER_FLOAT: return NODES.numberNode(p.getDoubleValue());
+            case VALUE_TRUE: return NODES.booleanNode(true);
+            case VALUE_FALSE: return NODES.booleanNode(false);
+            case VALUE_EMBEDDED_OBJECT: return typedArray(p.getCurrentTag(), p.getBinaryValue());
+            default: return NODES.nullNode();
+        }
+    }
+
+    private JsonNode typedArray(int tag, byte[] raw) {
+        ByteBuffer le = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        switch (tag) {
+            case TAG_FLOAT32_LE: {
+                float[] v = new float[raw.length / 4];
+                le.asFloatBuffer().get(v);
+                return NODES.pojoNode(v);
+            }
+            case TAG_FLOAT64_LE: {
+                double[] v = new double[raw.length / 8];
+                le.asDoubleBuffer().get(v);
+                return NODES.pojoNode(v);
+            }
+            case TAG_INT16_LE:
+            case TAG_UINT16_LE: {
+                int[] v = new int[raw.length / 2];
+                for (int i = 0; i < v.length; i++) {
+                    short s = le.getShort(i * 2);
+                    v[i] = tag == TAG_UINT16_LE ? (s & 0xFFFF) : s;
+                }
+                return NODES.pojoNode(v);
+            }
+            case TAG_INT32_LE:
+            case TAG_UINT32_LE: {
+                int[] v = new int[raw.length / 4];
+                le.asIntBuffer().get(v);
+                return NODES.pojoNode(v);
+            }
+            case TAG_INT64_LE:
+            case TAG_UINT64_LE: {
+                long[] v = new long[raw.length / 8];
+                le.asLongBuffer().get(v);
+                return NODES.pojoNode(v);
+            }
+            case TAG_UINT8:
+            case TAG_INT8:
+            default:
+                return NODES.binaryNode(raw); // byte string: uint8[] / int8[] (ör. OccupancyGrid.data)
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.samma.rcp.app.orchestration;
+
+import javax.net.SocketFactory;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.function.LongConsumer;
+
+/**
+ * WebSocketClient'ın bağlanmamış soketini üretir; çıkış akışına yazılan her tamponun boyunu written'a bildirir.
+ * İstemcinin yazma thread'i frame'leri kuyruktan alıp bu akışa yazdığından, bildirim kuyruğun boşalmasıdır.
+ * Yalnızca ws:// içindir: wss'de soket SSLSocket ile sarılır ve bu akış atlanır.
+ */
+final class CountingSocketFactory extends SocketFactory {
+
+    private final LongConsumer written;
+
+    CountingSocketFactory(LongConsumer written) {
+        this.written = written;
+    }
+
+    @Override
+    public Socket createSocket() {
+        return new Socket() {
+            @Override
+            public OutputStream getOutputStream() throws IOException {
+                return new FilterOutputStream(super.getOutputStream()) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        written.accept(1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        written.accept(len);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) {
+        throw new UnsupportedOperationException();
+    }
+}
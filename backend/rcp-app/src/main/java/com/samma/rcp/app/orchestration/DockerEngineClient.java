@@ -0,0 +1,229 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URLEncoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Docker Engine API istemcisi: unix soketi üzerinden HTTP/1.1 (her istek ayrı bağlantı, Connection: close).
+ * Süreç başlatmaz; yanıt en fazla timeout kadar beklenir (stop'ta durdurma süresi eklenir), daemon takılırsa
+ * istek hata verir. Çağıran thread interrupt edilince istek bağlantı kapatılarak iptal olur.
+ * Sürüm öneki verilmez, daemon kendi API sürümünü kullanır.
+ * Soket yolu dışarıdan verildiği için geçici sokette dinleyen bir stub sunucuyla denenebilir.
+ */
+public class DockerEngineClient {
+
+    static final String PROJECT_LABEL = "com.docker.compose.project";
+    static final String SERVICE_LABEL = "com.docker.compose.service";
+    static final String DEPENDS_ON_LABEL = "com.docker.compose.depends_on";
+
+    /** Compose projesindeki container; dependsOn bağımlı servis -> koşul (service_started, service_healthy, ...). */
+    public record Container(String id, String service, String state, Map<String, String> dependsOn) {}
+
+    /** inspect özeti; health, healthcheck tanımlı değilse null. */
+    public record ContainerState(boolean running, String health) {}
+
+    private final Path socket;
+    private final ObjectMapper om;
+    private final Duration timeout;
+
+    public DockerEngineClient(Path socket, ObjectMapper om, Duration timeout) {
+        this.socket = socket;
+        this.om = om;
+        this.timeout = timeout;
+    }
+
+    public Path getSocket() {
+        return socket;
+    }
+
+    /** Projenin (durmuş olanlar dahil) container'ları. */
+    public List<Container> containers(String project) {
+        JsonNode list = json(expect(call("GET", "/containers/json?all=1&filters="
+                + encode(Map.of("label", List.of(PROJECT_LABEL + "=" + project))), null), 200));
+        List<Container> out = new ArrayList<>();
+        for (JsonNode c : list) {
+            JsonNode labels = c.path("Labels");
+            out.add(new Container(c.path("Id").asText(), labels.path(SERVICE_LABEL).asText(),
+                    c.path("State").asText(), dependsOn(labels.path(DEPENDS_ON_LABEL).asText(""))));
+        }
+        return out;
+    }
+
+    /** Etiket biçimi "servis:koşul:restart,..."; koşul yoksa compose varsayılanı service_started. */
+    static Map<String, String> dependsOn(String label) {
+        Map<String, String> deps = new LinkedHashMap<>();
+        for (String d : label.split(",")) {
+            if (d.isBlank()) continue;
+            String[] parts = d.trim().split(":");
+            deps.put(parts[0], parts.length > 1 ? parts[1] : "service_started");
+        }
+        return deps;
+    }
+
+    /** 304 (zaten çalışıyor) de başarıdır. */
+    public void start(String id) {
+        expect(call("POST", "/containers/" + id + "/start", null), 204, 304);
+    }
+
+    /** SIGTERM, timeoutSec sonra SIGKILL; 304 (zaten durmuş) de başarıdır. */
+    public void stop(String id, int timeoutSec) {
+        expect(call("POST", "/containers/" + id + "/stop?t=" + timeoutSec, null, timeout.plusSeconds(timeoutSec)), 204, 304);
+    }
+
+    public void remove(String id) {
+        expect(call("DELETE", "/containers/" + id + "?force=1", null), 204, 404);
+    }
+
+    public ContainerState inspect(String id) {
+        JsonNode state = json(expect(call("GET", "/containers/" + id + "/json", null), 200)).path("State");
+        JsonNode health = state.path("Health").path("Status");
+        return new ContainerState(state.path("Running").asBoolean(), health.isMissingNode() ? null : health.asText());
+    }
+
+    /** Projenin ağlarını siler (compose down gibi). */
+    public void removeNetworks(String project) {
+        JsonNode list = json(expect(call("GET", "/networks?filters="
+                + encode(Map.of("label", List.of(PROJECT_LABEL + "=" + project))), null), 200));
+        for (JsonNode n : list) expect(call("DELETE", "/networks/" + n.path("Id").asText(), null), 204, 404);
+    }
+
+    // ---- HTTP ----
+
+    record Response(int status, byte[] body) {}
+
+    Response call(String method, String path, byte[] body) {
+        return call(method, path, body, timeout);
+    }
+
+    Response call(String method, String path, byte[] body, Duration wait) {
+        try (SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            StringBuilder head = new StringBuilder()
+                    .append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                    .append("Host: docker\r\n")
+                    .append("Connection: close\r\n");
+            if (body != null) head.append("Content-Type: application/json\r\n");
+            head.append("Content-Length: ").append(body == null ? 0 : body.length).append("\r\n\r\n");
+            write(ch, ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.US_ASCII)));
+            if (body != null) write(ch, ByteBuffer.wrap(body));
+            return parse(readAll(ch, wait));
+        } catch (IOException e) {
+            throw new IllegalStateException("Docker Engine API " + method + " " + path + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static void write(SocketChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    /** Unix soketinde SO_TIMEOUT olmadığından okuma non-blocking kanalda Selector ile süreye bağlanır. */
+    private static byte[] readAll(SocketChannel ch, Duration wait) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long deadline = System.nanoTime() + wait.toNanos();
+        ch.configureBlocking(false);
+        try (Selector sel = Selector.open()) {
+            ch.register(sel, SelectionKey.OP_READ);
+            while (true) {
+                int n = ch.read(buf);
+                if (n < 0) break;
+                if (n > 0) {
+                    buf.flip();
+                    out.write(buf.array(), 0, buf.limit());
+                    buf.clear();
+                    continue;
+                }
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (left <= 0) throw new SocketTimeoutException("no response within " + wait.toMillis() + " ms");
+                sel.select(left);
+                sel.selectedKeys().clear();
+                if (Thread.currentThread().isInterrupted()) throw new ClosedByInterruptException();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** Durum satırı, başlıklar ve gövde; Transfer-Encoding: chunked çözülür. */
+    static Response parse(byte[] raw) {
+        int headerEnd = indexOf(raw, new byte[]{'\r', '\n', '\r', '\n'}, 0);
+        if (headerEnd < 0) throw new IllegalStateException("Docker Engine API: malformed response");
+        String[] lines = new String(raw, 0, headerEnd, StandardCharsets.US_ASCII).split("\r\n");
+        String[] statusLine = lines[0].split(" ", 3);
+        if (statusLine.length < 2) throw new IllegalStateException("Docker Engine API: bad status line " + lines[0]);
+        int status = Integer.parseInt(statusLine[1]);
+        boolean chunked = false;
+        for (int i = 1; i < lines.length; i++) {
+            String l = lines[i].toLowerCase(Locale.ROOT);
+            if (l.startsWith("transfer-encoding:") && l.contains("chunked")) chunked = true;
+        }
+        byte[] body = Arrays.copyOfRange(raw, headerEnd + 4, raw.length);
+        return new Response(status, chunked ? dechunk(body) : body);
+    }
+
+    private static byte[] dechunk(byte[] in) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int pos = 0;
+        while (pos < in.length) {
+            int eol = indexOf(in, new byte[]{'\r', '\n'}, pos);
+            if (eol < 0) break;
+            String size = new String(in, pos, eol - pos, StandardCharsets.US_ASCII).split(";", 2)[0].trim();
+            int n = Integer.parseInt(size, 16);
+            if (n == 0) break;
+            out.write(in, eol + 2, Math.min(n, in.length - eol - 2));
+            pos = eol + 2 + n + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOf(byte[] a, byte[] needle, int from) {
+        outer:
+        for (int i = from; i <= a.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) if (a[i + j] != needle[j]) continue outer;
+            return i;
+        }
+        return -1;
+    }
+
+    private byte[] expect(Response r, int... ok) {
+        for (int s : ok) if (r.status() == s) return r.body();
+        String msg = new String(r.body(), StandardCharsets.UTF_8);
+        try { msg = om.readTree(r.body()).path("message").asText(msg); } catch (IOException ignored) {}
+        throw new IllegalStateException("Docker Engine API " + r.status() + ": " + msg.trim());
+    }
+
+    private JsonNode json(byte[] body) {
+        try {
+            return om.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Docker Engine API: unreadable JSON", e);
+        }
+    }
+
+    private String encode(Object filters) {
+        try {
+            return URLEncoder.encode(om.writeValueAsString(filters), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
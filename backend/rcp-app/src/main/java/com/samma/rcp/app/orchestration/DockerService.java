@@ -1,58 +1,231 @@
 package com.samma.rcp.app.orchestration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Sadeçe sistemde kurulu docker/compose CLI'larını çağırır.
+ * Compose projelerini kaldırır/indirir. ros.docker.host mevcut bir unix soketiyse container durdurma,
+ * silme ve sağlık {@link DockerEngineClient} ile doğrudan Engine API'den yapılır (başlatmayı
+ * {@link SimulationOrchestrator} bağımlılık grafiğine göre aynı istemciyle yürütür); süreç
+ * başlatılmaz ve iş thread'i interrupt edilince istek iptal olur. Compose dosyasının yorumlanması
+ * (imaj çekme/derleme, container ve ağ oluşturma) için "compose create" yine CLI'dır.
+ * Soket yoksa (uzak/tcp daemon, testte stand-in script) her şey CLI ile: "compose up -d" / "down".
  * CI/CD ve farklı kullanıcılar için path bağımsızdır; compose "-f <dosya>" ile veriliyor.
+ * İkili ros.docker.cli ile değiştirilebilir. Her oturum ayrı "-p <proje>" ile çalışır;
+ * port ve domain id compose'a ortam değişkeniyle geçer.
+ * Süreler docker.compose (command=create|up|down) ve docker.port.wait (result=open|timeout) ile ölçülür.
  */
 @Component
 public class DockerService {
     private static final Logger log = LoggerFactory.getLogger(DockerService.class);
+    private static final String UNIX_SCHEME = "unix://";
+    private static final int STOP_TIMEOUT_SEC = 10; // compose down ile aynı
 
-    /** docker compose up -d */
-    public void composeUp(Path composeFile) {
-        run("docker","compose","-f", composeFile.toString(), "up", "-d");
+    private final RosDockerProps props;
+    private final DockerEngineClient engine;
+    /** Container'ları paralel durdurmak için; compose down da servisleri paralel indirir. */
+    private final ExecutorService stopper;
+    private final Timer createTimer;
+    private final Timer upTimer;
+    private final Timer downTimer;
+    private final Timer portOpenTimer;
+    private final Timer portTimeoutTimer;
+
+    public DockerService(RosDockerProps props, ObjectMapper om, MeterRegistry meters) {
+        this.props = props;
+        this.createTimer = composeTimer(meters, "create");
+        this.upTimer = composeTimer(meters, "up");
+        this.downTimer = composeTimer(meters, "down");
+        this.portOpenTimer = portTimer(meters, "open");
+        this.portTimeoutTimer = portTimer(meters, "timeout");
+        String host = props.getDocker().getHost();
+        this.engine = host != null && host.startsWith(UNIX_SCHEME)
+                ? new DockerEngineClient(Path.of(host.substring(UNIX_SCHEME.length())), om,
+                        Duration.ofMillis(props.getDocker().getApiTimeout())) : null;
+        AtomicInteger n = new AtomicInteger();
+        this.stopper = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "docker-stop-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopper.shutdownNow();
+    }
+
+    /** docker compose -p <proje> create: eksik imajları çeker/derler, container'ları oluşturur, başlatmaz. */
+    public void composeCreate(Path composeFile, String project, Map<String, String> env) {
+        long start = System.nanoTime();
+        run(env, compose(composeFile, project, "create"));
+        createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /** docker compose -p <proje> up -d: Engine API yokken tüm stack'i compose'un kendi sırasıyla başlatır. */
+    public void composeUp(Path composeFile, String project, Map<String, String> env) {
+        long start = System.nanoTime();
+        run(env, compose(composeFile, project, "up", "-d"));
+        upTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Projeyi indirir: Engine API'de container'lar paralel durdurulup silinir, ardından ağları silinir;
+     * yoksa compose down.
+     */
+    public void stopProject(Path composeFile, String project, Map<String, String> env) {
+        long start = System.nanoTime();
+        Optional<DockerEngineClient> api = engine();
+        if (api.isEmpty()) {
+            run(env, compose(composeFile, project, "down"));
+            downTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return;
+        }
+        List<Future<?>> stops = new ArrayList<>();
+        for (DockerEngineClient.Container c : api.get().containers(project)) {
+            stops.add(stopper.submit(() -> {
+                api.get().stop(c.id(), STOP_TIMEOUT_SEC);
+                api.get().remove(c.id());
+            }));
+        }
+        try {
+            for (Future<?> f : stops) f.get();
+        } catch (InterruptedException e) {
+            stops.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Durdurma iptal edildi: " + project, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Durdurma başarısız: " + project + ": " + e.getCause().getMessage(), e.getCause());
+        }
+        api.get().removeNetworks(project);
+        downTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("[engine] {} down ({} containers)", project, stops.size());
+    }
+
+    /**
+     * Servis container'ı çalışıyor ve unhealthy değilse true; Engine API yoksa ya da container
+     * bulunamazsa boş (çağıran port yoklamasına düşer).
+     */
+    public Optional<Boolean> serviceHealthy(String project, String service) {
+        return serviceState(project, service).map(s -> s.running() && !"unhealthy".equals(s.health()));
+    }
+
+    /** Servis container'ının inspect özeti; Engine API yoksa, container yoksa ya da çağrı başarısızsa boş. */
+    public Optional<DockerEngineClient.ContainerState> serviceState(String project, String service) {
+        Optional<DockerEngineClient> api = engine();
+        if (api.isEmpty()) return Optional.empty();
+        try {
+            return api.get().containers(project).stream()
+                    .filter(c -> service.equals(c.service()))
+                    .findFirst()
+                    .map(c -> api.get().inspect(c.id()));
+        } catch (IllegalStateException e) {
+            log.debug("engine state {} {} failed: {}", project, service, e.getMessage());
+            return Optional.empty();
+        }
     }
 
-    /** docker compose down */
-    public void composeDown(Path composeFile) {
-        run("docker","compose","-f", composeFile.toString(), "down");
+    /** Soket dosyası varsa Engine API istemcisi. Daemon sonradan açılabileceği için her çağrıda bakılır. */
+    public Optional<DockerEngineClient> engine() {
+        return engine != null && Files.exists(engine.getSocket()) ? Optional.of(engine) : Optional.empty();
+    }
+
+    private static Timer composeTimer(MeterRegistry meters, String command) {
+        return Timer.builder("docker.compose").description("compose komutu / Engine API eşdeğeri")
+                .tag("command", command).register(meters);
+    }
+
+    private static Timer portTimer(MeterRegistry meters, String result) {
+        return Timer.builder("docker.port.wait").description("Portun dinlemeye geçmesini bekleme")
+                .tag("result", result).register(meters);
+    }
+
+    private String[] compose(Path composeFile, String project, String... args) {
+        List<String> cmd = new ArrayList<>(List.of(props.getDocker().getCli(), "compose",
+                "-f", composeFile.toString(), "-p", project));
+        cmd.addAll(List.of(args));
+        return cmd.toArray(String[]::new);
     }
 
     /** Belirtilen host:port dinlemeye geçti mi? */
     public boolean waitForPort(String host, int port, Duration timeout) {
-        long deadline = System.nanoTime() + timeout.toNanos();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
         while (System.nanoTime() < deadline) {
-            try (Socket s = new Socket()) {
-                s.connect(new InetSocketAddress(host, port), 1000);
+            if (portOpen(host, port)) {
+                portOpenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 return true;
-            } catch (IOException ignored) {
-                try { Thread.sleep(300); } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt(); return false;
-                }
+            }
+            try { Thread.sleep(300); } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt(); return false;
             }
         }
+        portTimeoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         return false;
     }
 
-    private void run(String... cmd) {
+    /** Tek bağlantı denemesi (1 sn). */
+    public boolean portOpen(String host, int port) {
+        try (Socket s = new Socket()) {
+            s.connect(new InetSocketAddress(host, port), 1000);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Çıktı satır satır loglanır; çağıran thread interrupt edilirse süreç öldürülür. */
+    private void run(Map<String, String> env, String... cmd) {
+        Process p;
+        try {
+            ProcessBuilder pb = new ProcessBuilder(cmd).redirectErrorStream(true);
+            pb.environment().putAll(env);
+            p = pb.start();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        Thread pump = new Thread(() -> {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line; (line = r.readLine()) != null; ) log.info("[compose] {}", line);
+            } catch (IOException ignored) {
+                // süreç öldürüldü
+            }
+        }, "compose-out");
+        pump.setDaemon(true);
+        pump.start();
         try {
-            Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
-            String out = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
             int code = p.waitFor();
-            log.info("[compose] {}", out.trim()); // Log: UI istemez; opsiyonel saklanır
+            pump.join(1000);
             if (code != 0) throw new IllegalStateException("Process exit: " + code);
-        } catch (IOException | InterruptedException e) {
+        } catch (InterruptedException e) {
+            p.descendants().forEach(ProcessHandle::destroy);
+            p.destroy();
             Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
@@ -0,0 +1,24 @@
+package com.samma.rcp.app.orchestration;
+
+import java.nio.ByteBuffer;
+
+/**
+ * rosbridge bağlantısından geçen ham frame'leri gözlemler (kayıt vb.). Soket ve gönderici
+ * thread'lerinde çağrılır: bloklamamalı, tamponların konumunu değiştirmemeli.
+ */
+public interface FrameTap {
+
+    FrameTap NONE = new FrameTap() {
+        @Override public void text(boolean outbound, String frame) {}
+        @Override public void textBytes(boolean outbound, ByteBuffer utf8) {}
+        @Override public void binary(ByteBuffer frame) {}
+    };
+
+    void text(boolean outbound, String frame);
+
+    /** Yeniden kullanılan tampondaki UTF-8 text frame; çağrı içinde kopyalanmalı. */
+    void textBytes(boolean outbound, ByteBuffer utf8);
+
+    /** Gelen binary (CBOR) frame; içeriği bir daha değişmez, kopyalanmadan saklanabilir. */
+    void binary(ByteBuffer frame);
+}
@@ -0,0 +1,273 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Oturumun rosbridge'e giden mesajlarını öncelik şeritlerinden ({@link SendLane}) tek "ros-send-&lt;ad&gt;"
+ * thread'iyle yazar; çağıran (HTTP, teleop, abonelik) soket yazımını beklemez. Her şerit sınırlıdır ve
+ * dolunca kendi {@link OverflowPolicy}'si uygulanır. Üst şeritteki anahtarlı mesaj, alt şeritlerde bekleyen
+ * aynı anahtarlı mesajları geçersiz kılar (durdurma, kuyruktaki eski hız komutundan sonra gelmesin diye).
+ * Anahtarsız protokol işlemleri (advertise, subscribe, ...) kapasiteye sayılmaz ve hiçbir politikayla düşmez;
+ * sayıları topic sayısıyla sınırlıdır. Hedef bağlantı kopuksa ya da soket kuyruğu
+ * ros.bridge.outbound.high-water-bytes'ı aşmışsa o bağlantının mesajları sırasıyla bekler, diğer bağlantılarınkiler
+ * yazılmaya devam eder. Yazıcı bekleyen iş yokken ya da hepsi bekleyen bağlantılara aitken {@link #wake()} ile
+ * (bağlantı açıldı, soket kuyruğu boşaldı) uyanır. Derinlik ros.bridge.outbound.depth, düşenler
+ * ros.bridge.outbound.dropped (reason) ile ölçülür.
+ */
+@Slf4j
+final class OutboundScheduler {
+
+    private enum DropReason { CONFLATED, SUPERSEDED, OVERFLOW, REJECTED, FAILED }
+
+    /** Sinyal beklenmeyen durumlar için (ör. wss soketinin boşalması sayılamaz) bekleyen mesajlara yedek bakış. */
+    private static final long BLOCKED_RECHECK_MS = 100;
+
+    /** Yazımın gideceği bağlantı; aynı hedefin mesajları şerit önceliği içinde sırasını korur. */
+    interface Target {
+        boolean writable();
+    }
+
+    /** Bekleyen yazım; key birbirinin yerine geçebilen mesajlar içindir (ör. "pub:/cmd_vel"), null ise protokol işlemi. */
+    private static final class Item {
+        final SendLane lane;
+        final String key;
+        final Target target;
+        Runnable write;
+
+        Item(SendLane lane, String key, Target target, Runnable write) {
+            this.lane = lane;
+            this.key = key;
+            this.target = target;
+            this.write = write;
+        }
+    }
+
+    private final String name;
+    private final RosDockerProps.Outbound cfg;
+    private final MeterRegistry meters;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    /** Erişim lock ile. */
+    private final Map<SendLane, ArrayDeque<Item>> lanes = new EnumMap<>(SendLane.class);
+    /** Şerit başına anahtarlı (kapasiteye sayılan) mesaj; lock ile. */
+    private final int[] keyed = new int[SendLane.values().length];
+    private boolean stopped;
+    private Thread writer;
+    private final Map<SendLane, Map<DropReason, Counter>> drops = new EnumMap<>(SendLane.class);
+    private final List<Meter> registered = new ArrayList<>();
+
+    OutboundScheduler(String name, RosDockerProps.Outbound cfg, MeterRegistry meters) {
+        this.name = name;
+        this.cfg = cfg;
+        this.meters = meters;
+        for (SendLane l : SendLane.values()) lanes.put(l, new ArrayDeque<>());
+    }
+
+    /** Yazıcı thread'i ve ölçüleri ilk bağlantıda başlatır; tekrar çağrılırsa bir şey yapmaz. */
+    void start() {
+        lock.lock();
+        try {
+            if (writer != null || stopped) return;
+            for (SendLane l : SendLane.values()) {
+                String lane = l.name().toLowerCase(Locale.ROOT);
+                registered.add(Gauge.builder("ros.bridge.outbound.depth", this, s -> s.depth(l))
+                        .description("Şeritte yazılmayı bekleyen mesaj").tags("session", name, "lane", lane).register(meters));
+                Map<DropReason, Counter> byReason = new EnumMap<>(DropReason.class);
+                for (DropReason r : DropReason.values()) {
+                    Counter c = Counter.builder("ros.bridge.outbound.dropped")
+                            .description("Şeritten yazılmadan çıkan mesaj")
+                            .tags("session", name, "lane", lane, "reason", r.name().toLowerCase(Locale.ROOT))
+                            .register(meters);
+                    byReason.put(r, c);
+                    registered.add(c);
+                }
+                drops.put(l, byReason);
+            }
+            writer = new Thread(this::drain, "ros-send-" + name);
+            writer.setDaemon(true);
+            writer.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void stop() {
+        lock.lock();
+        try {
+            stopped = true;
+            lanes.values().forEach(ArrayDeque::clear);
+            Arrays.fill(keyed, 0);
+            queued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) writer.interrupt();
+        registered.forEach(meters::remove);
+        registered.clear();
+    }
+
+    /** Hedefi yazılabilir hale gelen (açılan, soket kuyruğu boşalan) bekleyen mesajlar için yazıcıyı uyandırır. */
+    void wake() {
+        lock.lock();
+        try {
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mesajı şeride koyar; yazım writer thread'inde, hedef yazılabilir olduğunda yapılır.
+     * REJECT politikalı şerit doluysa {@link SendRejectedException}; key null ise kapasiteye bakılmaz.
+     */
+    void submit(SendLane lane, String key, Target target, Runnable write) {
+        RosDockerProps.Lane spec = spec(lane);
+        lock.lock();
+        try {
+            if (stopped) return;
+            ArrayDeque<Item> q = lanes.get(lane);
+            if (key != null) {
+                supersede(lane, key);
+                if (spec.getPolicy() == OverflowPolicy.CONFLATE) {
+                    for (Item i : q) {
+                        if (key.equals(i.key)) {
+                            i.write = write; // sırası korunur, içerik en yenisi
+                            count(lane, DropReason.CONFLATED);
+                            return;
+                        }
+                    }
+                }
+            }
+            if (key != null && keyed[lane.ordinal()] >= Math.max(spec.getCapacity(), 1)) {
+                if (spec.getPolicy() == OverflowPolicy.REJECT) {
+                    count(lane, DropReason.REJECTED);
+                    throw new SendRejectedException("rosbridge[" + name + "] " + lane + " kuyruğu dolu");
+                }
+                evictOldestKeyed(q);
+                count(lane, DropReason.OVERFLOW);
+            }
+            q.addLast(new Item(lane, key, target, write));
+            if (key != null) keyed[lane.ordinal()]++;
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Alt şeritlerde bekleyen aynı anahtarlı mesajlar yazılmaz. Lock altında. */
+    private void supersede(SendLane lane, String key) {
+        for (SendLane lower : SendLane.values()) {
+            if (lower.ordinal() <= lane.ordinal()) continue;
+            for (Iterator<Item> it = lanes.get(lower).iterator(); it.hasNext(); ) {
+                if (key.equals(it.next().key)) {
+                    it.remove();
+                    keyed[lower.ordinal()]--;
+                    count(lower, DropReason.SUPERSEDED);
+                }
+            }
+        }
+    }
+
+    /** Şeridin en eski anahtarlı mesajı; protokol işlemleri yerinde kalır. Lock altında. */
+    private void evictOldestKeyed(ArrayDeque<Item> q) {
+        for (Iterator<Item> it = q.iterator(); it.hasNext(); ) {
+            Item i = it.next();
+            if (i.key != null) {
+                it.remove();
+                keyed[i.lane.ordinal()]--;
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Item next;
+            lock.lock();
+            try {
+                while ((next = nextWritable()) == null) {
+                    if (stopped) return;
+                    if (isEmpty()) queued.await();
+                    else queued.await(BLOCKED_RECHECK_MS, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                next.write.run();
+            } catch (RuntimeException e) {
+                count(next.lane, DropReason.FAILED);
+                log.debug("rosbridge[{}] {} send failed: {}", name, next.lane, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Öncelik sırasıyla hedefi yazılabilir ilk mesaj. Yazılamayan hedef bu turda bir kez sorulur ve
+     * sonraki mesajları (alt şeritlerdekiler dahil) atlanır; böylece sıraları bozulmaz. Lock altında.
+     */
+    private Item nextWritable() {
+        List<Target> blocked = null;
+        for (SendLane l : SendLane.values()) {
+            for (Iterator<Item> it = lanes.get(l).iterator(); it.hasNext(); ) {
+                Item i = it.next();
+                if (blocked != null && blocked.contains(i.target)) continue;
+                if (i.target.writable()) {
+                    it.remove();
+                    if (i.key != null) keyed[l.ordinal()]--;
+                    return i;
+                }
+                if (blocked == null) blocked = new ArrayList<>(2);
+                blocked.add(i.target);
+            }
+        }
+        return null;
+    }
+
+    private boolean isEmpty() {
+        for (ArrayDeque<Item> q : lanes.values()) if (!q.isEmpty()) return false;
+        return true;
+    }
+
+    private int depth(SendLane lane) {
+        lock.lock();
+        try {
+            return lanes.get(lane).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void count(SendLane lane, DropReason reason) {
+        Map<DropReason, Counter> byReason = drops.get(lane);
+        if (byReason != null) byReason.get(reason).increment();
+    }
+
+    private RosDockerProps.Lane spec(SendLane lane) {
+        return switch (lane) {
+            case SAFETY -> cfg.getSafety();
+            case CONTROL -> cfg.getControl();
+            case GOAL -> cfg.getGoal();
+            case BULK -> cfg.getBulk();
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.samma.rcp.app.orchestration;
+
+/** Dolu şeride yeni mesaj geldiğinde uygulanan politika. */
+public enum OverflowPolicy {
+    /** Aynı anahtarlı bekleyen mesajın yerine yenisi konur (son değer kazanır); yer yoksa en eski düşer. */
+    CONFLATE,
+    /** En eski bekleyen mesaj düşer. */
+    DROP_OLDEST,
+    /** Mesaj kabul edilmez, {@link SendRejectedException} fırlatılır (HTTP 429). */
+    REJECT
+}
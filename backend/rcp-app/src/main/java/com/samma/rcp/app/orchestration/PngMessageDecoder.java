@@ -0,0 +1,35 @@
+package com.samma.rcp.app.orchestration;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * rosbridge'in compression:"png" çıktısını çözer: {"op":"png","data":base64} içindeki PNG,
+ * satır satır RGB baytları JSON metnini taşır (sondaki dolgu boşlukları atılır).
+ */
+public class PngMessageDecoder {
+
+    public String decode(String base64Png) throws IOException {
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(base64Png)));
+        if (img == null) throw new IOException("PNG okunamadı");
+        int w = img.getWidth(), h = img.getHeight();
+        byte[] out = new byte[w * h * 3];
+        int[] row = new int[w];
+        int p = 0;
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int rgb : row) {
+                out[p++] = (byte) (rgb >> 16);
+                out[p++] = (byte) (rgb >> 8);
+                out[p++] = (byte) rgb;
+            }
+        }
+        int len = out.length;
+        while (len > 0 && (out[len - 1] == ' ' || out[len - 1] == '\n' || out[len - 1] == 0)) len--;
+        return new String(out, 0, len, StandardCharsets.UTF_8);
+    }
+}
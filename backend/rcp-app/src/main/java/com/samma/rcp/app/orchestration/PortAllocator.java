@@ -0,0 +1,63 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.BitSet;
+
+/**
+ * Eşzamanlı oturumlara çakışmasız kaynak dağıtır. i. slot: rosbridge portu bridgePortBase + i,
+ * noVNC portu novncPortBase + i, ROS_DOMAIN_ID domainIdBase + i. Portu host'ta başka bir süreç
+ * tutuyorsa slot atlanır.
+ */
+@Component
+@RequiredArgsConstructor
+public class PortAllocator {
+
+    public record Slot(int index, int bridgePort, int novncPort, int domainId) {}
+
+    private final RosDockerProps props;
+    private final BitSet used = new BitSet();
+
+    /** Boş slot yoksa IllegalStateException. */
+    public synchronized Slot allocate() {
+        return allocate(0);
+    }
+
+    /** Ayırdıktan sonra en az reserve slot boş kalacaksa ayırır; kalmayacaksa IllegalStateException. */
+    public synchronized Slot allocate(int reserve) {
+        RosDockerProps.Sessions cfg = props.getSessions();
+        if (used.cardinality() + 1 + reserve > cfg.getMaxSessions()) {
+            throw new IllegalStateException("Boş simülasyon slotu yok (max-sessions=" + cfg.getMaxSessions() + ")");
+        }
+        for (int i = used.nextClearBit(0); i < cfg.getMaxSessions(); i = used.nextClearBit(i + 1)) {
+            Slot s = new Slot(i, cfg.getBridgePortBase() + i, cfg.getNovncPortBase() + i, cfg.getDomainIdBase() + i);
+            if (!isFree(s.bridgePort()) || !isFree(s.novncPort())) continue;
+            used.set(i);
+            return s;
+        }
+        throw new IllegalStateException("Boş simülasyon slotu yok (max-sessions=" + cfg.getMaxSessions() + ")");
+    }
+
+    public synchronized void release(Slot s) {
+        used.clear(s.index());
+    }
+
+    public synchronized int inUse() {
+        return used.cardinality();
+    }
+
+    private static boolean isFree(int port) {
+        try (ServerSocket ss = new ServerSocket()) {
+            ss.setReuseAddress(true);
+            ss.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Mesajdaki sayısal dizileri primitive dizi olarak okur. CBOR yolunda dizi zaten primitive
+ * olduğu için kopyalanmadan döner; JSON yolunda tek geçişte dönüştürülür.
+ */
+public final class RosArrays {
+
+    private RosArrays() {}
+
+    /** float32[] alanı; CBOR'da kopyasız, JSON'da yeni dizi. */
+    public static float[] floats(JsonNode n) {
+        if (n instanceof POJONode p && p.getPojo() instanceof float[] f) return f;
+        if (n == null || !n.isArray()) return new float[0];
+        float[] v = new float[n.size()];
+        for (int i = 0; i < v.length; i++) v[i] = (float) n.get(i).asDouble(Float.NaN);
+        return v;
+    }
+
+    /** Sayısal dizi alanının eleman sayısı; CBOR typed array'lerde de doğru döner (POJONode.size() 0'dır). */
+    public static int length(JsonNode n) {
+        if (n instanceof POJONode p) {
+            Object v = p.getPojo();
+            if (v instanceof float[] f) return f.length;
+            if (v instanceof double[] d) return d.length;
+            if (v instanceof int[] i) return i.length;
+            if (v instanceof long[] l) return l.length;
+            return 0;
+        }
+        return n == null || !n.isArray() ? 0 : n.size();
+    }
+
+    /** JSON dizisini verilen tampona kopyalar (tampon yetmezse yalnızca sığan kısım). Kopyalanan eleman sayısı döner. */
+    public static int floatsInto(JsonNode n, float[] dst) {
+        if (n instanceof POJONode p && p.getPojo() instanceof float[] f) {
+            int len = Math.min(f.length, dst.length);
+            System.arraycopy(f, 0, dst, 0, len);
+            return len;
+        }
+        if (n == null || !n.isArray()) return 0;
+        int len = Math.min(n.size(), dst.length);
+        for (int i = 0; i < len; i++) dst[i] = (float) n.get(i).asDouble(Float.NaN);
+        return len;
+    }
+
+    /** int8[]/uint8[] alanı: CBOR byte string, JSON'da base64 (uint8) ya da sayı dizisi (int8). */
+    public static byte[] bytes(JsonNode n) {
+        if (n == null || n.isNull() || n.isMissingNode()) return new byte[0];
+        if (n.isBinary()) {
+            try { return n.binaryValue(); } catch (IOException e) { throw new IllegalStateException(e); }
+        }
+        if (n.isTextual()) return Base64.getDecoder().decode(n.asText());
+        byte[] v = new byte[n.size()];
+        for (int i = 0; i < v.length; i++) v[i] = (byte) n.get(i).asInt();
+        return v;
+    }
+}
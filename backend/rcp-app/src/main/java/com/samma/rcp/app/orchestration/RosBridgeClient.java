@@ -1,94 +1,673 @@
 package com.samma.rcp.app.orchestration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
 import com.samma.rcp.app.dto.GoalPoseDTO;
 import com.samma.rcp.app.dto.TwistDTO;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.java_websocket.WebSocketImpl;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.framing.TextFrame;
 import org.java_websocket.handshake.ServerHandshake;
-import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.time.Instant;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
+/**
+ * Oturumun rosbridge bağlantıları. Bean değildir: her simülasyon oturumu için
+ * {@link SimulationSessionManager} ayrı örnek oluşturur ve init/shutdown'u kendisi çağırır.
+ * ros.bridge.connections kadar soket açılır; her topic tek bir bağlantıya atanır (0. bağlantı
+ * control-topics içindir, shards açık atamalardır, kalanlar shard'sız bağlantılara hash ile dağılır).
+ * Böylece büyük /map ya da görüntü frame'i /cmd_vel'in arkasında beklemez. Her bağlantının kendi
+ * okuma thread'i ve gelen mesaj sırası vardır; bir topic'in mesajları yine sırayla dağıtılır.
+ * Giden mesajlar {@link OutboundScheduler}'ın öncelik şeritlerinden tek thread'le yazılır; çağıran beklemez.
+ * Bağlantı başına gönderim kuyruğu ros.bridge.send.queue (frame) ve ros.bridge.send.queue.bytes ile ölçülür;
+ * bayt, kuyruğu taramadan frame girerken artan ve soket akışına yazılınca azalan sayaçtır ({@link CountingSocketFactory}).
+ * connect'ten disconnect'e kadar kopan bağlantı "ros-reconnect-&lt;ad&gt;" thread'inde jitter'lı üstel beklemeyle
+ * yeniden açılır; açılınca advertise ve abonelikler şeritlerdeki mesajlardan önce yeniden gönderilir. Kopukken
+ * şeritler yazılmaz, mesajlar kendi politikalarıyla bekler (hız komutu birleşir, hedef dolunca reddedilir).
+ * Denemeler ros.bridge.reconnects (result=success|failure) ile sayılır.
+ * Topic başına ölçüler topic ilk kullanıldığında bir kez kaydedilir, sıcak yolda etiket üretilmez:
+ * ros.bridge.publish (şeride konmadan sokete yazılana kadar), ros.bridge.inbound.messages / .bytes / .decode
+ * (abonelik sayaçlarından okunur). Bağlantı durumu ros.bridge.connection.open.
+ */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class RosBridgeClient {
 
+    static final String ROLE_CONTROL = "control";
+    static final String ROLE_BULK = "bulk";
+    private static final long RECONNECT_TIMEOUT_MS = 2000;
+
     private final ObjectMapper om;
+    private final RosDockerProps props;
+    private final MeterRegistry meters;
+    /** Thread ve log adlarında kullanılır (ör. oturum id'si). */
+    @Getter
+    private final String name;
 
+    /** Tüm bağlantılar açıksa true. */
     @Getter
     private volatile boolean connected = false;
-    private WebSocketClient client;
-    private String currentUrl;
+    private final Object stateLock = new Object();
+    /** connect ile disconnect arası: kopan bağlantılar yeniden açılır, gönderimler kabul edilir. */
+    @Getter
+    private volatile boolean active = false;
+    private volatile Link[] links = new Link[0];
+    private volatile String currentUrl;
+    private ScheduledExecutorService reconnector;
+    /** Yalnızca yazıcı thread'inde kullanılır. */
+    private final RosFrameEncoder encoder = new RosFrameEncoder();
+    private OutboundScheduler outbound;
+    private final Map<String, TopicSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> assignments = new ConcurrentHashMap<>();
+    private final Map<String, Timer> publishTimers = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> inboundMeters = new ConcurrentHashMap<>();
+    private final CborMessageDecoder cbor = new CborMessageDecoder();
+    private final PngMessageDecoder png = new PngMessageDecoder();
+    @Setter
+    private volatile FrameTap tap = FrameTap.NONE;
+    /** Bağlantı açıldı (true) / koptu (false); soket thread'inde çağrılır, bloklamamalı. */
+    @Setter
+    private volatile Consumer<Boolean> connectionListener = up -> {};
+
+    /** Bağlantılar (henüz açılmadan) ve gelen mesaj sıraları kurulur. */
+    public void init() {
+        Link[] ls = new Link[Math.max(props.getBridge().getConnections(), 1)];
+        for (int i = 0; i < ls.length; i++) ls[i] = new Link(i, ls.length);
+        links = ls;
+        outbound = new OutboundScheduler(name, props.getBridge().getOutbound(), meters);
+        reconnector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ros-reconnect-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void shutdown() {
+        active = false;
+        reconnector.shutdownNow();
+        outbound.stop();
+        for (Link l : links) l.shutdown();
+        publishTimers.values().forEach(meters::remove);
+        publishTimers.clear();
+        inboundMeters.keySet().forEach(this::removeInboundMeters);
+    }
 
     public synchronized void connect(String wsUrl) {
         if (connected && wsUrl.equals(currentUrl)) return;
         try {
             currentUrl = wsUrl;
-            if (client != null && client.isOpen()) client.close();
-
-            client = new WebSocketClient(new URI(wsUrl)) {
-                @Override public void onOpen(ServerHandshake h) { connected = true; log.info("rosbridge connected {}", wsUrl); }
-                @Override public void onMessage(String message) { /* no-op */ }
-                @Override public void onClose(int code, String reason, boolean remote) { connected = false; log.warn("rosbridge closed: {}", reason); }
-                @Override public void onError(Exception ex) { connected = false; log.error("rosbridge error", ex); }
-            };
-            client.connectBlocking();
+            active = true;
+            outbound.start();
+            for (Link l : links) l.connect(wsUrl);
         } catch (Exception e) {
-            connected = false;
+            synchronized (stateLock) { connected = false; }
             throw new RuntimeException("rosbridge connect failed: " + wsUrl, e);
         }
     }
 
     public synchronized void disconnect() {
-        try { if (client != null) client.closeBlocking(); } catch (Exception ignored) {}
-        connected = false;
+        active = false; // kapanışta yeniden bağlanılmaz
+        for (Link l : links) l.close();
+        synchronized (stateLock) { connected = false; }
+        outbound.wake(); // bekleyen mesajlar artık beklemeden başarısız olur
+    }
+
+    /** Topic'in atandığı bağlantının sırası; ilk sorguda hesaplanır ve sabit kalır. */
+    public int connectionOf(String topic) {
+        return assignments.computeIfAbsent(topic, this::assign);
+    }
+
+    /** control-topics -> 0, shards -> verilen bağlantı, kalanlar shard'a ayrılmamış bağlantılara hash ile. */
+    private int assign(String topic) {
+        int n = links.length;
+        RosDockerProps.Bridge cfg = props.getBridge();
+        if (n <= 1 || cfg.getControlTopics().contains(topic)) return 0;
+        for (RosDockerProps.TopicShard s : cfg.getShards()) {
+            if (topic.equals(s.getTopic())) return Math.floorMod(s.getConnection(), n);
+        }
+        List<Integer> free = new ArrayList<>();
+        for (int i = 1; i < n; i++) {
+            int c = i;
+            if (cfg.getShards().stream().noneMatch(s -> Math.floorMod(s.getConnection(), n) == c)) free.add(c);
+        }
+        if (free.isEmpty()) return 1 + Math.floorMod(topic.hashCode(), n - 1);
+        return free.get(Math.floorMod(topic.hashCode(), free.size()));
+    }
+
+    private Link link(String topic) {
+        return links[connectionOf(topic)];
+    }
+
+    /** Bağlı sayılmak için tüm bağlantılar açık olmalı; değişiklik dinleyiciye sırayla bildirilir. */
+    private void linkChanged() {
+        synchronized (stateLock) {
+            boolean up = links.length > 0 && Arrays.stream(links).allMatch(l -> l.open);
+            if (up == connected) return;
+            connected = up;
+            connectionListener.accept(up);
+        }
     }
 
-    private void send(Map<String, Object> payload) {
-        try { client.send(om.writeValueAsString(payload)); }
+    /** JSON çağıranın thread'inde üretilir, topic'in bağlantısına yazıcı thread'inde gönderilir. */
+    private void send(SendLane lane, String topic, Map<String, Object> payload) {
+        String json;
+        try { json = om.writeValueAsString(payload); }
         catch (Exception e) { throw new RuntimeException("rosbridge send failed", e); }
+        Link l = link(topic);
+        outbound.submit(lane, null, l, () -> l.send(json));
+    }
+
+    /**
+     * Kayıttan gelen frame'i canlı mesajla aynı yoldan dağıtır (abonelikler, STOMP aşamaları).
+     * Sıra dolmuşsa yer açılana kadar bekler; hızlı replay mesaj düşürmez.
+     */
+    public void replayInbound(String text) {
+        Link l = links[0]; // kayıt sırası korunsun diye replay tek sıradan dağıtılır
+        l.awaitInboundCapacity();
+        l.enqueueInbound(() -> dispatchText(text));
+    }
+
+    public void replayInbound(ByteBuffer cborFrame) {
+        Link l = links[0];
+        l.awaitInboundCapacity();
+        l.enqueueInbound(() -> dispatchCbor(cborFrame));
+    }
+
+    /** Kuyruktaki mesajlar dağıtılana kadar en fazla timeoutMs bekler; replay sonunda kuyruk boşalsın diye. */
+    public boolean drainInbound(long timeoutMs) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        Link l = links[0];
+        l.awaitInboundCapacity();
+        l.enqueueInbound(done::countDown);
+        return done.await(timeoutMs, TimeUnit.MILLISECONDS);
     }
 
-    private void advertise(String topic, String type) {
-        send(Map.of("op", "advertise", "id", "adv-"+topic, "topic", topic, "type", type));
+    /**
+     * Topic'e abone olur. rosbridge'e topic başına tek subscribe gider; sonraki dinleyiciler
+     * aynı kaydı paylaşır. Bağlantı yoksa kayıt tutulur ve bağlantı açılınca gönderilir.
+     * Kayıt, bağlantının açılışıyla (replay + open) aynı kilit altında değişir; arada kalan abonelik kaybolmaz.
+     */
+    public void subscribe(String topic, String type, int throttleRate, int queueLength, RosTopicListener listener) {
+        subscribe(topic, type, throttleRate, queueLength, TopicSubscription.COMPRESSION_NONE, listener);
     }
 
-    private void publish(String topic, Object msg) {
-        send(Map.of("op", "publish", "id", "pub-"+UUID.randomUUID(), "topic", topic, "msg", msg));
+    /**
+     * compression: "none", "cbor" (binary frame, sayısal diziler primitive okunur) ya da "png".
+     * Büyük mesajlarda (/map, /scan, görüntü) cbor hem teldeki baytı hem çözme süresini düşürür.
+     */
+    public void subscribe(String topic, String type, int throttleRate, int queueLength, String compression,
+                          RosTopicListener listener) {
+        Link l = link(topic);
+        synchronized (l.opening) {
+            TopicSubscription sub = subscriptions.computeIfAbsent(topic, t -> {
+                TopicSubscription s = new TopicSubscription(t, type, throttleRate, queueLength, compression);
+                registerInboundMeters(s);
+                if (l.open) sendSubscribe(s);
+                return s;
+            });
+            sub.getListeners().add(listener);
+            if (sub.lowerThrottle(throttleRate) && l.open) sendSubscribe(sub); // aynı id: rosbridge ayarı günceller
+        }
+    }
+
+    public void unsubscribe(String topic, RosTopicListener listener) {
+        Link l = link(topic);
+        synchronized (l.opening) {
+            subscriptions.computeIfPresent(topic, (t, sub) -> {
+                sub.getListeners().remove(listener);
+                if (!sub.getListeners().isEmpty()) return sub;
+                if (l.open) send(SendLane.BULK, t, Map.of("op", "unsubscribe", "id", "sub-"+t, "topic", t));
+                removeInboundMeters(t);
+                return null;
+            });
+        }
+    }
+
+    public Collection<TopicSubscription> getSubscriptions() {
+        return subscriptions.values();
+    }
+
+    private void sendSubscribe(TopicSubscription s) {
+        send(SendLane.BULK, s.getTopic(), subscribeOp(s));
+    }
+
+    /** Mesaj başına yalnızca aboneliğin LongAdder'ları artar; ölçüler onları okur. */
+    private void registerInboundMeters(TopicSubscription s) {
+        Tags tags = Tags.of("session", name, "topic", s.getTopic(), "connection", String.valueOf(connectionOf(s.getTopic())));
+        inboundMeters.put(s.getTopic(), List.of(
+                FunctionCounter.builder("ros.bridge.inbound.messages", s, x -> x.getMessages().sum())
+                        .description("rosbridge'den gelen mesaj").tags(tags).register(meters),
+                FunctionCounter.builder("ros.bridge.inbound.bytes", s, x -> x.getWireBytes().sum())
+                        .description("Gelen mesajların teldeki baytı").baseUnit("bytes").tags(tags).register(meters),
+                FunctionTimer.builder("ros.bridge.inbound.decode", s, x -> x.getMessages().sum(),
+                                x -> x.getDecodeNanos().sum(), TimeUnit.NANOSECONDS)
+                        .description("Gelen mesajın çözülmesi").tags(tags).register(meters)));
+    }
+
+    private void removeInboundMeters(String topic) {
+        List<Meter> m = inboundMeters.remove(topic);
+        if (m != null) m.forEach(meters::remove);
+    }
+
+    /** Topic'in yayın süresi ölçüsü; ilk publish'te kaydedilir. */
+    private Timer publishTimer(String topic) {
+        return publishTimers.computeIfAbsent(topic, t -> Timer.builder("ros.bridge.publish")
+                .description("Mesajın şeride konmasından sokete yazılmasına kadar")
+                .tags("session", name, "topic", t, "connection", String.valueOf(connectionOf(t)))
+                .register(meters));
+    }
+
+    private static Map<String, Object> subscribeOp(TopicSubscription s) {
+        return Map.of("op", "subscribe", "id", "sub-"+s.getTopic(), "topic", s.getTopic(), "type", s.getType(),
+                "throttle_rate", s.getThrottleRate(), "queue_length", s.getQueueLength(),
+                "compression", s.getCompression());
     }
 
+    private static Map<String, Object> advertiseOp(String topic, String type) {
+        return Map.of("op", "advertise", "id", "adv-"+topic, "topic", topic, "type", type);
+    }
+
+    private void dispatchText(String message) {
+        long t0 = System.nanoTime();
+        JsonNode root;
+        try {
+            root = om.readTree(message);
+            if ("png".equals(root.path("op").asText())) root = om.readTree(png.decode(root.path("data").asText()));
+        } catch (Exception e) { log.warn("rosbridge message parse failed", e); return; }
+        dispatch(root, message.length(), System.nanoTime() - t0);
+    }
+
+    private void dispatchCbor(ByteBuffer frame) {
+        long t0 = System.nanoTime();
+        int size = frame.remaining();
+        JsonNode root;
+        try { root = cbor.decode(frame); }
+        catch (Exception e) { log.warn("rosbridge cbor decode failed", e); return; }
+        dispatch(root, size, System.nanoTime() - t0);
+    }
+
+    private void dispatch(JsonNode root, long wireBytes, long decodeNanos) {
+        String op = root.path("op").asText();
+        if (!"publish".equals(op)) {
+            if ("status".equals(op)) log.debug("rosbridge status: {}", root.path("msg").asText());
+            return;
+        }
+        String topic = root.path("topic").asText();
+        TopicSubscription sub = subscriptions.get(topic);
+        if (sub == null) return;
+        sub.record(wireBytes, decodeNanos);
+        JsonNode msg = root.get("msg");
+        for (RosTopicListener l : sub.getListeners()) {
+            try { l.onMessage(topic, msg); }
+            catch (RuntimeException e) { log.warn("listener failed on {}", topic, e); }
+        }
+    }
+
+    /** Topic, atandığı bağlantıda bu tiple advertise edilmediyse bir kez advertise eder. */
+    private void ensureAdvertised(String topic, String type) {
+        TopicRegistry advertised = link(topic).advertised;
+        long now = System.nanoTime();
+        if (advertised.touch(topic, type, now)) return;
+        synchronized (advertised) {
+            if (advertised.touch(topic, type, now)) return;
+            if (advertised.typeOf(topic) != null) unadvertise(topic); // tip değişti
+            send(SendLane.SAFETY, topic, advertiseOp(topic, type));
+            advertised.register(topic, type, now);
+        }
+    }
+
+    private void unadvertise(String topic) {
+        send(SendLane.SAFETY, topic, Map.of("op", "unadvertise", "id", "unadv-"+topic, "topic", topic));
+    }
+
+    /** Uzun süredir publish edilmeyen topic'lerin publisher'ını rosbridge tarafında bırakır (zamanlayıcı: oturum yöneticisi). */
+    public void unadvertiseIdle() {
+        long idle = TimeUnit.MILLISECONDS.toNanos(props.getBridge().getAdvertiseIdleTimeout());
+        for (Link l : links) {
+            if (!l.open) continue;
+            synchronized (l.advertised) {
+                List<String> evicted = l.advertised.evictIdle(System.nanoTime(), idle);
+                for (String topic : evicted) {
+                    try { unadvertise(topic); }
+                    catch (RuntimeException e) { log.debug("unadvertise {} failed", topic, e); }
+                }
+                if (!evicted.isEmpty()) log.debug("unadvertised idle topics {}", evicted);
+            }
+        }
+    }
+
+    /**
+     * Genel yayın (ör. gecikme yoklaması). JSON çağıranın thread'inde üretilir; topic başına şeritte bekleyen
+     * son mesaj kazanır.
+     */
+    public void publish(SendLane lane, String topic, String type, Map<String, Object> msg) {
+        String json;
+        try { json = om.writeValueAsString(Map.of("op", "publish", "topic", topic, "msg", msg)); }
+        catch (Exception e) { throw new RuntimeException("rosbridge send failed", e); }
+        ensureAdvertised(topic, type);
+        Link l = link(topic);
+        Timer timer = publishTimer(topic);
+        long queuedAt = System.nanoTime();
+        outbound.submit(lane, "pub:" + topic, l, () -> {
+            l.send(json);
+            timer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /** Sıfır hız (durdurma) SAFETY, diğerleri CONTROL şeridinden; topic başına bekleyen son komut kazanır. */
     public void publishTwist(TwistDTO dto) {
         String topic = dto.getTopic() == null ? "/cmd_vel" : dto.getTopic();
-        advertise(topic, "geometry_msgs/msg/Twist");
-        Map<String, Object> msg = Map.of(
-                "linear", Map.of("x", dto.getLinear(), "y", 0.0, "z", 0.0),
-                "angular", Map.of("x", 0.0, "y", 0.0, "z", dto.getAngular())
-        );
-        publish(topic, msg);
+        boolean stop = dto.getLinear() == 0.0 && dto.getAngular() == 0.0;
+        ensureAdvertised(topic, "geometry_msgs/msg/Twist");
+        Link l = link(topic);
+        Timer timer = publishTimer(topic);
+        long queuedAt = System.nanoTime();
+        outbound.submit(stop ? SendLane.SAFETY : SendLane.CONTROL, "pub:" + topic, l, () -> {
+            try { l.sendText(encoder.twist(topic, dto.getLinear(), dto.getAngular())); }
+            catch (Exception e) { throw new RuntimeException("rosbridge send failed", e); }
+            timer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        });
     }
 
+    /** GOAL şeridinden; şerit doluysa (REJECT) {@link SendRejectedException}. */
     public void sendGoal(GoalPoseDTO goal) {
         String frame = goal.getFrameId() == null ? "map" : goal.getFrameId();
-        advertise("/goal_pose", "geometry_msgs/msg/PoseStamped");
-        Map<String, Object> msg = Map.of(
-                "header", Map.of("stamp", Map.of("sec", Instant.now().getEpochSecond(), "nanosec", 0), "frame_id", frame),
-                "pose", Map.of(
-                        "position", Map.of("x", goal.getX(), "y", goal.getY(), "z", 0.0),
-                        "orientation", yawToQuat(goal.getTheta())
-                )
-        );
-        publish("/goal_pose", msg);
-    }
-
-    private Map<String, Object> yawToQuat(double yaw) {
-        double cy = Math.cos(yaw * 0.5), sy = Math.sin(yaw * 0.5);
-        return Map.of("x", 0.0, "y", 0.0, "z", sy, "w", cy);
+        long stamp = System.currentTimeMillis();
+        ensureAdvertised("/goal_pose", "geometry_msgs/msg/PoseStamped");
+        Link l = link("/goal_pose");
+        Timer timer = publishTimer("/goal_pose");
+        long queuedAt = System.nanoTime();
+        outbound.submit(SendLane.GOAL, "pub:/goal_pose", l, () -> {
+            try { l.sendText(encoder.poseStamped("/goal_pose", frame, stamp, goal.getX(), goal.getY(), goal.getTheta())); }
+            catch (Exception e) { throw new RuntimeException("rosbridge send failed", e); }
+            timer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /** Havuzdaki tek soket: kendi okuma thread'i, gelen mesaj sırası ve advertise kaydı. */
+    private final class Link implements OutboundScheduler.Target {
+        final int index;
+        final String role;
+        /** Beklenmedik kopuşta korunur, yeniden açılınca aynen advertise edilir. */
+        final TopicRegistry advertised = new TopicRegistry();
+        final ThreadPoolExecutor inbound;
+        final List<Meter> registered = new ArrayList<>();
+        final AtomicBoolean reconnectPending = new AtomicBoolean();
+        final AtomicInteger attempts = new AtomicInteger();
+        Counter reconnected;
+        Counter reconnectFailed;
+        volatile WebSocketClient socket;
+        volatile boolean open;
+        /** Açılıştaki replay + open ile abone ol/bırak birbirini görsün diye. */
+        final Object opening = new Object();
+        /** Güncel soketin yazılmayı bekleyen baytı (ws://); wss'de null, kuyruk taranır. */
+        volatile AtomicLong sendBytes;
+
+        Link(int index, int count) {
+            this.index = index;
+            this.role = index == 0 && count > 1 ? ROLE_CONTROL : ROLE_BULK;
+            String thread = "ros-inbound-" + name + (count > 1 ? "-" + index : "");
+            // Gelen mesajlar soket thread'ini bekletmeden bağlantının sıralı executor'unda dağıtılır
+            this.inbound = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(props.getBridge().getInboundQueue()),
+                    r -> { Thread t = new Thread(r, thread); t.setDaemon(true); return t; },
+                    new ThreadPoolExecutor.DiscardOldestPolicy()); // yavaş dinleyicide en eski mesaj düşer
+        }
+
+        /** Yeni adrese (ya da yeniden) bağlanır; rosbridge tarafında publisher kalmadığı için kayıt temizlenir. */
+        void connect(String wsUrl) throws Exception {
+            WebSocketClient old = socket;
+            if (old != null && old.isOpen()) old.close();
+            advertised.clear();
+            attempts.set(0);
+            if (registered.isEmpty()) registerMeters();
+            newSocket(wsUrl).connectBlocking();
+        }
+
+        /** Yalnızca güncel soketin olayları işlenir; değiştirilen eski soketin geç gelen kapanışı yok sayılır. */
+        private WebSocketClient newSocket(String wsUrl) throws URISyntaxException {
+            WebSocketClient c = new WebSocketClient(new URI(wsUrl)) {
+                @Override public void onOpen(ServerHandshake h) {
+                    int replayed;
+                    synchronized (opening) {
+                        replayed = replay(this); // şeritler open olunca yazılır; advertise/abonelik onlardan önce gider
+                        open = true;
+                    }
+                    outbound.wake();
+                    int attempt = attempts.getAndSet(0);
+                    if (attempt > 0) log.info("rosbridge[{}#{}] reconnected {} after {} attempts, replayed {} ops", name, index, wsUrl, attempt, replayed);
+                    else log.info("rosbridge[{}#{}] connected {}", name, index, wsUrl);
+                    linkChanged();
+                }
+                @Override public void onMessage(String message) { tap.text(false, message); enqueueInbound(() -> dispatchText(message)); }
+                @Override public void onMessage(ByteBuffer frame) { tap.binary(frame); enqueueInbound(() -> dispatchCbor(frame)); }
+                @Override public void onClose(int code, String reason, boolean remote) {
+                    if (socket != this) return;
+                    boolean was = open;
+                    open = false;
+                    if (was) log.warn("rosbridge[{}#{}] closed: {}", name, index, reason);
+                    linkChanged();
+                    scheduleReconnect();
+                }
+                @Override public void onError(Exception ex) {
+                    if (socket != this) return;
+                    boolean was = open;
+                    open = false;
+                    if (was) log.error("rosbridge[{}#{}] error", name, index, ex);
+                    else log.debug("rosbridge[{}#{}] error: {}", name, index, ex.toString());
+                    linkChanged();
+                }
+            };
+            AtomicLong bytes = null;
+            if ("ws".equalsIgnoreCase(c.getURI().getScheme())) {
+                AtomicLong counter = new AtomicLong();
+                c.setSocketFactory(new CountingSocketFactory(n -> written(counter, n)));
+                bytes = counter;
+            }
+            sendBytes = bytes;
+            socket = c;
+            return c;
+        }
+
+        /** Soket akışına yazılan bayt düşülür; high-water altına inilince bekleyen şeritler uyandırılır. */
+        private void written(AtomicLong bytes, long n) {
+            long before;
+            long after;
+            do {
+                before = bytes.get();
+                after = Math.max(0, before - n); // el sıkışması ve kontrol frame'leri sayılmadan yazılır
+            } while (!bytes.compareAndSet(before, after));
+            long highWater = props.getBridge().getOutbound().getHighWaterBytes();
+            if (before >= highWater && after < highWater) outbound.wake();
+        }
+
+        /** Etkinse ve bekleyen deneme yoksa bir sonraki denemeyi zamanlar: min(max, taban * 2^deneme), %50 jitter. */
+        void scheduleReconnect() {
+            if (!active || !reconnectPending.compareAndSet(false, true)) return;
+            RosDockerProps.Bridge cfg = props.getBridge();
+            int attempt = attempts.getAndIncrement();
+            long base = Math.max(cfg.getReconnectInterval(), 50);
+            long max = Math.max(cfg.getReconnectMaxInterval(), base);
+            long delay = Math.min(max, base << Math.min(attempt, 20));
+            delay = ThreadLocalRandom.current().nextLong(delay / 2, delay + 1);
+            try {
+                reconnector.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+                log.info("rosbridge[{}#{}] reconnecting in {} ms (attempt {})", name, index, delay, attempt + 1);
+            } catch (RejectedExecutionException e) {
+                reconnectPending.set(false); // kapanıyor
+            }
+        }
+
+        private void reconnect() {
+            reconnectPending.set(false);
+            if (!active || open) return;
+            WebSocketClient c;
+            boolean ok;
+            try {
+                c = newSocket(currentUrl);
+                ok = c.connectBlocking(RECONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (URISyntaxException e) {
+                log.error("rosbridge[{}#{}] reconnect failed: {}", name, index, e.getMessage());
+                return;
+            }
+            (ok ? reconnected : reconnectFailed).increment();
+            if (!ok) {
+                c.close(); // bekleyen el sıkışması sonradan açılmasın; kapanış sonraki denemeyi zamanlar
+                scheduleReconnect();
+            } else if (!active) {
+                c.close(); // bu arada disconnect edildi
+            }
+        }
+
+        /** Yeni sokette advertise ve abonelikleri doğrudan yazar; şeritlerden geçmez. Gönderilen işlem sayısı. */
+        private int replay(WebSocketClient c) {
+            int n = 0;
+            try {
+                for (Map.Entry<String, String> a : advertised.types().entrySet()) {
+                    c.send(om.writeValueAsString(advertiseOp(a.getKey(), a.getValue())));
+                    n++;
+                }
+                for (TopicSubscription s : subscriptions.values()) {
+                    if (link(s.getTopic()) != this) continue;
+                    c.send(om.writeValueAsString(subscribeOp(s)));
+                    n++;
+                }
+            } catch (Exception e) {
+                log.warn("rosbridge[{}#{}] replay failed", name, index, e);
+            }
+            return n;
+        }
+
+        void close() {
+            try { if (socket != null) socket.closeBlocking(); } catch (Exception ignored) {}
+            open = false;
+        }
+
+        void shutdown() {
+            inbound.shutdownNow();
+            registered.forEach(meters::remove);
+            registered.clear();
+        }
+
+        void send(String json) {
+            frame(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+            tap.text(true, json);
+        }
+
+        /** Hazır UTF-8 JSON tamponunu tek text frame olarak yollar; tampon dönüşte yeniden kullanılabilir. */
+        void sendText(ByteBuffer utf8) {
+            tap.textBytes(true, utf8);
+            frame(utf8);
+        }
+
+        /** Frame'in teldeki boyu (maskeli istemci frame'i) soket kuyruğuna girmeden sayılır. */
+        private void frame(ByteBuffer utf8) {
+            TextFrame frame = new TextFrame();
+            int len = utf8.remaining();
+            frame.setPayload(utf8);
+            frame.setFin(true);
+            AtomicLong bytes = sendBytes;
+            long size = 2 + 4 + len + (len <= 125 ? 0 : len <= 0xFFFF ? 2 : 8);
+            if (bytes != null) bytes.addAndGet(size);
+            try {
+                socket.sendFrame(frame);
+            } catch (RuntimeException e) {
+                if (bytes != null) written(bytes, size);
+                throw e;
+            }
+        }
+
+        /**
+         * Açıksa soket kuyruğu high-water altında mı. Kopukken yeniden bağlanılıyorsa false (mesaj şeritte bekler),
+         * istemci kapatıldıysa gönderim hemen başarısız olsun diye true.
+         */
+        @Override
+        public boolean writable() {
+            if (!open) return !active;
+            return queuedBytes() < props.getBridge().getOutbound().getHighWaterBytes();
+        }
+
+        void enqueueInbound(Runnable task) {
+            try { inbound.execute(task); }
+            catch (RejectedExecutionException ignored) { /* kapanıyor */ }
+        }
+
+        void awaitInboundCapacity() {
+            while (inbound.getQueue().remainingCapacity() == 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(100_000L);
+            }
+        }
+
+        /** Replay istemcisi bağlanmadığı için ölçüler ilk bağlantıda kaydedilir. */
+        private void registerMeters() {
+            Tags tags = Tags.of("session", name, "connection", String.valueOf(index), "role", role);
+            registered.add(Gauge.builder("ros.bridge.send.queue", this, Link::queuedFrames)
+                    .description("Sokete yazılmayı bekleyen frame sayısı").tags(tags).register(meters));
+            registered.add(Gauge.builder("ros.bridge.send.queue.bytes", this, Link::queuedBytes)
+                    .description("Sokete yazılmayı bekleyen bayt").tags(tags).register(meters));
+            registered.add(Gauge.builder("ros.bridge.inbound.queue", this, l -> l.inbound.getQueue().size())
+                    .description("Dağıtılmayı bekleyen gelen mesaj sayısı").tags(tags).register(meters));
+            registered.add(Gauge.builder("ros.bridge.connection.open", this, l -> l.open ? 1 : 0)
+                    .description("Bağlantı açık (1) / kopuk (0)").tags(tags).register(meters));
+            reconnected = Counter.builder("ros.bridge.reconnects").description("Yeniden bağlanma denemesi")
+                    .tags(tags).tag("result", "success").register(meters);
+            reconnectFailed = Counter.builder("ros.bridge.reconnects").description("Yeniden bağlanma denemesi")
+                    .tags(tags).tag("result", "failure").register(meters);
+            registered.add(reconnected);
+            registered.add(reconnectFailed);
+        }
+
+        private double queuedFrames() {
+            WebSocketClient c = socket;
+            return c == null ? 0 : ((WebSocketImpl) c.getConnection()).outQueue.size();
+        }
+
+        private double queuedBytes() {
+            AtomicLong counted = sendBytes;
+            if (counted != null) return counted.get();
+            WebSocketClient c = socket;
+            if (c == null) return 0;
+            long bytes = 0;
+            for (ByteBuffer b : ((WebSocketImpl) c.getConnection()).outQueue) bytes += b.remaining();
+            return bytes;
+        }
     }
 }
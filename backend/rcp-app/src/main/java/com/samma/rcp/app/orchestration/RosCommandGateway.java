@@ -9,11 +9,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class RosCommandGateway {
 
-    private final RosBridgeClient ros;
+    private final SimulationSessionManager sessions;
 
     public void advertise(String topic, String type) {
         // basit proxy — RosBridgeClient içinde advertise/publish private.
-        // Gerekirse RosBridgeClient'a public metod ekleyip buradan çağırabilirsin.
+        // Gerekirse RosBridgeClient'a public metod ekleyip buradan (sessions.require(id).getClient()) çağırabilirsin.
         // Şimdilik Twist/Goal gibi spesifik komutlar RosBridgeClient tarafından gönderiliyor.
     }
 
@@ -0,0 +1,173 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Sabit şekilli publish frame'leri (Twist, PoseStamped) için akışkan JSON encoder.
+ * Tek bir JsonGenerator ve byte tamponu yeniden kullanılır; Map ağacı, UUID ve ara String üretilmez.
+ * Dönen ByteBuffer bir sonraki encode çağrısına kadar geçerlidir. Thread-safe değildir.
+ */
+public class RosFrameEncoder {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final SerializableString OP = new SerializedString("op");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TOPIC = new SerializedString("topic");
+    private static final SerializableString MSG = new SerializedString("msg");
+    private static final SerializableString PUBLISH = new SerializedString("publish");
+    private static final SerializableString LINEAR = new SerializedString("linear");
+    private static final SerializableString ANGULAR = new SerializedString("angular");
+    private static final SerializableString HEADER = new SerializedString("header");
+    private static final SerializableString STAMP = new SerializedString("stamp");
+    private static final SerializableString SEC = new SerializedString("sec");
+    private static final SerializableString NANOSEC = new SerializedString("nanosec");
+    private static final SerializableString FRAME_ID = new SerializedString("frame_id");
+    private static final SerializableString POSE = new SerializedString("pose");
+    private static final SerializableString POSITION = new SerializedString("position");
+    private static final SerializableString ORIENTATION = new SerializedString("orientation");
+    private static final SerializableString X = new SerializedString("x");
+    private static final SerializableString Y = new SerializedString("y");
+    private static final SerializableString Z = new SerializedString("z");
+    private static final SerializableString W = new SerializedString("w");
+
+    private static final char[] PUB_PREFIX = "pub-".toCharArray();
+
+    private final FrameBuffer out = new FrameBuffer(512);
+    private final JsonGenerator gen;
+    private final char[] idChars = new char[PUB_PREFIX.length + 20];
+    private final char[] numChars = new char[32];
+    private long seq;
+
+    public RosFrameEncoder() {
+        try {
+            gen = FACTORY.createGenerator(out);
+            gen.setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new IllegalStateException("JsonGenerator oluşturulamadı", e);
+        }
+        System.arraycopy(PUB_PREFIX, 0, idChars, 0, PUB_PREFIX.length);
+    }
+
+    /** geometry_msgs/msg/Twist publish frame'i (yalnızca linear.x ve angular.z dolu). */
+    public ByteBuffer twist(String topic, double linearX, double angularZ) throws IOException {
+        beginPublish(topic);
+        vector3(LINEAR, linearX, 0.0, 0.0);
+        vector3(ANGULAR, 0.0, 0.0, angularZ);
+        return endPublish();
+    }
+
+    /** geometry_msgs/msg/PoseStamped publish frame'i; yaw z ekseni etrafında quaternion'a çevrilir. */
+    public ByteBuffer poseStamped(String topic, String frameId, long stampMillis,
+                                  double x, double y, double yaw) throws IOException {
+        beginPublish(topic);
+        gen.writeFieldName(HEADER);
+        gen.writeStartObject();
+        gen.writeFieldName(STAMP);
+        gen.writeStartObject();
+        gen.writeFieldName(SEC);
+        gen.writeNumber(Math.floorDiv(stampMillis, 1000L));
+        gen.writeFieldName(NANOSEC);
+        gen.writeNumber((int) Math.floorMod(stampMillis, 1000L) * 1_000_000);
+        gen.writeEndObject();
+        gen.writeFieldName(FRAME_ID);
+        gen.writeString(frameId);
+        gen.writeEndObject();
+
+        gen.writeFieldName(POSE);
+        gen.writeStartObject();
+        vector3(POSITION, x, y, 0.0);
+        gen.writeFieldName(ORIENTATION);
+        gen.writeStartObject();
+        gen.writeFieldName(X); writeDouble(0.0);
+        gen.writeFieldName(Y); writeDouble(0.0);
+        gen.writeFieldName(Z); writeDouble(Math.sin(yaw * 0.5));
+        gen.writeFieldName(W); writeDouble(Math.cos(yaw * 0.5));
+        gen.writeEndObject();
+        gen.writeEndObject();
+        return endPublish();
+    }
+
+    private void beginPublish(String topic) throws IOException {
+        out.reset();
+        gen.writeStartObject();
+        gen.writeFieldName(OP);
+        gen.writeString(PUBLISH);
+        gen.writeFieldName(ID);
+        gen.writeString(idChars, 0, PUB_PREFIX.length + writeDecimal(++seq, idChars, PUB_PREFIX.length));
+        gen.writeFieldName(TOPIC);
+        gen.writeString(topic);
+        gen.writeFieldName(MSG);
+        gen.writeStartObject();
+    }
+
+    private ByteBuffer endPublish() throws IOException {
+        gen.writeEndObject(); // msg
+        gen.writeEndObject(); // frame
+        gen.flush();
+        return out.view();
+    }
+
+    private void vector3(SerializableString name, double x, double y, double z) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeStartObject();
+        gen.writeFieldName(X); writeDouble(x);
+        gen.writeFieldName(Y); writeDouble(y);
+        gen.writeFieldName(Z); writeDouble(z);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Double'ı String üretmeden, 9 ondalık hane hassasiyetle yazar (hız/poz için fazlasıyla yeterli).
+     * Sonlu olmayan ya da çok büyük değerlerde Jackson'ın normal yoluna düşer.
+     */
+    private void writeDouble(double v) throws IOException {
+        if (!Double.isFinite(v) || Math.abs(v) >= 1e9) { gen.writeNumber(v); return; }
+        long scaled = Math.round(Math.abs(v) * 1e9);
+        int p = 0;
+        if (v < 0 && scaled != 0) numChars[p++] = '-';
+        p += writeDecimal(scaled / 1_000_000_000L, numChars, p);
+        numChars[p++] = '.';
+        long frac = scaled % 1_000_000_000L;
+        for (int i = p + 8; i >= p; i--) {
+            numChars[i] = (char) ('0' + (frac % 10));
+            frac /= 10;
+        }
+        p += 9;
+        while (numChars[p - 1] == '0' && numChars[p - 2] != '.') p--;
+        gen.writeRawValue(numChars, 0, p);
+    }
+
+    /** Negatif olmayan sayıyı dst[off..] içine yazar, yazılan karakter sayısını döner. */
+    private static int writeDecimal(long v, char[] dst, int off) {
+        int len = 1;
+        for (long t = v; t >= 10; t /= 10) len++;
+        for (int i = off + len - 1; i >= off; i--) {
+            dst[i] = (char) ('0' + (v % 10));
+            v /= 10;
+        }
+        return len;
+    }
+
+    /** İç dizisi dışarı açılan, yeniden kullanılabilir çıktı tamponu. */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+        private ByteBuffer view;
+
+        private FrameBuffer(int size) {
+            super(size);
+        }
+
+        private ByteBuffer view() {
+            if (view == null || view.array() != buf) view = ByteBuffer.wrap(buf);
+            view.clear().limit(count);
+            return view;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/** rosbridge'den gelen bir topic mesajını alır; inbound executor thread'inde çağrılır. */
+@FunctionalInterface
+public interface RosTopicListener {
+    void onMessage(String topic, JsonNode msg);
+}
@@ -0,0 +1,115 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Başlatma sırasında rosbridge'in rosapi servislerine sorulan hazırlık kontrolleri için kısa ömürlü
+ * bağlantı; oturumun {@link RosBridgeClient}'ından ayrıdır. Bridge henüz açılmadıysa kontrol false
+ * döner, sonraki yoklamada yeniden bağlanılır.
+ */
+final class RosapiProbe implements AutoCloseable {
+
+    private static final long CONNECT_TIMEOUT_MS = 1000;
+    private static final long CALL_TIMEOUT_MS = 2000;
+
+    private final URI uri;
+    private final ObjectMapper om;
+    private final Map<String, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+    /** Erişim this üzerinden senkronize. */
+    private WebSocketClient client;
+    private boolean closed;
+
+    RosapiProbe(URI uri, ObjectMapper om) {
+        this.uri = uri;
+        this.om = om;
+    }
+
+    /**
+     * Topic'in en az bir yayıncısı var mı (/rosapi/publishers)? /rosapi/topics yalnızca abonesi olan
+     * topic'leri de listelediği için yayıncıya bakılır.
+     */
+    boolean hasPublisher(String topic) {
+        JsonNode values = call("/rosapi/publishers", Map.of("topic", topic));
+        return values != null && values.path("publishers").size() > 0;
+    }
+
+    /** Servis yanıtının values alanı; bağlantı yoksa, süre dolduysa ya da servis başarısızsa null. */
+    private JsonNode call(String service, Map<String, Object> args) {
+        WebSocketClient c = open();
+        if (c == null) return null;
+        String id = "ready-" + seq.incrementAndGet();
+        CompletableFuture<JsonNode> reply = new CompletableFuture<>();
+        pending.put(id, reply);
+        try {
+            c.send(om.writeValueAsString(Map.of("op", "call_service", "service", service, "args", args, "id", id)));
+            JsonNode r = reply.get(CALL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return r.path("result").asBoolean(true) ? r.path("values") : null;
+        } catch (JsonProcessingException | WebsocketNotConnectedException | ExecutionException | TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    private synchronized WebSocketClient open() {
+        if (closed) return null;
+        if (client != null && client.isOpen()) return client;
+        WebSocketClient c = new WebSocketClient(uri) {
+            @Override public void onOpen(ServerHandshake h) {}
+            @Override public void onMessage(String message) { reply(message); }
+            @Override public void onClose(int code, String reason, boolean remote) { failPending(); }
+            @Override public void onError(Exception ex) {}
+        };
+        try {
+            if (!c.connectBlocking(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                c.close();
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        client = c;
+        return c;
+    }
+
+    private void reply(String message) {
+        try {
+            JsonNode m = om.readTree(message);
+            if (!"service_response".equals(m.path("op").asText())) return;
+            CompletableFuture<JsonNode> f = pending.get(m.path("id").asText());
+            if (f != null) f.complete(m);
+        } catch (IOException ignored) {
+            // hazırlık kontrolü değil
+        }
+    }
+
+    private void failPending() {
+        pending.values().forEach(f -> f.completeExceptionally(new IllegalStateException("rosapi bağlantısı kapandı")));
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (client != null) client.close();
+    }
+}
@@ -0,0 +1,13 @@
+package com.samma.rcp.app.orchestration;
+
+/** rosbridge'e giden mesajların öncelik şeritleri; tanım sırası öncelik sırasıdır. */
+public enum SendLane {
+    /** Durdurma (sıfır hız) ile advertise/unadvertise: yayınlardan önce yazılsınlar diye en önde. */
+    SAFETY,
+    /** Teleop hız komutları. */
+    CONTROL,
+    /** Navigasyon hedefleri. */
+    GOAL,
+    /** Abonelik işlemleri ve diğerleri. */
+    BULK
+}
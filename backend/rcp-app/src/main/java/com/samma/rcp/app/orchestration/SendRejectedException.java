@@ -0,0 +1,10 @@
+package com.samma.rcp.app.orchestration;
+
+/** Gönderim şeridi dolu ve politikası REJECT; HTTP katmanında 429'a çevrilir. */
+public class SendRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public SendRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.samma.rcp.app.orchestration;
+
+/**
+ * Oturum başına durum tutan bileşenler (telemetri, kayıt, teleop) bu arayüzle bağlanır.
+ * opened bağlantı açılmadan önce çağrılır, dinleyici burada abone olur; closed bağlantı kapandıktan sonra.
+ */
+public interface SessionLifecycleListener {
+
+    void sessionOpened(SessionRuntime session);
+
+    void sessionClosed(SessionRuntime session);
+}
@@ -0,0 +1,12 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.dto.SimulationJobDTO;
+
+/** Oturum başlatma aşamalarını çağırana bildirir; sessionId kayıt oluşana kadar null. */
+@FunctionalInterface
+public interface SessionProgress {
+
+    SessionProgress NONE = (sessionId, phase) -> {};
+
+    void phase(Long sessionId, SimulationJobDTO.Phase phase);
+}
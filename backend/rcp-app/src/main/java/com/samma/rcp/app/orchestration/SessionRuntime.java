@@ -0,0 +1,34 @@
+package com.samma.rcp.app.orchestration;
+
+import lombok.Getter;
+
+/**
+ * Çalışan bir simülasyon oturumunun bellekteki karşılığı: compose projesi, ayrılan slot ve
+ * oturumun kendi rosbridge bağlantısı. Kalıcı kayıt SimulationSession'dadır (aynı id).
+ * Replay oturumlarında container yoktur: id negatif, project ve slot null'dır.
+ */
+@Getter
+public class SessionRuntime {
+
+    private final long id;
+    private final String project;
+    private final PortAllocator.Slot slot;
+    private final String host;
+    private final RosBridgeClient client;
+
+    public SessionRuntime(long id, String project, PortAllocator.Slot slot, String host, RosBridgeClient client) {
+        this.id = id;
+        this.project = project;
+        this.slot = slot;
+        this.host = host;
+        this.client = client;
+    }
+
+    public String getBridgeUrl() {
+        return slot == null ? null : "ws://" + host + ":" + slot.bridgePort();
+    }
+
+    public boolean isReplay() {
+        return slot == null;
+    }
+}
@@ -1,58 +1,152 @@
 package com.samma.rcp.app.orchestration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import com.samma.rcp.app.dto.SimulationJobDTO.Phase;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
- * Docker Compose’i kaldırır/indirir. Port bekler.
+ * Oturum başına Docker Compose projesini kaldırır/indirir. Container işlemleri {@link DockerService}
+ * üzerinden (Engine API ya da CLI) yapılır; servisler {@link StackStartup} ile bağımlılık grafiğine göre
+ * paralel başlatılır ve başlatma senaryonun gerekli servisleri (ros.startup.required) hazır olunca biter.
+ * Aşama süreleri sim.startup.phase (phase=create|services) ile ölçülür.
+ * Her oturum ayrı compose projesidir (-p); rosbridge/noVNC portu ve ROS_DOMAIN_ID
+ * {@link PortAllocator} slotundan ortam değişkeniyle verilir, böylece oturumlar birbirini görmez.
  *
  * Özelleştirilebilirlik:
  *  - Compose dosyası yolu:
  *      * JVM: -Dros.compose.file=ros-stack/docker-compose.yml
  *      * ENV: ROS_COMPOSE_FILE=ros-stack/docker-compose.yml
  *    (Varsayılan: ros-stack/docker-compose.yml)
- *  - WebSocket portu:
- *      * JVM: -Dros.ws.port=9090
- *      * ENV: ROS_WS_PORT=9090
- *    (Varsayılan: 9090)
+ *  - Portlar ve oturum sayısı: ros.sessions.*
  */
 @Component
 public class SimulationOrchestrator {
+    /** docker-compose.yml'deki rosbridge servis adı. */
+    private static final String BRIDGE_SERVICE = "rosbridge";
+    /** ros.startup.required'da listelenmeyen senaryoların anahtarı. */
+    private static final String DEFAULT_SCENARIO = "default";
+
     private final DockerService docker;
+    private final RosDockerProps props;
+    private final ObjectMapper om;
+    private final MeterRegistry meters;
+    /** Servis başlatma ve hazırlık yoklamaları; gerekli servisler hazır olduktan sonra da sürebilir. */
+    private final ExecutorService starter;
+    /** proje -> arka planda süren başlatma; stop önce bunu iptal eder. */
+    private final Map<String, StackStartup> startups = new ConcurrentHashMap<>();
 
     private final Path compose = Paths.get(
             System.getProperty("ros.compose.file",
                     System.getenv().getOrDefault("ROS_COMPOSE_FILE", "ros-stack/docker-compose.yml"))
     ).toAbsolutePath();
 
-    private final int wsPort = Integer.parseInt(
-            System.getProperty("ros.ws.port",
-                    System.getenv().getOrDefault("ROS_WS_PORT", "9090"))
-    );
-
-    public SimulationOrchestrator(DockerService docker) {
+    public SimulationOrchestrator(DockerService docker, RosDockerProps props, ObjectMapper om, MeterRegistry meters) {
         this.docker = docker;
+        this.props = props;
+        this.om = om;
+        this.meters = meters;
+        AtomicInteger n = new AtomicInteger();
+        this.starter = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stack-start-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        startups.values().forEach(StackStartup::cancel);
+        starter.shutdownNow();
+    }
+
+    public void start(String project, PortAllocator.Slot slot, String model, ScenarioType scenario) {
+        start(project, slot, model, scenario, p -> {});
+    }
+
+    /** İmaj çekme/container oluşturma ile servislerin başlatılıp hazır olması ayrı aşamalar olarak bildirilir. */
+    public void start(String project, PortAllocator.Slot slot, String model, ScenarioType scenario,
+                      Consumer<Phase> progress) {
+        Map<String, String> env = env(slot, model);
+        progress.accept(Phase.PULLING);
+        timed("create", () -> docker.composeCreate(compose, project, env));
+        progress.accept(Phase.STARTING_CONTAINERS);
+        StackStartup startup = new StackStartup(project, slot, requiredServices(scenario), docker, props, om, meters, starter);
+        startups.put(project, startup);
+        startup.done().whenComplete((v, ex) -> startups.remove(project, startup));
+        try {
+            timed("services", () -> {
+                Optional<DockerEngineClient> api = docker.engine();
+                if (api.isPresent()) startup.launch(api.get());
+                else startup.launchWithCompose(() -> docker.composeUp(compose, project, env));
+                startup.awaitRequired();
+            });
+        } catch (RuntimeException e) {
+            startup.cancel();
+            throw e;
+        }
+    }
+
+    public void stop(String project, PortAllocator.Slot slot) {
+        StackStartup startup = startups.remove(project);
+        if (startup != null) startup.cancel();
+        docker.stopProject(compose, project, env(slot, null));
     }
 
-    public void start() {
-        docker.composeUp(compose);
-        // Konteyner ayağa kalkana kadar WS portunu bekle
-        boolean ok = docker.waitForPort("localhost", wsPort, Duration.ofSeconds(25));
-        if (!ok) throw new IllegalStateException("ROSBridge " + wsPort + " açılmadı");
+    /** rosbridge container'ının durumu Engine API'den; API yoksa bridge portu yoklanır. */
+    public boolean isRunning(String project, PortAllocator.Slot slot) {
+        return docker.serviceHealthy(project, BRIDGE_SERVICE)
+                .orElseGet(() -> docker.waitForPort(props.getSessions().getHost(), slot.bridgePort(), Duration.ofSeconds(1)));
     }
 
-    public void stop() {
-        docker.composeDown(compose);
+    /** Senaryonun gerekli servisleri; oturum hemen bağlanacağı için rosbridge her zaman dahil. */
+    Set<String> requiredServices(ScenarioType scenario) {
+        Map<String, List<String>> cfg = props.getStartup().getRequired();
+        List<String> services = cfg.entrySet().stream()
+                .filter(e -> e.getKey().replace('-', '_').equalsIgnoreCase(scenario.name()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseGet(() -> cfg.getOrDefault(DEFAULT_SCENARIO, List.of()));
+        Set<String> out = new LinkedHashSet<>();
+        out.add(BRIDGE_SERVICE);
+        out.addAll(services);
+        return out;
     }
 
-    public boolean isRunning() {
-        return docker.waitForPort("localhost", wsPort, Duration.ofSeconds(1));
+    private void timed(String phase, Runnable step) {
+        long t0 = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            meters.timer("sim.startup.phase", "phase", phase).record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
     }
 
-    public int getWsPort() {
-        return wsPort;
+    private static Map<String, String> env(PortAllocator.Slot slot, String model) {
+        Map<String, String> env = new HashMap<>(Map.of(
+                "ROS_BRIDGE_PORT", String.valueOf(slot.bridgePort()),
+                "NOVNC_PORT", String.valueOf(slot.novncPort()),
+                "ROS_DOMAIN_ID", String.valueOf(slot.domainId())));
+        if (model != null) env.put("TURTLEBOT3_MODEL", model);
+        return env;
     }
 }
@@ -0,0 +1,237 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.entity.SimulationSession;
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import com.samma.rcp.app.domain.model.SimulationStatus;
+import com.samma.rcp.app.domain.repo.SimulationSessionRepository;
+import com.samma.rcp.app.dto.SimulationJobDTO.Phase;
+import com.samma.rcp.app.dto.SimulationStatusDTO;
+import com.samma.rcp.app.mapper.SimulationSessionMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eşzamanlı simülasyon oturumlarını yönetir. Her oturum kendi compose projesi, {@link PortAllocator}
+ * slotu (rosbridge/noVNC portu, ROS_DOMAIN_ID) ve kendi {@link RosBridgeClient}'ı ile çalışır;
+ * kalıcı durumu {@link SimulationSession} tablosundadır. Oturum başına durum tutan bileşenler
+ * {@link SessionLifecycleListener} ile bağlanır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimulationSessionManager {
+
+    private final SimulationOrchestrator orchestrator;
+    private final PortAllocator ports;
+    private final WarmStackPool pool;
+    private final MeterRegistry meters;
+    private final SimulationSessionRepository repo;
+    private final SimulationSessionMapper mapper;
+    private final RosDockerProps props;
+    private final ObjectMapper om;
+    private final List<SessionLifecycleListener> listeners;
+
+    /** Çalışan (RUNNING) oturumlar; replay oturumları negatif id ile. */
+    private final Map<Long, SessionRuntime> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong replayIds = new AtomicLong();
+
+    /**
+     * Yeni oturum kaldırır: havuzda hazır stack varsa onu alır (compose up ve port beklemesi atlanır),
+     * yoksa soğuk başlatır. Slot yoksa IllegalStateException; compose ya da bağlantı hatasında
+     * oturum ERROR olarak kaydedilip kaynakları bırakılır ve o durum döner.
+     * Süre sim.session.start (pool=hit|miss) ile ölçülür.
+     */
+    public SimulationStatusDTO start(RobotModel model, ScenarioType scenario) {
+        return start(model, scenario, SessionProgress.NONE);
+    }
+
+    /** {@link #start(RobotModel, ScenarioType)}; aşamalar progress'e bildirilir (sıcak stack'te PULLING/STARTING_CONTAINERS atlanır). */
+    public SimulationStatusDTO start(RobotModel model, ScenarioType scenario, SessionProgress progress) {
+        Timer.Sample sample = Timer.start(meters);
+        Optional<WarmStackPool.WarmStack> warm = pool.claim(model, scenario);
+        SimulationStatusDTO dto = start(model, scenario, warm.orElse(null), progress);
+        sample.stop(meters.timer("sim.session.start", "pool", warm.isPresent() ? "hit" : "miss",
+                "status", dto.getStatus().name()));
+        return dto;
+    }
+
+    private SimulationStatusDTO start(RobotModel model, ScenarioType scenario, WarmStackPool.WarmStack warm,
+                                      SessionProgress progress) {
+        PortAllocator.Slot slot = warm != null ? warm.slot() : allocateCold(model, scenario);
+        RosDockerProps.Sessions cfg = props.getSessions();
+        SimulationSession e;
+        try {
+            e = repo.save(SimulationSession.builder()
+                    .model(model).scenario(scenario).status(SimulationStatus.STARTING)
+                    .bridgePort(slot.bridgePort()).rosDomainId(slot.domainId())
+                    .build());
+        } catch (RuntimeException ex) {
+            ports.release(slot);
+            throw ex;
+        }
+
+        RosBridgeClient client = new RosBridgeClient(om, props, meters, String.valueOf(e.getId()));
+        client.init();
+        String project = warm != null ? warm.project() : cfg.getProjectPrefix() + "-" + e.getId();
+        SessionRuntime rt = new SessionRuntime(e.getId(), project, slot, cfg.getHost(), client);
+        e.setComposeProject(rt.getProject());
+        e.setRosBridgeUrl(rt.getBridgeUrl());
+        e.setVideoUrl("http://" + cfg.getHost() + ":" + slot.novncPort() + "/vnc.html");
+        repo.save(e);
+
+        try {
+            if (warm == null) orchestrator.start(project, slot, model.toEnvValue(), scenario, p -> progress.phase(rt.getId(), p));
+            progress.phase(rt.getId(), Phase.WAITING_FOR_BRIDGE);
+            listeners.forEach(l -> l.sessionOpened(rt)); // abonelikler bağlantı açılınca gönderilir
+            Timer.Sample connect = Timer.start(meters);
+            client.connect(rt.getBridgeUrl());
+            connect.stop(meters.timer("sim.startup.phase", "phase", "connect"));
+            sessions.put(rt.getId(), rt);
+            progress.phase(rt.getId(), Phase.CONNECTED);
+            e.setStatus(SimulationStatus.RUNNING);
+            log.info("session {} running: project={} bridge={} domain={}", rt.getId(), rt.getProject(), rt.getBridgeUrl(), slot.domainId());
+        } catch (RuntimeException ex) {
+            log.error("session {} start failed", rt.getId(), ex);
+            teardown(rt);
+            e.setStatus(SimulationStatus.ERROR);
+            e.setErrorMessage(ex.getMessage());
+            e.setEndedAt(LocalDateTime.now());
+        }
+        return mapper.toDto(repo.save(e));
+    }
+
+    /** Slot kalmadıysa başka anahtarın hazır stack'i boşaltılıp bir kez daha denenir. */
+    private PortAllocator.Slot allocateCold(RobotModel model, ScenarioType scenario) {
+        try {
+            return ports.allocate();
+        } catch (IllegalStateException e) {
+            if (!pool.evictForColdStart(model, scenario)) throw e;
+            return ports.allocate();
+        }
+    }
+
+    /** Oturumu indirir; bilinmeyen id için boş, zaten durmuşsa kayıttaki hali döner. */
+    public Optional<SimulationStatusDTO> stop(long id) {
+        Optional<SimulationSession> found = repo.findById(id);
+        SessionRuntime rt = sessions.remove(id);
+        if (found.isEmpty() || rt == null) return found.map(mapper::toDto);
+
+        SimulationSession e = found.get();
+        e.setStatus(SimulationStatus.STOPPING);
+        repo.save(e);
+        teardown(rt);
+        e.setStatus(SimulationStatus.STOPPED);
+        e.setEndedAt(LocalDateTime.now());
+        return Optional.of(mapper.toDto(repo.save(e)));
+    }
+
+    public Optional<SimulationStatusDTO> get(long id) {
+        return repo.findById(id).map(mapper::toDto);
+    }
+
+    /** Bu süreçte çalışan oturumlar, en yenisi önce. */
+    public List<SimulationStatusDTO> list() {
+        List<Long> ids = sessions.keySet().stream().filter(id -> id > 0).toList();
+        return repo.findAllById(ids).stream()
+                .sorted(Comparator.comparing(SimulationSession::getStartedAt).reversed())
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    public Optional<SessionRuntime> find(long id) {
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /** En son başlatılan canlı oturum; yoksa en son replay oturumu. */
+    public Optional<SessionRuntime> current() {
+        return sessions.values().stream()
+                .max(Comparator.comparing((SessionRuntime s) -> !s.isReplay()).thenComparingLong(s -> Math.abs(s.getId())));
+    }
+
+    /** id verilmişse o oturum, verilmemişse {@link #current()}; yoksa IllegalStateException. */
+    public SessionRuntime require(Long id) {
+        Optional<SessionRuntime> rt = id == null ? current() : find(id);
+        return rt.orElseThrow(() -> new IllegalStateException(
+                id == null ? "Çalışan simülasyon oturumu yok" : "Oturum çalışmıyor: " + id));
+    }
+
+    public Collection<SessionRuntime> running() {
+        return sessions.values();
+    }
+
+    /**
+     * Container'sız oturum: kayıttan gelen frame'ler bu oturumun istemcisinden dağıtılır,
+     * telemetri aşamaları canlı oturumdaki gibi /topic/sessions/&lt;id&gt;/... hedeflerine yayın yapar.
+     */
+    public SessionRuntime openReplay() {
+        long id = -replayIds.incrementAndGet();
+        RosBridgeClient client = new RosBridgeClient(om, props, meters, "replay" + -id);
+        client.init();
+        SessionRuntime rt = new SessionRuntime(id, null, null, null, client);
+        listeners.forEach(l -> l.sessionOpened(rt));
+        sessions.put(id, rt);
+        return rt;
+    }
+
+    public void closeReplay(SessionRuntime rt) {
+        if (sessions.remove(rt.getId()) != null) teardown(rt);
+    }
+
+    /** Uzun süredir publish edilmeyen topic'ler her oturumun bağlantısında ayrı bırakılır. */
+    @Scheduled(fixedDelayString = "${ros.bridge.advertise-idle-timeout:60000}")
+    public void unadvertiseIdle() {
+        for (SessionRuntime rt : sessions.values()) {
+            try { rt.getClient().unadvertiseIdle(); }
+            catch (RuntimeException e) { log.debug("session {} unadvertise failed", rt.getId(), e); }
+        }
+    }
+
+    @PreDestroy
+    void stopAll() {
+        for (SessionRuntime rt : List.copyOf(sessions.values())) {
+            long id = rt.getId();
+            try {
+                if (rt.isReplay()) closeReplay(rt);
+                else stop(id);
+            } catch (RuntimeException e) {
+                log.warn("session {} shutdown failed", id, e);
+            }
+        }
+    }
+
+    /** Bağlantıyı kapatır, dinleyicilere bildirir, compose projesini indirir ve slotu bırakır. */
+    private void teardown(SessionRuntime rt) {
+        RosBridgeClient client = rt.getClient();
+        client.disconnect();
+        for (SessionLifecycleListener l : listeners) {
+            try { l.sessionClosed(rt); }
+            catch (RuntimeException e) { log.warn("session {} close listener failed", rt.getId(), e); }
+        }
+        client.shutdown();
+        if (rt.isReplay()) return;
+        try {
+            orchestrator.stop(rt.getProject(), rt.getSlot());
+        } catch (RuntimeException e) {
+            log.warn("compose down {} failed", rt.getProject(), e);
+        } finally {
+            ports.release(rt.getSlot());
+        }
+    }
+}
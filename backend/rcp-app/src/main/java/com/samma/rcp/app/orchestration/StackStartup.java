@@ -0,0 +1,215 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tek compose projesinin başlatılması. Engine API varsa container'lar depends_on grafiğine göre
+ * başlatılır: bağımlılıkları başlamış (koşul service_healthy ise hazır olmuş) servis hemen başlar,
+ * birbirinden bağımsız servisler paralel kalkar. Engine API yoksa compose up -d tüm stack'i kendi
+ * sırasıyla başlatır, ardından kontroller paralel yoklanır.
+ * Servislerin hazırlık kontrolleri ros.startup.ready'den gelir; {@link #awaitRequired()} yalnızca
+ * senaryonun gerekli servislerini bekler, kalanlar arka planda kalkmaya devam eder.
+ * Servis başına başlatma çağrısı ve hazır olma süresi sim.startup.service (service, stage=start|ready).
+ */
+@Slf4j
+final class StackStartup {
+
+    static final String STARTED = "started";
+    private static final String SERVICE_HEALTHY = "service_healthy";
+
+    private final String project;
+    private final PortAllocator.Slot slot;
+    private final Set<String> required;
+    private final DockerService docker;
+    private final RosDockerProps props;
+    private final MeterRegistry meters;
+    private final Executor exec;
+    private final RosapiProbe rosapi;
+    /** Kontrollerin son anı (System.nanoTime). */
+    private final long deadline;
+    private final long t0 = System.nanoTime();
+
+    /** servis -> container başlatıldı / hazır. Yalnızca launch sırasında kuran thread yazar. */
+    private final Map<String, CompletableFuture<Void>> started = new HashMap<>();
+    private final Map<String, CompletableFuture<Void>> ready = new LinkedHashMap<>();
+    /** Tüm servisler bitince (ya da iptalde) tamamlanır. */
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private volatile boolean cancelled;
+
+    StackStartup(String project, PortAllocator.Slot slot, Set<String> required, DockerService docker,
+                 RosDockerProps props, ObjectMapper om, MeterRegistry meters, Executor exec) {
+        this.project = project;
+        this.slot = slot;
+        this.required = required;
+        this.docker = docker;
+        this.props = props;
+        this.meters = meters;
+        this.exec = exec;
+        String host = props.getSessions().getHost();
+        this.rosapi = new RosapiProbe(URI.create("ws://" + host + ":" + slot.bridgePort()), om);
+        long timeout = Math.max(props.getSimulation().getStartupTimeout(), 1000);
+        this.deadline = t0 + TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /** Grafiği Engine API ile kurar ve başlatmaları zamanlar; beklemez. */
+    void launch(DockerEngineClient api) {
+        List<DockerEngineClient.Container> all = api.containers(project);
+        if (all.isEmpty()) throw new IllegalStateException("Compose projesinde container yok: " + project);
+        Map<String, DockerEngineClient.Container> byService = new LinkedHashMap<>();
+        all.forEach(c -> byService.put(c.service(), c));
+        // service_healthy ile beklenen servislerin de kontrolü yoklanır; diğerlerinde hazır = başladı
+        Set<String> gating = new HashSet<>();
+        all.forEach(c -> c.dependsOn().forEach((dep, condition) -> {
+            if (SERVICE_HEALTHY.equals(condition)) gating.add(dep);
+        }));
+        Set<String> visiting = new HashSet<>();
+        for (DockerEngineClient.Container c : all) schedule(api, c, byService, gating, visiting);
+        finishWhenAllReady();
+    }
+
+    /** Engine API yok: compose up -d çağıran thread'de çalışır, sonra gerekli servislerin kontrolleri paralel. */
+    void launchWithCompose(Runnable composeUp) {
+        composeUp.run();
+        for (String service : required) {
+            CompletableFuture<Void> s = CompletableFuture.completedFuture(null);
+            started.put(service, s);
+            ready.put(service, s.thenRunAsync(() -> awaitReady(service), exec));
+        }
+        finishWhenAllReady();
+    }
+
+    /** Gerekli servisler hazır olana, biri başarısız olana ya da süre dolana kadar bekler. */
+    void awaitRequired() {
+        List<String> missing = required.stream().filter(s -> !ready.containsKey(s)).toList();
+        if (!missing.isEmpty()) throw new IllegalStateException(project + ": gerekli servisler projede yok: " + missing);
+        CompletableFuture<?>[] waits = required.stream().map(ready::get).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(waits).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            log.info("{}: required services {} ready in {} ms", project, required,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        } catch (TimeoutException e) {
+            List<String> pending = required.stream().filter(s -> !ready.get(s).isDone()).toList();
+            throw new IllegalStateException(project + ": servisler hazır olmadı: " + pending);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(project + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(project + " başlatması iptal edildi", e);
+        }
+    }
+
+    /** Henüz başlamamış servisler başlatılmaz, süren kontroller bir sonraki yoklamada bırakılır. */
+    void cancel() {
+        cancelled = true;
+        rosapi.close();
+        done.complete(null);
+    }
+
+    CompletableFuture<Void> done() {
+        return done;
+    }
+
+    private void schedule(DockerEngineClient api, DockerEngineClient.Container c,
+                          Map<String, DockerEngineClient.Container> byService, Set<String> gating, Set<String> visiting) {
+        String service = c.service();
+        if (started.containsKey(service) || !visiting.add(service)) return; // döngüde o kenar beklenmez
+        List<CompletableFuture<Void>> gates = new ArrayList<>();
+        c.dependsOn().forEach((dep, condition) -> {
+            DockerEngineClient.Container d = byService.get(dep);
+            if (d == null) return;
+            schedule(api, d, byService, gating, visiting);
+            CompletableFuture<Void> gate = (SERVICE_HEALTHY.equals(condition) ? ready : started).get(dep);
+            if (gate != null) gates.add(gate);
+        });
+        CompletableFuture<Void> s = CompletableFuture.allOf(gates.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> startContainer(api, c), exec);
+        started.put(service, s);
+        ready.put(service, required.contains(service) || gating.contains(service)
+                ? s.thenRunAsync(() -> awaitReady(service), exec) : s);
+    }
+
+    private void startContainer(DockerEngineClient api, DockerEngineClient.Container c) {
+        if (cancelled) throw new IllegalStateException(project + " başlatması iptal edildi");
+        long start = System.nanoTime();
+        api.start(c.id());
+        record(c.service(), "start", start);
+        log.info("[engine] {} {} started", project, c.service());
+    }
+
+    private void awaitReady(String service) {
+        String spec = props.getStartup().getReady().getOrDefault(service, STARTED);
+        BooleanSupplier check = check(service, spec);
+        long start = System.nanoTime();
+        long poll = Math.max(props.getStartup().getPollInterval(), 50);
+        while (!check.getAsBoolean()) {
+            if (cancelled) throw new IllegalStateException(project + " başlatması iptal edildi");
+            if (System.nanoTime() > deadline) throw new IllegalStateException(service + " hazır olmadı (" + spec + ")");
+            try {
+                Thread.sleep(poll);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(project + " başlatması iptal edildi", e);
+            }
+        }
+        record(service, "ready", start);
+        log.info("{} {} ready ({}) in {} ms", project, service, spec, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** started | port:bridge|novnc|&lt;n&gt; | health | topic:&lt;ad&gt; */
+    private BooleanSupplier check(String service, String spec) {
+        int colon = spec.indexOf(':');
+        String kind = colon < 0 ? spec : spec.substring(0, colon);
+        String arg = colon < 0 ? "" : spec.substring(colon + 1);
+        String host = props.getSessions().getHost();
+        return switch (kind) {
+            case STARTED -> () -> true;
+            case "port" -> {
+                int port = switch (arg) {
+                    case "bridge" -> slot.bridgePort();
+                    case "novnc" -> slot.novncPort();
+                    default -> Integer.parseInt(arg);
+                };
+                yield () -> docker.portOpen(host, port);
+            }
+            // healthcheck tanımlı değilse çalışıyor olması, Engine API yoksa başlamış olması yeter
+            case "health" -> () -> docker.serviceState(project, service)
+                    .map(s -> s.running() && (s.health() == null || "healthy".equals(s.health())))
+                    .orElse(true);
+            case "topic" -> () -> rosapi.hasPublisher(arg);
+            default -> throw new IllegalStateException("Bilinmeyen hazırlık kontrolü: " + service + " -> " + spec);
+        };
+    }
+
+    private void finishWhenAllReady() {
+        CompletableFuture.allOf(ready.values().toArray(CompletableFuture[]::new)).whenComplete((v, ex) -> {
+            rosapi.close();
+            if (cancelled) return;
+            if (ex != null) log.warn("{}: background startup failed: {}", project, ex.getMessage());
+            else log.info("{}: all services up in {} ms", project, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+            done.complete(null);
+        });
+    }
+
+    private void record(String service, String stage, long start) {
+        meters.timer("sim.startup.service", "service", service, "stage", stage)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.samma.rcp.app.orchestration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bağlantı başına advertise edilmiş topic kaydı.
+ * Topic ilk publish'te (ya da tipi değişince) bir kez advertise edilir;
+ * bağlantı yenilenince kayıt temizlenir (kopup yeniden bağlanınca ise aynen yeniden advertise edilir),
+ * uzun süre boşta kalan topic'ler düşürülür.
+ */
+public class TopicRegistry {
+
+    private final Map<String, Entry> topics = new ConcurrentHashMap<>();
+
+    /** Topic bu tiple zaten advertise edildiyse son kullanım zamanını günceller ve true döner. */
+    public boolean touch(String topic, String type, long nowNanos) {
+        Entry e = topics.get(topic);
+        if (e == null || !e.type.equals(type)) return false;
+        e.lastUsedNanos = nowNanos;
+        return true;
+    }
+
+    /** Kayıtlı tip (yoksa null). */
+    public String typeOf(String topic) {
+        Entry e = topics.get(topic);
+        return e == null ? null : e.type;
+    }
+
+    public void register(String topic, String type, long nowNanos) {
+        topics.put(topic, new Entry(type, nowNanos));
+    }
+
+    /** idleNanos süresince kullanılmayan topic'leri kayıttan çıkarır ve döner. */
+    public List<String> evictIdle(long nowNanos, long idleNanos) {
+        List<String> evicted = new ArrayList<>();
+        topics.forEach((topic, e) -> {
+            if (nowNanos - e.lastUsedNanos >= idleNanos && topics.remove(topic, e)) evicted.add(topic);
+        });
+        return evicted;
+    }
+
+    /** topic -> tip anlık kopyası. */
+    public Map<String, String> types() {
+        Map<String, String> out = new HashMap<>();
+        topics.forEach((topic, e) -> out.put(topic, e.type));
+        return out;
+    }
+
+    /** Yeni bağlantıda rosbridge tarafında hiçbir publisher kalmaz. */
+    public void clear() {
+        topics.clear();
+    }
+
+    public int size() {
+        return topics.size();
+    }
+
+    private static final class Entry {
+        private final String type;
+        private volatile long lastUsedNanos;
+
+        private Entry(String type, long lastUsedNanos) {
+            this.type = type;
+            this.lastUsedNanos = lastUsedNanos;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.samma.rcp.app.orchestration;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * rosbridge tarafındaki tek bir subscribe kaydı. Aynı topic'i isteyen tüm dinleyiciler
+ * bu kaydı paylaşır; queue/compression ayarlarını ilk abone belirler. throttle en sık isteyen
+ * aboneye göre düşürülür, daha seyrek isteyen dinleyici kendi tarafında süzer.
+ */
+@Getter
+public class TopicSubscription {
+
+    public static final String COMPRESSION_NONE = "none";
+    public static final String COMPRESSION_CBOR = "cbor";
+    public static final String COMPRESSION_PNG = "png";
+
+    private final String topic;
+    private final String type;
+    private volatile int throttleRate;  // ms, 0 = kısıtsız
+    private final int queueLength;
+    private final String compression;
+    private final List<RosTopicListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Teldeki bayt ve çözme süresi: JSON / CBOR / PNG yollarını karşılaştırmak için
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+
+    public TopicSubscription(String topic, String type, int throttleRate, int queueLength, String compression) {
+        this.topic = topic;
+        this.type = type;
+        this.throttleRate = throttleRate;
+        this.queueLength = queueLength;
+        this.compression = compression == null ? COMPRESSION_NONE : compression;
+    }
+
+    /** İstenen throttle mevcuttan sıksa günceller; true ise subscribe yeniden gönderilmeli. */
+    synchronized boolean lowerThrottle(int ms) {
+        if (ms >= throttleRate) return false;
+        throttleRate = ms;
+        return true;
+    }
+
+    void record(long bytes, long nanos) {
+        messages.increment();
+        wireBytes.add(bytes);
+        decodeNanos.add(nanos);
+    }
+}
@@ -0,0 +1,247 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Önceden kaldırılmış (senaryonun gerekli servisleri hazır) stack havuzu; anahtar model + senaryo.
+ * start isteği hazır stack'i milisaniyede alır; "pool-refill" thread'i havuzu ros.pool.targets boyutuna
+ * tamamlar. idle-ttl boyunca istek gelmeyen anahtarın stack'leri indirilir ve anahtar, yeni bir istek
+ * (hit ya da miss) gelene kadar yeniden doldurulmaz. Havuzdaki stack de bir {@link PortAllocator}
+ * slotu tutar; alınan stack'in projesi ve slotu artık oturumundur, oturumla birlikte indirilir.
+ * Container'ı ölmüş stack verilmez: alırken ve her doldurma turunda yoklanır, ölüyse indirilir.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmStackPool {
+
+    /** Hazır stack: compose projesi ve tuttuğu slot. */
+    public record WarmStack(String project, PortAllocator.Slot slot, long readyAtNanos) {}
+
+    private record Key(RobotModel model, ScenarioType scenario) {}
+
+    private final SimulationOrchestrator orchestrator;
+    private final PortAllocator ports;
+    private final RosDockerProps props;
+    private final MeterRegistry meters;
+
+    /** Anahtar başına hazır stack'ler, en eski önde. Erişim this üzerinden senkronize. */
+    private final Map<Key, Deque<WarmStack>> ready = new HashMap<>();
+    private final Map<Key, Integer> starting = new HashMap<>();
+    /** Anahtara son istek (ya da havuzun açılışı); System.nanoTime. */
+    private final Map<Key, Long> lastDemand = new HashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+    private ScheduledExecutorService refiller;
+
+    @PostConstruct
+    void start() {
+        RosDockerProps.Pool cfg = props.getPool();
+        if (!cfg.isEnabled()) return;
+        long now = System.nanoTime();
+        for (RosDockerProps.PoolTarget t : cfg.getTargets()) {
+            Key k = new Key(t.getModel(), t.getScenario());
+            lastDemand.put(k, now);
+            Gauge.builder("sim.pool.ready", this, p -> p.readyCount(k))
+                    .description("Alınmaya hazır stack sayısı")
+                    .tags("model", k.model().name(), "scenario", k.scenario().name())
+                    .register(meters);
+        }
+        refiller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-refill");
+            t.setDaemon(true);
+            return t;
+        });
+        refiller.scheduleWithFixedDelay(this::refill, 0, cfg.getRefillInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refiller == null) return;
+        refiller.shutdownNow();
+        List<WarmStack> all = new ArrayList<>();
+        synchronized (this) {
+            ready.values().forEach(all::addAll);
+            ready.clear();
+        }
+        all.forEach(this::discard);
+    }
+
+    /**
+     * Hazır ve canlı stack varsa havuzdan çıkarıp döner ve boşalan yeri arka planda doldurtur. Ölü bulunan
+     * stack indirilir, sıradaki denenir.
+     */
+    public Optional<WarmStack> claim(RobotModel model, ScenarioType scenario) {
+        if (refiller == null) return Optional.empty();
+        Timer.Sample sample = Timer.start(meters);
+        Key k = new Key(model, scenario);
+        WarmStack s;
+        while (true) {
+            synchronized (this) {
+                lastDemand.put(k, System.nanoTime());
+                Deque<WarmStack> q = ready.get(k);
+                s = q == null ? null : q.pollLast(); // en taze stack
+            }
+            if (s == null || alive(s)) break;
+            discardDead(k, s);
+        }
+        String result = s != null ? "hit" : "miss";
+        meters.counter(s != null ? "sim.pool.hits" : "sim.pool.misses",
+                "model", model.name(), "scenario", scenario.name()).increment();
+        sample.stop(Timer.builder("sim.pool.claim").description("Havuzdan stack alma (canlılık yoklaması dahil)")
+                .tags("model", model.name(), "scenario", scenario.name(), "result", result).register(meters));
+        refiller.execute(this::refill); // hit: boşalan yer; miss: uykudaki anahtar yeniden doldurulur
+        return Optional.ofNullable(s);
+    }
+
+    /**
+     * Soğuk başlatma slot bulamadığında çağrılır: başka anahtarın en eski hazır stack'ini indirip
+     * slotunu serbest bırakır. Boşaltılacak stack yoksa false.
+     */
+    public boolean evictForColdStart(RobotModel model, ScenarioType scenario) {
+        Key keep = new Key(model, scenario);
+        WarmStack victim = null;
+        synchronized (this) {
+            for (Map.Entry<Key, Deque<WarmStack>> e : ready.entrySet()) {
+                WarmStack head = e.getValue().peekFirst();
+                if (head == null) continue;
+                boolean better = victim == null || head.readyAtNanos() < victim.readyAtNanos();
+                boolean otherKey = !e.getKey().equals(keep);
+                if (otherKey && better) victim = head;
+            }
+            if (victim == null) return false;
+            WarmStack v = victim;
+            ready.values().forEach(q -> q.remove(v));
+        }
+        log.info("pool: evicting {} to free a slot for {}/{}", victim.project(), model, scenario);
+        discard(victim);
+        return true;
+    }
+
+    private synchronized int readyCount(Key k) {
+        Deque<WarmStack> q = ready.get(k);
+        return q == null ? 0 : q.size();
+    }
+
+    /** Süresi dolanları indirir, eksik hedefleri sırayla kaldırır. Yalnızca pool-refill thread'inde. */
+    private void refill() {
+        reapIdle();
+        long ttl = TimeUnit.MILLISECONDS.toNanos(props.getPool().getIdleTtl());
+        for (RosDockerProps.PoolTarget t : props.getPool().getTargets()) {
+            Key k = new Key(t.getModel(), t.getScenario());
+            while (true) {
+                synchronized (this) {
+                    if (System.nanoTime() - lastDemand.getOrDefault(k, 0L) > ttl) break; // uykuda
+                    if (readyCount(k) + starting.getOrDefault(k, 0) >= t.getSize()) break;
+                    starting.merge(k, 1, Integer::sum);
+                }
+                try {
+                    if (!warm(k)) return; // slot yok: sonraki turda yeniden denenir
+                } finally {
+                    synchronized (this) { starting.merge(k, -1, Integer::sum); }
+                }
+            }
+        }
+    }
+
+    private boolean warm(Key k) {
+        PortAllocator.Slot slot;
+        try {
+            slot = ports.allocate(1); // soğuk başlatmalar için bir slot hep boş kalır
+        } catch (IllegalStateException e) {
+            log.debug("pool: no spare slot for {}/{}", k.model(), k.scenario());
+            return false;
+        }
+        String project = props.getSessions().getProjectPrefix() + "-pool-" + seq.incrementAndGet();
+        long t0 = System.nanoTime();
+        try {
+            orchestrator.start(project, slot, k.model().toEnvValue(), k.scenario());
+        } catch (RuntimeException e) {
+            log.warn("pool: warming {} failed: {}", project, e.getMessage());
+            discard(new WarmStack(project, slot, t0));
+            return false;
+        }
+        synchronized (this) {
+            ready.computeIfAbsent(k, x -> new ArrayDeque<>()).addLast(new WarmStack(project, slot, System.nanoTime()));
+        }
+        log.info("pool: {} ready for {}/{} in {} ms", project, k.model(), k.scenario(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        return true;
+    }
+
+    /** Süresi dolanları indirir; kalanları kilit dışında yoklar, ölüyse (hâlâ havuzdaysa) çıkarıp indirir. */
+    private void reapIdle() {
+        long ttl = TimeUnit.MILLISECONDS.toNanos(props.getPool().getIdleTtl());
+        long now = System.nanoTime();
+        List<WarmStack> expired = new ArrayList<>();
+        Map<WarmStack, Key> kept = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Key, Deque<WarmStack>> e : ready.entrySet()) {
+                long demand = lastDemand.getOrDefault(e.getKey(), 0L);
+                Deque<WarmStack> q = e.getValue();
+                while (!q.isEmpty() && now - Math.max(q.peekFirst().readyAtNanos(), demand) > ttl) expired.add(q.pollFirst());
+                q.forEach(s -> kept.put(s, e.getKey()));
+            }
+        }
+        for (WarmStack s : expired) {
+            log.info("pool: reaping idle {}", s.project());
+            discard(s);
+        }
+        kept.forEach((s, k) -> {
+            if (alive(s)) return;
+            boolean removed;
+            synchronized (this) {
+                Deque<WarmStack> q = ready.get(k);
+                removed = q != null && q.remove(s); // bu arada alınmış olabilir
+            }
+            if (removed) discardDead(k, s);
+        });
+    }
+
+    /** Yoklama hatası da ölü sayılır: çalıştığı doğrulanamayan stack oturuma verilmez. */
+    private boolean alive(WarmStack s) {
+        try {
+            return orchestrator.isRunning(s.project(), s.slot());
+        } catch (RuntimeException e) {
+            log.debug("pool: liveness check of {} failed: {}", s.project(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void discardDead(Key k, WarmStack s) {
+        log.warn("pool: {} is not running, discarding", s.project());
+        meters.counter("sim.pool.dead", "model", k.model().name(), "scenario", k.scenario().name()).increment();
+        discard(s);
+    }
+
+    private void discard(WarmStack s) {
+        try {
+            orchestrator.stop(s.project(), s.slot());
+        } catch (RuntimeException e) {
+            log.warn("pool: compose down {} failed", s.project(), e);
+        } finally {
+            ports.release(s.slot());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.samma.rcp.app.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link RecordingWriter} biçimini sırayla okur. Segmentler salt-okunur map edilir; dönen
+ * payload map edilmiş alanın bir dilimidir, kopyalanmaz. seek() seyrek indeksle başlangıç
+ * segmentini bulur, kalan mesafeyi frame frame ilerler.
+ */
+public class RecordingReader {
+
+    /** Okunan frame; payload bir sonraki next() çağrısından sonra da geçerlidir. */
+    public static final class Frame {
+        private long tNanos;
+        private byte flags;
+        private ByteBuffer payload;
+
+        public long tNanos() { return tNanos; }
+        public boolean outbound() { return (flags & RecordingWriter.OUTBOUND) != 0; }
+        public boolean binary() { return (flags & RecordingWriter.BINARY) != 0; }
+        public ByteBuffer payload() { return payload; }
+    }
+
+    private final Path dir;
+    private final long[] indexT;
+    private final int[] indexSeg;
+    private final int[] indexOff;
+
+    private MappedByteBuffer seg;
+    private int segNo = -1;
+
+    public RecordingReader(Path dir) throws IOException {
+        this.dir = dir;
+        ByteBuffer idx = ByteBuffer.wrap(Files.readAllBytes(dir.resolve(RecordingWriter.INDEX)));
+        int n = idx.remaining() / RecordingWriter.INDEX_ENTRY;
+        indexT = new long[n];
+        indexSeg = new int[n];
+        indexOff = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexT[i] = idx.getLong();
+            indexSeg[i] = idx.getInt();
+            indexOff[i] = idx.getInt();
+        }
+        open(0, 0);
+    }
+
+    /** Kayıt başından itibaren tNanos'tan önceki son indeks noktasına konumlanır. */
+    public void seek(long tNanos) throws IOException {
+        int lo = 0, hi = indexT.length - 1, best = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (indexT[mid] <= tNanos) { best = mid; lo = mid + 1; }
+            else hi = mid - 1;
+        }
+        if (best >= 0) open(indexSeg[best], indexOff[best]);
+        else open(0, 0);
+    }
+
+    /** Sıradaki frame'i doldurur; kayıt bittiyse false. */
+    public boolean next(Frame f) throws IOException {
+        while (seg != null) {
+            if (seg.remaining() >= RecordingWriter.HEADER) {
+                int len = seg.getInt(seg.position());
+                if (len > 0 && len <= seg.remaining() - RecordingWriter.HEADER) {
+                    f.tNanos = seg.getLong(seg.position() + 4);
+                    f.flags = seg.get(seg.position() + 12);
+                    int start = seg.position() + RecordingWriter.HEADER;
+                    f.payload = seg.slice(start, len);
+                    seg.position(start + len);
+                    return true;
+                }
+            }
+            if (!open(segNo + 1, 0)) return false;
+        }
+        return false;
+    }
+
+    private boolean open(int n, int offset) throws IOException {
+        Path file = dir.resolve(RecordingWriter.segmentName(n));
+        if (!Files.exists(file)) {
+            seg = null;
+            return false;
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            seg = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        seg.position(offset);
+        segNo = n;
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.samma.rcp.app.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongPredicate;
+
+/**
+ * Oturum kaydının disk biçimi; bir dizinde seg-NNNNNN.rlog segmentleri ve index.bin bulunur.
+ * Segment memory-map edilir ve yalnızca sona eklenir: [int len][long tNanos][byte flags][len bayt].
+ * Dosya sıfır dolu oluşturulduğu için len=0 segment sonudur. index.bin seyrek zaman indeksidir:
+ * her indexInterval'da bir [long tNanos][int segment][int offset]. Segmentler ilk frame'le açılır; her segmentin
+ * boyutu açılmadan önce reserve'den istenir, izin yoksa frame yazılmaz. Tek thread'den kullanılır.
+ */
+public class RecordingWriter implements Closeable {
+
+    public static final int HEADER = 13;
+    public static final byte OUTBOUND = 1;
+    public static final byte BINARY = 2;
+    static final String INDEX = "index.bin";
+    static final int INDEX_ENTRY = 16;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long indexIntervalNanos;
+    private final LongPredicate reserve;
+    private final FileChannel index;
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY);
+
+    private FileChannel segChannel;
+    private MappedByteBuffer seg;
+    private int segNo = -1;
+    private long nextIndexAt;
+    private long frames;
+    private long bytes;
+
+    public RecordingWriter(Path dir, int segmentBytes, long indexIntervalNanos, LongPredicate reserve) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalNanos = indexIntervalNanos;
+        this.reserve = reserve;
+        this.index = FileChannel.open(dir.resolve(INDEX), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    static String segmentName(int n) {
+        return String.format("seg-%06d.rlog", n);
+    }
+
+    /**
+     * payload'ın kalan kısmını ekler; konumu ilerletir. Boş payload yazılmaz (len=0 segment sonudur).
+     * Yeni segment gerekip reserve izin vermezse hiçbir şey yazmadan false döner.
+     */
+    public boolean append(long tNanos, byte flags, ByteBuffer payload) throws IOException {
+        int len = payload.remaining();
+        if (len == 0) return true;
+        if ((seg == null || seg.remaining() < HEADER + len) && !roll(HEADER + len)) return false;
+        if (tNanos >= nextIndexAt) {
+            indexEntry.clear();
+            indexEntry.putLong(tNanos).putInt(segNo).putInt(seg.position()).flip();
+            while (indexEntry.hasRemaining()) index.write(indexEntry);
+            nextIndexAt = tNanos + indexIntervalNanos;
+        }
+        seg.putInt(len).putLong(tNanos).put(flags).put(payload);
+        frames++;
+        bytes += HEADER + len;
+        return true;
+    }
+
+    public long getFrames() { return frames; }
+    public long getBytes() { return bytes; }
+    public int getSegments() { return segNo + 1; }
+
+    /** Yeni segment açar; frame varsayılan boyuttan büyükse segment o frame'e göre büyütülür. */
+    private boolean roll(int minBytes) throws IOException {
+        int size = Math.max(segmentBytes, minBytes);
+        if (!reserve.test(size)) return false;
+        closeSegment();
+        segNo++;
+        segChannel = FileChannel.open(dir.resolve(segmentName(segNo)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        seg = segChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return true;
+    }
+
+    /** Segment yazılan uzunluğa kesilir: boş kuyruk diskte yer tutmaz (okuyucu dosya sonunu segment sonu sayar). */
+    private void closeSegment() throws IOException {
+        if (seg == null) return;
+        seg.force();
+        segChannel.truncate(seg.position()); // map'e bir daha erişilmez
+        segChannel.close();
+        seg = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeSegment();
+        } finally {
+            index.force(false);
+            index.close();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.samma.rcp.app.recording;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.RecordingDTO;
+import com.samma.rcp.app.orchestration.FrameTap;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ros.recording.enabled ise her simülasyon oturumu boyunca o oturumun rosbridge'inden geçen her frame'i
+ * {@link RecordingWriter} ile ayrı bir kayda (s&lt;id&gt;-zaman) yazar. Soket/gönderici thread'i frame'i (yalnızca
+ * yeniden kullanılan küçük tamponları kopyalayarak) bayt sınırlı (queue-mb) kuyruğa bırakır, kuyruk doluysa
+ * düşürür, beklemez; diske yazım oturum başına ayrı "session-recorder" thread'indedir. Replay oturumları kaydedilmez.
+ * Saklama: kapanmış kayıtlar max-age'den eskiyse ya da toplam boyut max-total-mb'yi aşıyorsa en eskiden başlayarak
+ * silinir. Sınır tüm kayıtlar için ortaktır: etkin kayıtlar her segmenti açmadan önce yerini ayırır, kapanmışlar
+ * silinerek de yer açılamıyorsa o kayıt yazmayı bırakır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionRecorder implements SessionLifecycleListener {
+
+    static final String META = "recording.json";
+    private static final DateTimeFormatter ID_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    private final RosDockerProps props;
+    private final ObjectMapper om;
+
+    /** simülasyon oturumu -> etkin kayıt */
+    private final Map<Long, Recording> active = new ConcurrentHashMap<>();
+    /** Kuyruğu henüz diske boşalmamış kayıtlar (etkin ya da kapanmakta); saklama bunlara dokunmaz. */
+    private final Map<String, Recording> open = new ConcurrentHashMap<>();
+
+    /** Ortak sınırın muhasebesi; drain thread'leri start()'ın kilidinde beklemesin diye ayrı kilit. */
+    private final Object budget = new Object();
+    /** Açık kayıtların ayrılmış segment baytı */
+    private long reserved;
+    /** Son taramadaki kapanmış kayıtların baytı */
+    private long closedBytes;
+
+    @PostConstruct
+    void init() {
+        RosDockerProps.Recording cfg = props.getRecording();
+        if (!cfg.isEnabled()) return;
+        if (cfg.getSegmentMb() <= 0 || cfg.getSegmentMb() >= 2048 || cfg.getSegmentMb() >= cfg.getMaxTotalMb()) {
+            throw new IllegalStateException("ros.recording.segment-mb (" + cfg.getSegmentMb()
+                    + ") 0 ile 2048 arasında ve max-total-mb'den (" + cfg.getMaxTotalMb() + ") küçük olmalı");
+        }
+        enforceRetention();
+    }
+
+    /** Bağlantıdan önce çağrılır: ilk subscribe/advertise frame'leri de kayda girer. */
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        if (!session.isReplay()) start(session);
+    }
+
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+        stop(session);
+    }
+
+    /** Oturum için yeni kayıt başlatır (varsa öncekini kapatır). Kayıt kapalıysa boş döner. */
+    public synchronized Optional<RecordingDTO> start(SessionRuntime session) {
+        stop(session);
+        RosDockerProps.Recording cfg = props.getRecording();
+        if (!cfg.isEnabled()) return Optional.empty();
+        Instant now = Instant.now();
+        String id = "s" + session.getId() + "-" + ID_FORMAT.format(now);
+        try {
+            Path dir = root().resolve(id);
+            for (int i = 1; Files.exists(dir); i++) dir = root().resolve(id + "-" + i);
+            Recording r = new Recording(dir, session.getId(), now, cfg.getQueueMb() << 20);
+            active.put(session.getId(), r);
+            open.put(r.id, r);
+            r.thread.start();
+            session.getClient().setTap(r);
+            log.info("recording session {} to {}", session.getId(), dir.toAbsolutePath());
+            return Optional.of(r.toDto());
+        } catch (IOException e) {
+            throw new RuntimeException("Recording start failed", e);
+        }
+    }
+
+    /** Kuyrukta kalanları yazıp oturumun kaydını kapatır. */
+    public void stop(SessionRuntime session) {
+        session.getClient().setTap(FrameTap.NONE);
+        close(active.remove(session.getId()));
+    }
+
+    @PreDestroy
+    void stopAll() {
+        List.copyOf(active.keySet()).forEach(id -> close(active.remove(id)));
+    }
+
+    /**
+     * Kuyruğu boşaltıp kaydı bitirmesini bekler. Drain thread süresinde bitmezse kayıt açık kalır; meta dosyasını
+     * ve saklamayı thread bitince kendisi yapar.
+     */
+    private void close(Recording r) {
+        if (r == null) return;
+        r.queue.add(Recording.STOP);
+        try {
+            r.thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (r.thread.isAlive()) log.warn("recording {} still draining after 10 s, will close in background", r.id);
+    }
+
+    /** Drain thread'inin sonunda: meta dosyasını yazar, ayrılan yeri kapanmış kayda devreder. */
+    private void finished(Recording r) {
+        RecordingDTO dto = r.toDto();
+        dto.setActive(false);
+        dto.setStoppedAt(Instant.now());
+        try {
+            om.writeValue(root().resolve(r.id).resolve(META).toFile(), dto);
+            log.info("recording {} closed: {} frames, {} dropped", r.id, dto.getFrames(), dto.getDropped());
+        } catch (IOException e) {
+            log.warn("recording {} metadata write failed", r.id, e);
+        }
+        synchronized (budget) {
+            open.remove(r.id);
+            reserved -= r.reserved;
+            r.reserved = 0;
+        }
+        enforceRetention();
+    }
+
+    /** Segment için ortak sınırdan yer ayırır; gerekirse önce kapanmış kayıtları siler. */
+    private boolean reserve(Recording r, long bytes) {
+        synchronized (budget) {
+            long limit = props.getRecording().getMaxTotalMb() << 20;
+            if (closedBytes + reserved + bytes > limit) retain(bytes);
+            if (closedBytes + reserved + bytes > limit) return false;
+            reserved += bytes;
+            r.reserved += bytes;
+            return true;
+        }
+    }
+
+    /** Kapanmış kayıtları saklama sınırlarına göre siler; açık kayıtların ayrılmış yeri toplama sayılır ama silinmez. */
+    @Scheduled(fixedDelayString = "${ros.recording.retention-interval:600000}")
+    public void enforceRetention() {
+        synchronized (budget) {
+            retain(0);
+        }
+    }
+
+    /** need: ayrılmak istenen ek bayt; toplam ona da yer kalana kadar en eskiden silinir. */
+    private void retain(long need) {
+        Path root = root();
+        if (!Files.isDirectory(root)) return;
+        RosDockerProps.Recording cfg = props.getRecording();
+        List<Stored> closed = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> dirs = Files.list(root)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                if (open.containsKey(dir.getFileName().toString())) continue;
+                Stored s = Stored.of(dir);
+                total += s.bytes();
+                closed.add(s);
+            }
+        } catch (IOException e) {
+            log.warn("recording retention scan failed", e);
+            return;
+        }
+        closed.sort(Comparator.comparingLong(Stored::modifiedMillis));
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(cfg.getMaxAge());
+        long limit = (cfg.getMaxTotalMb() << 20) - reserved - need;
+        for (Stored s : closed) {
+            if (s.modifiedMillis() >= cutoff && total <= limit) break;
+            try (Stream<Path> files = Files.walk(s.dir())) {
+                for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(f);
+                total -= s.bytes();
+                log.info("recording {} deleted by retention ({} MB)", s.dir().getFileName(), s.bytes() >> 20);
+            } catch (IOException e) {
+                log.warn("recording {} delete failed", s.dir().getFileName(), e);
+            }
+        }
+        closedBytes = total;
+    }
+
+    /** Diskteki kayıt dizini: dosyalarının toplam boyutu ve en son değişiklik zamanı. */
+    private record Stored(Path dir, long bytes, long modifiedMillis) {
+        static Stored of(Path dir) throws IOException {
+            long bytes = 0, modified = Files.getLastModifiedTime(dir).toMillis();
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path f : files.filter(Files::isRegularFile).toList()) {
+                    bytes += Files.size(f);
+                    modified = Math.max(modified, Files.getLastModifiedTime(f).toMillis());
+                }
+            }
+            return new Stored(dir, bytes, modified);
+        }
+    }
+
+    public List<RecordingDTO> list() {
+        List<RecordingDTO> out = new ArrayList<>();
+        active.values().forEach(r -> out.add(r.toDto()));
+        if (!Files.isDirectory(root())) return out;
+        Set<String> live = active.values().stream().map(r -> r.id).collect(Collectors.toSet());
+        try (Stream<Path> dirs = Files.list(root())) {
+            dirs.filter(d -> !live.contains(d.getFileName().toString()))
+                    .map(d -> d.resolve(META)).filter(Files::exists).forEach(meta -> {
+                try { out.add(om.readValue(meta.toFile(), RecordingDTO.class)); }
+                catch (IOException e) { log.debug("unreadable recording metadata {}", meta, e); }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Recording list failed", e);
+        }
+        out.sort(Comparator.comparing(RecordingDTO::getStartedAt).reversed());
+        return out;
+    }
+
+    /** Tamamlanmış kaydın dizini; etkin ya da bilinmeyen kayıtta boş. */
+    public Optional<Path> closedRecording(String id) {
+        Path dir = root().resolve(id).normalize();
+        if (!root().normalize().equals(dir.getParent()) || !Files.exists(dir.resolve(META))) return Optional.empty();
+        return Optional.of(dir);
+    }
+
+    private Path root() {
+        return Path.of(props.getRecording().getDir());
+    }
+
+    /** Etkin kayıt: FrameTap olarak bağlanır, kuyruğu kendi thread'inde diske boşaltır ve bitince kapatır. */
+    private final class Recording implements FrameTap {
+        private final String id;
+        private final long sessionId;
+        private final Instant startedAt;
+        private final long t0 = System.nanoTime();
+        /** Kuyruğa kapanışta konur; öncesindekiler yazıldıktan sonra thread biter. */
+        private static final Pending STOP = new Pending(0, (byte) 0, null, 0);
+
+        private final RecordingWriter writer;
+        private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+        private final AtomicLong queuedBytes = new AtomicLong();
+        private final long queueBytes;
+        private final LongAdder dropped = new LongAdder();
+        private final Thread thread;
+        /** Ortak sınırdan bu kayda ayrılan bayt; budget kilidiyle korunur. */
+        private long reserved;
+
+        /** size: kuyruk sınırı için payload baytı (JSON metinde karakter sayısı). */
+        private record Pending(long tNanos, byte flags, Object payload, int size) {}
+
+        private Recording(Path dir, long sessionId, Instant startedAt, long queueBytes) throws IOException {
+            RosDockerProps.Recording cfg = props.getRecording();
+            this.id = dir.getFileName().toString();
+            this.sessionId = sessionId;
+            this.startedAt = startedAt;
+            this.writer = new RecordingWriter(dir, cfg.getSegmentMb() << 20,
+                    TimeUnit.MILLISECONDS.toNanos(cfg.getIndexInterval()), bytes -> reserve(this, bytes));
+            this.queueBytes = queueBytes;
+            this.thread = new Thread(this::drain, "session-recorder-" + sessionId);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void text(boolean outbound, String frame) {
+            offer(new Pending(System.nanoTime() - t0, outbound ? RecordingWriter.OUTBOUND : 0, frame, frame.length()));
+        }
+
+        @Override
+        public void textBytes(boolean outbound, ByteBuffer utf8) {
+            byte[] copy = new byte[utf8.remaining()];
+            utf8.get(utf8.position(), copy); // mutlak okuma: çağıranın konumu değişmez
+            offer(new Pending(System.nanoTime() - t0, outbound ? RecordingWriter.OUTBOUND : 0, ByteBuffer.wrap(copy), copy.length));
+        }
+
+        @Override
+        public void binary(ByteBuffer frame) {
+            // Büyük CBOR frame'ler (harita) soket thread'inde kopyalanmaz; içerik değişmediği için görünüm yeter
+            offer(new Pending(System.nanoTime() - t0, RecordingWriter.BINARY, frame.duplicate(), frame.remaining()));
+        }
+
+        /** Sınır bayt sayacıyla kilitsiz denetlenir; kuyruğun ekleme kilidi yazıcının alma kilidinden ayrıdır. */
+        private void offer(Pending p) {
+            if (queuedBytes.addAndGet(p.size()) > queueBytes) {
+                queuedBytes.addAndGet(-p.size());
+                dropped.increment();
+                return;
+            }
+            queue.offer(p);
+        }
+
+        private void drain() {
+            boolean full = false;
+            try (writer) {
+                for (Pending p = queue.take(); p != STOP; p = queue.take()) {
+                    queuedBytes.addAndGet(-p.size());
+                    if (!full) {
+                        ByteBuffer bytes = p.payload() instanceof String s
+                                ? ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)) : (ByteBuffer) p.payload();
+                        full = !writer.append(p.tNanos(), p.flags(), bytes);
+                        if (full) log.warn("recording {} reached max-total-mb, dropping further frames", id);
+                    }
+                    if (full) dropped.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                log.error("recording {} aborted", id, e);
+            } finally {
+                finished(this);
+            }
+        }
+
+        private RecordingDTO toDto() {
+            return RecordingDTO.builder()
+                    .id(id).sessionId(sessionId).startedAt(startedAt).active(true)
+                    .frames(writer.getFrames()).bytes(writer.getBytes())
+                    .dropped(dropped.sum()).segments(writer.getSegments())
+                    .build();
+        }
+    }
+}
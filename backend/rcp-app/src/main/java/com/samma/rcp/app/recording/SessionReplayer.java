@@ -0,0 +1,168 @@
+package com.samma.rcp.app.recording;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.ReplayDTO;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Kaydı orijinal zamanlamayla (speed katsayısıyla ölçeklenmiş; speed &lt;= 0 ise beklemeden) oynatır.
+ * stomp hedefi: kayıttaki gelen frame'ler container'sız bir replay oturumunun istemcisinden canlı
+ * mesajlarla aynı dağıtım yolundan geçer; telemetri, harita ve tarama aşamaları o oturumun
+ * /topic/sessions/&lt;id&gt;/... hedeflerine yayın yapar, canlı oturumlara karışmaz.
+ * bridge hedefi: kayıttaki giden frame'ler (publish, advertise, subscribe) verilen rosbridge
+ * adresine yollanır; regresyon koşularında stand-in bridge'i beslemek içindir. Adres ya
+ * ros.recording.replay-bridge-urls'te ya da çalışan bir oturumun bridge adresi olmalıdır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionReplayer {
+
+    public static final String TARGET_STOMP = "stomp";
+    public static final String TARGET_BRIDGE = "bridge";
+    private static final Duration REPLAY_RETENTION = Duration.ofHours(1);
+
+    private final SessionRecorder recorder;
+    private final SimulationSessionManager sessions;
+    private final RosDockerProps props;
+
+    private final Map<String, ReplayDTO> replays = new ConcurrentHashMap<>();
+    private final Map<String, Thread> workers = new ConcurrentHashMap<>();
+
+    /** Kayıt bilinmiyorsa boş döner; hedef geçersizse IllegalStateException, bridge adresi izinli değilse IllegalArgumentException. */
+    public Optional<ReplayDTO> start(String recordingId, String target, String url, double speed, long fromMillis) {
+        Optional<Path> dir = recorder.closedRecording(recordingId);
+        if (dir.isEmpty()) return Optional.empty();
+        pruneReplays();
+        boolean toStomp = TARGET_STOMP.equals(target);
+        if (!toStomp && (!TARGET_BRIDGE.equals(target) || url == null || url.isBlank())) {
+            throw new IllegalStateException("target stomp ya da url ile bridge olmalı");
+        }
+        if (!toStomp && !allowedBridge(url)) throw new IllegalArgumentException("replay bridge adresine izin yok: " + url);
+
+        SessionRuntime session = toStomp ? sessions.openReplay() : null;
+        ReplayDTO replay = ReplayDTO.builder()
+                .replayId(UUID.randomUUID().toString()).recordingId(recordingId)
+                .sessionId(session == null ? null : session.getId())
+                .target(target).url(url).speed(speed).status(ReplayDTO.Status.RUNNING)
+                .build();
+        replays.put(replay.getReplayId(), replay);
+        Thread t = new Thread(() -> run(replay, session, dir.get(), TimeUnit.MILLISECONDS.toNanos(fromMillis)), "replay-" + recordingId);
+        t.setDaemon(true);
+        workers.put(replay.getReplayId(), t);
+        t.start();
+        return Optional.of(replay);
+    }
+
+    public Optional<ReplayDTO> get(String replayId) {
+        return Optional.ofNullable(replays.get(replayId));
+    }
+
+    public Optional<ReplayDTO> cancel(String replayId) {
+        Thread t = workers.get(replayId);
+        if (t != null) t.interrupt();
+        return get(replayId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.values().forEach(Thread::interrupt);
+    }
+
+    private boolean allowedBridge(String url) {
+        if (props.getRecording().getReplayBridgeUrls().contains(url)) return true;
+        return sessions.running().stream().anyMatch(rt -> !rt.isReplay() && url.equals(rt.getBridgeUrl()));
+    }
+
+    private void run(ReplayDTO replay, SessionRuntime session, Path dir, long fromNanos) {
+        WebSocketClient bridge = null;
+        long frames = 0;
+        try {
+            RecordingReader reader = new RecordingReader(dir);
+            reader.seek(fromNanos);
+            boolean toBridge = TARGET_BRIDGE.equals(replay.getTarget());
+            if (toBridge) bridge = connect(replay.getUrl());
+
+            RecordingReader.Frame f = new RecordingReader.Frame();
+            long wallStart = System.nanoTime();
+            long firstT = -1;
+            while (reader.next(f)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    finish(replay, ReplayDTO.Status.CANCELLED, frames, null);
+                    return;
+                }
+                if (f.tNanos() < fromNanos || f.outbound() != toBridge) continue;
+                if (firstT < 0) firstT = f.tNanos();
+                if (replay.getSpeed() > 0) {
+                    long due = wallStart + (long) ((f.tNanos() - firstT) / replay.getSpeed());
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                        if (Thread.currentThread().isInterrupted()) break;
+                    }
+                }
+                ByteBuffer payload = f.payload();
+                if (toBridge) {
+                    if (f.binary()) bridge.send(payload);
+                    else bridge.send(StandardCharsets.UTF_8.decode(payload).toString());
+                } else if (f.binary()) {
+                    session.getClient().replayInbound(payload);
+                } else {
+                    session.getClient().replayInbound(StandardCharsets.UTF_8.decode(payload).toString());
+                }
+                if (++frames % 1024 == 0) replays.put(replay.getReplayId(), replay.toBuilder().frames(frames).build());
+            }
+            if (session != null) session.getClient().drainInbound(TimeUnit.SECONDS.toMillis(10));
+            finish(replay, ReplayDTO.Status.DONE, frames, null);
+        } catch (Exception e) {
+            log.warn("replay {} failed", replay.getRecordingId(), e);
+            finish(replay, ReplayDTO.Status.FAILED, frames, e.getMessage());
+        } finally {
+            workers.remove(replay.getReplayId());
+            if (bridge != null) bridge.close();
+            if (session != null) sessions.closeReplay(session);
+        }
+    }
+
+    private void finish(ReplayDTO replay, ReplayDTO.Status status, long frames, String error) {
+        replays.put(replay.getReplayId(), replay.toBuilder().status(status).frames(frames).error(error)
+                .finishedAt(Instant.now()).build());
+        log.info("replay {} -> {} {}: {} frames", replay.getRecordingId(), replay.getTarget(), status, frames);
+    }
+
+    /** Bitmiş oynatmalar REPLAY_RETENTION boyunca sorgulanabilir, sonra unutulur. */
+    private void pruneReplays() {
+        Instant cutoff = Instant.now().minus(REPLAY_RETENTION);
+        replays.values().removeIf(r -> r.getFinishedAt() != null && r.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static WebSocketClient connect(String url) throws Exception {
+        WebSocketClient c = new WebSocketClient(new URI(url)) {
+            @Override public void onOpen(ServerHandshake h) {}
+            @Override public void onMessage(String message) {}
+            @Override public void onClose(int code, String reason, boolean remote) {}
+            @Override public void onError(Exception ex) { log.debug("replay bridge error", ex); }
+        };
+        if (!c.connectBlocking(10, TimeUnit.SECONDS)) throw new IllegalStateException("Bridge bağlantısı kurulamadı: " + url);
+        return c;
+    }
+}
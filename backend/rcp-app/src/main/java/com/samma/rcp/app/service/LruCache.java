@@ -0,0 +1,52 @@
+package com.samma.rcp.app.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/** Ağırlık (ör. bayt) sınırlı, erişim sıralı basit LRU önbellek. */
+public class LruCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+
+    public LruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        V old = map.put(key, value);
+        weight += weigher.applyAsLong(value) - (old == null ? 0 : weigher.applyAsLong(old));
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Map.Entry<K, V> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            weight -= weigher.applyAsLong(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    /** Anahtarı eşleşen girdileri çıkarır. */
+    public synchronized void removeIf(Predicate<K> key) {
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, V> e = it.next();
+            if (!key.test(e.getKey())) continue;
+            weight -= weigher.applyAsLong(e.getValue());
+            it.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+}
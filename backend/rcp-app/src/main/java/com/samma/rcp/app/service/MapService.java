@@ -1,42 +1,130 @@
 package com.samma.rcp.app.service;
 
+import com.samma.rcp.app.config.RosDockerProps;
 import com.samma.rcp.app.domain.entity.SavedMap;
 import com.samma.rcp.app.domain.repo.SavedMapRepository;
+import com.samma.rcp.app.dto.MapSaveJobDTO;
 import com.samma.rcp.app.dto.SavedMapDTO;
 import com.samma.rcp.app.mapper.SavedMapMapper;
+import com.samma.rcp.app.telemetry.MapStreamService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+/**
+ * Canlı OccupancyGrid'i map_server formatında (PGM + YAML) kaydeder. Kayıt arka planda,
+ * tek bir "map-save" thread'inde çalışır; aynı anda en fazla bir grid diske akıtılır.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MapService {
 
+    private static final Path MAPS_DIR = Path.of("ros-stack", "maps");
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
     private final SavedMapRepository repo;
     private final SavedMapMapper mapper;
+    private final MapStreamService mapStream;
+    private final MapTileService tiles;
+    private final RosDockerProps props;
+
+    private final Map<String, MapSaveJobDTO> jobs = new ConcurrentHashMap<>();
+    private ExecutorService saver;
+
+    @PostConstruct
+    void init() {
+        saver = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "map-save");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        saver.shutdownNow();
+    }
+
+    /** Kaydı kuyruğa alır ve hemen iş tanıtıcısını döner; durum {@link #job(String)} ile izlenir. */
+    public MapSaveJobDTO submitSave(long sessionId, String name) {
+        pruneJobs();
+        MapSaveJobDTO job = MapSaveJobDTO.builder()
+                .jobId(UUID.randomUUID().toString())
+                .sessionId(sessionId)
+                .name(name)
+                .status(MapSaveJobDTO.Status.PENDING)
+                .createdAt(Instant.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+        saver.execute(() -> runSave(job));
+        return job;
+    }
+
+    public Optional<MapSaveJobDTO> job(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
 
-    public SavedMapDTO saveMap(String name) {
+    private void runSave(MapSaveJobDTO job) {
+        jobs.put(job.getJobId(), job.toBuilder().status(MapSaveJobDTO.Status.RUNNING).build());
         try {
-            Path mapsDir = Path.of("ros-stack", "maps");
-            Files.createDirectories(mapsDir);
-            Path yaml = mapsDir.resolve(name + ".yaml");
-            Path pgm  = mapsDir.resolve(name + ".pgm");
-            Files.writeString(yaml, "# placeholder map yaml\nimage: " + name + ".pgm\nresolution: 0.05\norigin: [0.0,0.0,0.0]\n");
-            if (!Files.exists(pgm)) Files.createFile(pgm);
-
-            SavedMap m = repo.save(SavedMap.builder()
-                    .name(name)
-                    .filePath(mapsDir.toAbsolutePath().toString())
-                    .yamlFilePath(yaml.toAbsolutePath().toString())
-                    .pgmFilePath(pgm.toAbsolutePath().toString())
-                    .sizeMb(Files.size(pgm) / 1024d / 1024d)
-                    .build());
-
-            return mapper.toDto(m);
+            SavedMapDTO map = saveMap(job.getSessionId(), job.getName());
+            jobs.put(job.getJobId(), job.toBuilder()
+                    .status(MapSaveJobDTO.Status.DONE).map(map).finishedAt(Instant.now()).build());
+        } catch (Exception e) {
+            log.warn("Map save '{}' failed: {}", job.getName(), e.getMessage());
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            jobs.put(job.getJobId(), job.toBuilder()
+                    .status(MapSaveJobDTO.Status.FAILED).error(cause.getMessage()).finishedAt(Instant.now()).build());
+        }
+    }
+
+    /** Senkron kayıt: oturumun grid'i gelene kadar bekler, PGM'i akışkan yazar, YAML ve kaydı günceller. */
+    public SavedMapDTO saveMap(long sessionId, String name) {
+        try {
+            if (!mapStream.awaitGrid(sessionId, props.getMap().getCaptureTimeout())) {
+                throw new IllegalStateException("Harita alınamadı: " + props.getMap().getTopic() + " yayını yok");
+            }
+            Files.createDirectories(MAPS_DIR);
+            Path yaml = MAPS_DIR.resolve(name + ".yaml");
+            Path pgm  = MAPS_DIR.resolve(name + ".pgm");
+
+            SavedMap m = repo.findByName(name).orElseGet(() -> SavedMap.builder().name(name).build());
+            boolean exported = mapStream.export(sessionId, (frameId, w, h, res, ox, oy, oyaw, cells) -> {
+                long bytes = PgmMapWriter.writePgm(pgm, w, h, cells);
+                PgmMapWriter.writeYaml(yaml, pgm.getFileName().toString(), res, ox, oy, oyaw);
+                m.setWidth(w);
+                m.setHeight(h);
+                m.setResolution(res);
+                m.setSizeMb(bytes / 1024d / 1024d);
+            });
+            if (!exported) throw new IllegalStateException("Harita oturum kapanırken kayboldu");
+
+            m.setFilePath(MAPS_DIR.toAbsolutePath().toString());
+            m.setYamlFilePath(yaml.toAbsolutePath().toString());
+            m.setPgmFilePath(pgm.toAbsolutePath().toString());
+            log.info("Map '{}' saved: {}x{} @ {} m", name, m.getWidth(), m.getHeight(), m.getResolution());
+            SavedMap saved = repo.save(m);
+            tiles.evict(saved.getId()); // aynı adla yeniden kayıtta eski karolar sunulmasın
+            return mapper.toDto(saved);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Map save interrupted", e);
         } catch (Exception e) {
             throw new RuntimeException("Map save failed", e);
         }
@@ -45,4 +133,9 @@ public class MapService {
     public List<SavedMapDTO> listMaps() {
         return repo.findAll().stream().map(mapper::toDto).collect(Collectors.toList());
     }
+
+    private void pruneJobs() {
+        Instant cutoff = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(j -> j.getFinishedAt() != null && j.getFinishedAt().isBefore(cutoff));
+    }
 }
@@ -0,0 +1,291 @@
+package com.samma.rcp.app.service;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.entity.SavedMap;
+import com.samma.rcp.app.domain.repo.SavedMapRepository;
+import com.samma.rcp.app.dto.MapTileInfoDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Kayıtlı PGM haritalardan çok çözünürlüklü karo piramidi üretir.
+ * En yakın seviye (maxZoom) PGM'den okunur; her üst seviye dört alt karonun 2x2 küçültmesidir
+ * (bloktaki en koyu piksel alınır, böylece engeller kaybolmaz). Karolar ilk istekte üretilir,
+ * bellekte LRU ile ve diskte (&lt;cacheDir&gt;/&lt;mapId&gt;/&lt;parmak izi&gt;/z/x/y.png) kalıcı olarak saklanır;
+ * ETag PNG içeriğinin özetidir. Aynı karoyu aynı anda isteyenlerden yalnızca biri üretir, diğerleri onu bekler.
+ * Üst seviye, alt karoların yeni üretilmiş ham halinden ya da PNG önbelleğinden (bellek/disk) kurulur; PGM yalnızca
+ * maxZoom karoları için okunur. Harita kaydı ve PGM parmak izi ros.tiles.recheck-interval'de bir kontrol edilir;
+ * harita silinince ya da dosyası değişince eski kaynak ve önbellekler (disk dahil) atılır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MapTileService {
+
+    public static final int TILE = 256;
+    private static final byte UNKNOWN = (byte) 205; // map_saver'ın bilinmeyen hücre grisi
+
+    public record Tile(byte[] png, String etag) {}
+
+    private record Source(PgmImage image, String fingerprint, int maxZoom, Double resolution, long checkedNanos) {
+        Source checked(long now) {
+            return new Source(image, fingerprint, maxZoom, resolution, now);
+        }
+    }
+
+    private final SavedMapRepository repo;
+    private final RosDockerProps props;
+
+    private final Map<Long, Source> sources = new ConcurrentHashMap<>();
+    /** Üretilmekte olan karolar; aynı anahtarı isteyen ikinci istek üretimi bekler. */
+    private final Map<String, CompletableFuture<Tile>> building = new ConcurrentHashMap<>();
+    private LruCache<String, Tile> pngCache;
+    private LruCache<String, byte[]> rawCache; // yalnızca üst seviyeleri üretirken gerekir
+
+    @PostConstruct
+    void init() {
+        RosDockerProps.Tiles cfg = props.getTiles();
+        pngCache = new LruCache<>(cfg.getMemoryCacheMb() * 1024L * 1024L, t -> t.png().length);
+        rawCache = new LruCache<>(cfg.getRawCacheTiles(), b -> 1);
+        sweepDeleted();
+    }
+
+    public Optional<MapTileInfoDTO> info(long mapId) {
+        return source(mapId).map(s -> MapTileInfoDTO.builder()
+                .mapId(mapId)
+                .width(s.image().getWidth()).height(s.image().getHeight())
+                .tileSize(TILE).maxZoom(s.maxZoom()).resolution(s.resolution())
+                .build());
+    }
+
+    /** z/x/y karosu; harita yoksa ya da koordinat piramit dışındaysa boş döner. */
+    public Optional<Tile> tile(long mapId, int z, int x, int y) {
+        Optional<Source> src = source(mapId);
+        if (src.isEmpty() || !inRange(src.get(), z, x, y)) return Optional.empty();
+        return Optional.of(load(mapId, src.get(), z, x, y));
+    }
+
+    /** Harita yeniden kaydedildiğinde ya da silindiğinde: kaynak ve tüm önbellekler (disk dahil) atılır. */
+    public void evict(long mapId) {
+        sources.remove(mapId);
+        drop(mapId, null);
+    }
+
+    private Tile load(long mapId, Source s, int z, int x, int y) {
+        String key = mapId + "/" + s.fingerprint() + "/" + z + "/" + x + "/" + y;
+        Tile cached = pngCache.get(key);
+        if (cached != null) return cached;
+
+        CompletableFuture<Tile> mine = new CompletableFuture<>();
+        CompletableFuture<Tile> running = building.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Tile build failed: " + key, e.getCause());
+            }
+        }
+        try {
+            Tile t = pngCache.get(key); // önceki üretim bu arada bitmiş olabilir
+            if (t == null) {
+                t = readOrBuild(mapId, s, key, z, x, y);
+                pngCache.put(key, t);
+            }
+            mine.complete(t);
+            return t;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw new RuntimeException("Tile build failed: " + key, e);
+        } finally {
+            building.remove(key, mine);
+        }
+    }
+
+    private Tile readOrBuild(long mapId, Source s, String key, int z, int x, int y) throws IOException {
+        Path disk = Path.of(props.getTiles().getCacheDir(), key + ".png");
+        if (Files.exists(disk)) {
+            byte[] png = Files.readAllBytes(disk);
+            return new Tile(png, etag(png));
+        }
+        byte[] raw = rawTile(mapId, s, z, x, y);
+        rawCache.put(key, raw);
+        byte[] png = encodePng(raw);
+        writeAtomically(disk, png);
+        return new Tile(png, etag(png));
+    }
+
+    private boolean inRange(Source s, int z, int x, int y) {
+        if (z < 0 || z > s.maxZoom() || x < 0 || y < 0) return false;
+        long span = (long) TILE << (s.maxZoom() - z); // bu seviyede bir karonun kapladığı piksel
+        return x * span < s.image().getWidth() && y * span < s.image().getHeight();
+    }
+
+    /** Gri tonlu ham karo; maxZoom'da PGM'den, üst seviyelerde dört alt karodan. */
+    private byte[] rawTile(long mapId, Source s, int z, int x, int y) throws IOException {
+        byte[] raw = new byte[TILE * TILE];
+        if (z == s.maxZoom()) {
+            s.image().read(x * TILE, y * TILE, TILE, TILE, raw, UNKNOWN);
+            return raw;
+        }
+        int half = TILE / 2;
+        for (int cy = 0; cy < 2; cy++) {
+            for (int cx = 0; cx < 2; cx++) {
+                int qx = cx * half, qy = cy * half;
+                if (!inRange(s, z + 1, 2 * x + cx, 2 * y + cy)) {
+                    for (int r = 0; r < half; r++) Arrays.fill(raw, (qy + r) * TILE + qx, (qy + r) * TILE + qx + half, UNKNOWN);
+                    continue;
+                }
+                byte[] child = childRaw(mapId, s, z + 1, 2 * x + cx, 2 * y + cy);
+                for (int r = 0; r < half; r++) {
+                    for (int c = 0; c < half; c++) {
+                        int i = (2 * r) * TILE + 2 * c;
+                        int m = Math.min(Math.min(child[i] & 0xFF, child[i + 1] & 0xFF),
+                                Math.min(child[i + TILE] & 0xFF, child[i + TILE + 1] & 0xFF));
+                        raw[(qy + r) * TILE + qx + c] = (byte) m;
+                    }
+                }
+            }
+        }
+        return raw;
+    }
+
+    /** Alt karonun ham hali: az önce üretildiyse rawCache'ten, değilse önbellekteki PNG'si çözülür. */
+    private byte[] childRaw(long mapId, Source s, int z, int x, int y) throws IOException {
+        String key = mapId + "/" + s.fingerprint() + "/" + z + "/" + x + "/" + y;
+        byte[] raw = rawCache.get(key);
+        if (raw != null) return raw;
+        Tile t = load(mapId, s, z, x, y);
+        raw = rawCache.get(key);
+        return raw != null ? raw : decodePng(t.png());
+    }
+
+    private Optional<Source> source(long mapId) {
+        long now = System.nanoTime();
+        Source s = sources.get(mapId);
+        long recheck = TimeUnit.MILLISECONDS.toNanos(props.getTiles().getRecheckInterval());
+        if (s != null && now - s.checkedNanos() < recheck) return Optional.of(s);
+        return Optional.ofNullable(sources.compute(mapId, (id, old) -> refresh(id, old, now)));
+    }
+
+    /** Kayıt ve PGM'i yeniden kontrol eder; harita yoksa null. Parmak izi değiştiyse eski önbellekler atılır. */
+    private Source refresh(long mapId, Source old, long now) {
+        Optional<SavedMap> m = repo.findById(mapId);
+        String file = m.map(SavedMap::getPgmFilePath).orElse(null);
+        Path pgm = file == null ? null : Path.of(file);
+        try {
+            if (pgm == null || !Files.exists(pgm) || Files.size(pgm) == 0) {
+                drop(mapId, null);
+                return null;
+            }
+            BasicFileAttributes a = Files.readAttributes(pgm, BasicFileAttributes.class);
+            String fp = Long.toHexString(a.size()) + "-" + Long.toHexString(a.lastModifiedTime().toMillis());
+            if (old != null && old.fingerprint().equals(fp)) return old.checked(now);
+            PgmImage img = PgmImage.open(pgm);
+            int maxZoom = 0;
+            while (((long) TILE << maxZoom) < Math.max(img.getWidth(), img.getHeight())) maxZoom++;
+            drop(mapId, fp);
+            return new Source(img, fp, maxZoom, m.get().getResolution(), now);
+        } catch (IOException e) {
+            log.warn("PGM okunamadı {}: {}", pgm, e.getMessage());
+            return null;
+        }
+    }
+
+    /** mapId'nin keep dışındaki parmak izlerine ait bellek ve disk önbelleklerini siler (keep null ise hepsini). */
+    private void drop(long mapId, String keep) {
+        String prefix = mapId + "/";
+        String kept = keep == null ? null : prefix + keep + "/";
+        pngCache.removeIf(k -> k.startsWith(prefix) && (kept == null || !k.startsWith(kept)));
+        rawCache.removeIf(k -> k.startsWith(prefix) && (kept == null || !k.startsWith(kept)));
+        Path dir = Path.of(props.getTiles().getCacheDir(), String.valueOf(mapId));
+        if (!Files.isDirectory(dir)) return;
+        if (keep == null) {
+            deleteTree(dir);
+            return;
+        }
+        try (DirectoryStream<Path> fps = Files.newDirectoryStream(dir)) {
+            for (Path fp : fps) if (!fp.getFileName().toString().equals(keep)) deleteTree(fp);
+        } catch (IOException e) {
+            log.warn("Karo önbelleği temizlenemedi {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /** Açılışta: kaydı silinmiş haritaların disk önbellekleri. */
+    private void sweepDeleted() {
+        Path root = Path.of(props.getTiles().getCacheDir());
+        if (!Files.isDirectory(root)) return;
+        try (DirectoryStream<Path> maps = Files.newDirectoryStream(root)) {
+            for (Path dir : maps) {
+                String name = dir.getFileName().toString();
+                if (name.chars().allMatch(Character::isDigit) && !repo.existsById(Long.parseLong(name))) deleteTree(dir);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Karo önbelleği taranamadı {}: {}", root, e.getMessage());
+        }
+    }
+
+    private static void deleteTree(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Karo önbelleği silinemedi {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static byte[] encodePng(byte[] gray) throws IOException {
+        BufferedImage img = new BufferedImage(TILE, TILE, BufferedImage.TYPE_BYTE_GRAY);
+        img.getRaster().setDataElements(0, 0, TILE, TILE, gray);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] decodePng(byte[] png) throws IOException {
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(png));
+        if (img == null || img.getType() != BufferedImage.TYPE_BYTE_GRAY) throw new IOException("Gri tonlu PNG değil");
+        byte[] gray = new byte[TILE * TILE];
+        img.getRaster().getDataElements(0, 0, TILE, TILE, gray);
+        return gray;
+    }
+
+    private static String etag(byte[] png) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(png);
+            return HexFormat.of().formatHex(d, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] data) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), "tile", ".tmp");
+        Files.write(tmp, data);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,83 @@
+package com.samma.rcp.app.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary (P5, 8 bit) PGM dosyasını heap'e yüklemeden okur: piksel alanı salt-okunur
+ * memory-map edilir, istenen satır aralıkları doğrudan kopyalanır.
+ */
+public class PgmImage {
+
+    private final int width;
+    private final int height;
+    private final MappedByteBuffer pixels;
+
+    private PgmImage(int width, int height, MappedByteBuffer pixels) {
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    public static PgmImage open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            Header h = Header.parse(ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 4096)));
+            long need = (long) h.width * h.height;
+            if (size - h.dataOffset < need) throw new IOException("PGM eksik: " + file);
+            MappedByteBuffer px = ch.map(FileChannel.MapMode.READ_ONLY, h.dataOffset, need);
+            return new PgmImage(h.width, h.height, px);
+        }
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** (x, y) sol-üst köşeli w*h bölgeyi dst'ye kopyalar; görüntü dışı pikseller fill ile doldurulur. */
+    public void read(int x, int y, int w, int h, byte[] dst, byte fill) {
+        for (int r = 0; r < h; r++) {
+            int sy = y + r, rowOff = r * w;
+            int from = Math.max(0, x), to = Math.min(width, x + w);
+            if (sy < 0 || sy >= height || from >= to) {
+                Arrays.fill(dst, rowOff, rowOff + w, fill);
+                continue;
+            }
+            if (from > x) Arrays.fill(dst, rowOff, rowOff + (from - x), fill);
+            pixels.get((int) ((long) sy * width + from), dst, rowOff + (from - x), to - from);
+            if (to < x + w) Arrays.fill(dst, rowOff + (to - x), rowOff + w, fill);
+        }
+    }
+
+    /** "P5 W H MAXVAL" başlığı; satırlarda '#' yorumları olabilir. */
+    private record Header(int width, int height, long dataOffset) {
+        static Header parse(MappedByteBuffer b) throws IOException {
+            int[] pos = {0};
+            String magic = token(b, pos);
+            if (!"P5".equals(magic)) throw new IOException("P5 PGM değil: " + magic);
+            int w = Integer.parseInt(token(b, pos));
+            int h = Integer.parseInt(token(b, pos));
+            int max = Integer.parseInt(token(b, pos));
+            if (max > 255) throw new IOException("16 bit PGM desteklenmiyor");
+            return new Header(w, h, pos[0] + 1L); // MAXVAL'den sonra tek boşluk karakteri
+        }
+
+        private static String token(MappedByteBuffer b, int[] pos) throws IOException {
+            int p = pos[0];
+            while (true) {
+                if (p >= b.limit()) throw new IOException("PGM başlığı eksik");
+                byte c = b.get(p);
+                if (c == '#') { while (p < b.limit() && b.get(p) != '\n') p++; }
+                else if (Character.isWhitespace(c)) p++;
+                else break;
+            }
+            StringBuilder sb = new StringBuilder();
+            while (p < b.limit() && !Character.isWhitespace(b.get(p))) sb.append((char) b.get(p++));
+            pos[0] = p;
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.samma.rcp.app.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * OccupancyGrid hücrelerini map_saver ile aynı üçlü (trinary) kurala göre P5 PGM'e akıtır.
+ * Görüntü heap'te kurulmaz: satırlar sabit boyutlu bir tampon üzerinden FileChannel'a yazılır.
+ * Grid'in 0. satırı haritanın altıdır, PGM'de ise üst satır önce gelir; satırlar ters sırada yazılır.
+ */
+public final class PgmMapWriter {
+
+    public static final double OCCUPIED_THRESH = 0.65;
+    public static final double FREE_THRESH = 0.25;
+
+    private static final byte OCCUPIED = 0;
+    private static final byte FREE = (byte) 254;
+    private static final byte UNKNOWN = (byte) 205;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /** Hücre değeri (-1..100) -> piksel; 256 girişlik tablo, işaretli byte & 0xFF ile indekslenir. */
+    private static final byte[] LUT = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int occ = (byte) i;
+            if (occ < 0 || occ > 100) LUT[i] = UNKNOWN;
+            else if (occ >= OCCUPIED_THRESH * 100) LUT[i] = OCCUPIED;
+            else if (occ <= FREE_THRESH * 100) LUT[i] = FREE;
+            else LUT[i] = UNKNOWN;
+        }
+    }
+
+    private PgmMapWriter() {}
+
+    /** PGM'i önce geçici dosyaya yazar, tamamlanınca yerine taşır; yazılan bayt sayısını döner. */
+    public static long writePgm(Path file, int width, int height, byte[] cells) throws IOException {
+        if (cells.length < (long) width * height) throw new IllegalArgumentException("cells < " + width + "x" + height);
+        Path tmp = file.resolveSibling(file.getFileName() + ".part");
+        ByteBuffer buf = ByteBuffer.allocate(Math.max(width, BUFFER_BYTES));
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.wrap(("P5\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII)));
+            byte[] row = buf.array();
+            for (int y = height - 1; y >= 0; y--) {
+                if (buf.remaining() < width) drain(ch, buf);
+                int src = y * width, dst = buf.position();
+                for (int x = 0; x < width; x++) row[dst + x] = LUT[cells[src + x] & 0xFF];
+                buf.position(dst + width);
+            }
+            drain(ch, buf);
+            ch.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(file);
+    }
+
+    /** map_server'ın okuduğu YAML; origin = [x, y, yaw]. */
+    public static void writeYaml(Path file, String imageName, double resolution,
+                                 double originX, double originY, double originYaw) throws IOException {
+        Files.writeString(file, String.format(Locale.ROOT,
+                "image: %s%nmode: trinary%nresolution: %s%norigin: [%s, %s, %s]%nnegate: 0%n"
+                        + "occupied_thresh: %s%nfree_thresh: %s%n",
+                imageName, resolution, originX, originY, originYaw, OCCUPIED_THRESH, FREE_THRESH));
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+}
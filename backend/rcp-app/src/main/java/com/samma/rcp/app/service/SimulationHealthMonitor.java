@@ -0,0 +1,212 @@
+package com.samma.rcp.app.service;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.SimStatusDto;
+import com.samma.rcp.app.dto.SessionHealthDTO;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationOrchestrator;
+import com.samma.rcp.app.ws.RobotSocketHandler;
+import com.samma.rcp.app.ws.StatusEventStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Oturumların sağlığını arka planda izler; /api/sim/status her istekte port yoklamak yerine
+ * bellekteki değişmez anlık görüntüden döner. Durum yalnızca "sim-health" thread'inde değişir; bağlantı
+ * açılış/kopuş olayları orada anında işlenir. Bağlı olmayan oturumların container/port yoklaması
+ * "sim-health-probe" thread'lerinde yapılır, sonucu health-probe-timeout içinde gelmezse oturum çalışmıyor
+ * sayılır. Her durum değişikliği /topic/status, /topic/sessions/&lt;id&gt;/health ve SSE ile "sim-health-publish"
+ * thread'inden sırayla itilir; yavaş SSE istemcisi durum güncellemelerini bekletmez. Replay oturumları izlenmez.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimulationHealthMonitor implements SessionLifecycleListener {
+
+    static final String EVENT_STATUS = "status";
+    static final String EVENT_HEALTH = "health";
+
+    private final SimulationOrchestrator orchestrator;
+    private final RobotSocketHandler.WebSocketController ws;
+    private final StatusEventStream sse;
+    private final RosDockerProps props;
+
+    /** oturum -> son sağlık; her değişiklikte bütünüyle değiştirilir, okuyucu kilit almaz. */
+    private final AtomicReference<Map<Long, SessionHealthDTO>> snapshot = new AtomicReference<>(Map.of());
+    private final Map<Long, SessionRuntime> tracked = new ConcurrentHashMap<>();
+    /** Yoklaması sürmekte olan oturumlar: zaman aşımına uğrayan yoklama bitmeden yenisi başlatılmaz. */
+    private final Set<Long> probing = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService prober;
+    private ExecutorService probes;
+    private ExecutorService publisher;
+
+    @PostConstruct
+    void init() {
+        prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sim-health");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger n = new AtomicInteger();
+        probes = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "sim-health-probe-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        publisher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "sim-health-publish");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(props.getSimulation().getHealthCheckInterval(), 500);
+        prober.scheduleWithFixedDelay(this::probeAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prober.shutdownNow();
+        probes.shutdownNow();
+        publisher.shutdownNow();
+    }
+
+    /** Bağlantıdan önce çağrılır: açılış olayı kaçmasın diye dinleyici burada bağlanır. */
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        if (session.isReplay()) return;
+        long id = session.getId();
+        tracked.put(id, session);
+        // Soket thread'i bekletilmez; olaylar yoklamayla aynı thread'de sırayla işlenir
+        session.getClient().setConnectionListener(up -> prober.execute(() -> {
+            if (up) update(id, h -> h.toBuilder().running(true).connected(true).build());
+            else probe(id);
+        }));
+        prober.execute(() -> update(id, h -> h));
+    }
+
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+        if (tracked.remove(session.getId()) == null) return;
+        session.getClient().setConnectionListener(up -> {});
+        prober.execute(() -> remove(session.getId()));
+    }
+
+    /** En son başlatılan oturumun durumu; I/O yapmaz. */
+    public SimStatusDto status() {
+        return current(snapshot.get())
+                .map(h -> new SimStatusDto(h.isRunning(), h.getWsUrl(), h.getPort()))
+                .orElseGet(() -> new SimStatusDto(false, null, 0));
+    }
+
+    /** Anlık durumla başlayıp değişiklikleri iten SSE aboneliği. */
+    public SseEmitter subscribe() {
+        return sse.subscribe(EVENT_STATUS, status());
+    }
+
+    private void probeAll() {
+        for (Long id : List.copyOf(tracked.keySet())) {
+            try { probe(id); }
+            catch (RuntimeException e) { log.debug("session {} health probe failed", id, e); }
+        }
+    }
+
+    /**
+     * Bağlıysa bağlantı yeterli kanıttır; değilse container durumu (Engine API) ya da port probe thread'inde
+     * yoklanır ve sonuç sim-health thread'ine döner. Bu thread yoklamayı beklemez.
+     */
+    private void probe(long id) {
+        SessionRuntime rt = tracked.get(id);
+        if (rt == null) return;
+        if (rt.getClient().isConnected()) {
+            update(id, h -> h.toBuilder().running(true).connected(true).build());
+            return;
+        }
+        if (!probing.add(id)) return;
+        CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return orchestrator.isRunning(rt.getProject(), rt.getSlot());
+                    } finally {
+                        probing.remove(id);
+                    }
+                }, probes)
+                .completeOnTimeout(false, props.getSimulation().getHealthProbeTimeout(), TimeUnit.MILLISECONDS)
+                .whenComplete((running, e) -> {
+                    if (e != null) log.debug("session {} health probe failed", id, e);
+                    boolean up = e == null && running;
+                    prober.execute(() -> {
+                        boolean connected = rt.getClient().isConnected(); // yoklama sürerken bağlanmış olabilir
+                        update(id, h -> h.toBuilder().running(connected || up).connected(connected).build());
+                    });
+                });
+    }
+
+    private void update(long id, UnaryOperator<SessionHealthDTO> change) {
+        SessionRuntime rt = tracked.get(id);
+        if (rt == null) return;
+        Map<Long, SessionHealthDTO> prev, next;
+        SessionHealthDTO before, after;
+        do {
+            prev = snapshot.get();
+            before = prev.get(id);
+            SessionHealthDTO base = before != null ? before : SessionHealthDTO.builder()
+                    .sessionId(id).wsUrl(rt.getBridgeUrl()).port(rt.getSlot().bridgePort()).build();
+            after = change.apply(base);
+            if (after.equals(before)) return;
+            after = after.toBuilder().since(Instant.now()).build();
+            next = new HashMap<>(prev);
+            next.put(id, after);
+        } while (!snapshot.compareAndSet(prev, Map.copyOf(next)));
+        log.info("session {} health: running={} connected={}", id, after.isRunning(), after.isConnected());
+        publish(after);
+    }
+
+    private void remove(long id) {
+        Map<Long, SessionHealthDTO> prev, next;
+        SessionHealthDTO gone;
+        do {
+            prev = snapshot.get();
+            gone = prev.get(id);
+            if (gone == null) return;
+            next = new HashMap<>(prev);
+            next.remove(id);
+        } while (!snapshot.compareAndSet(prev, Map.copyOf(next)));
+        publish(gone.toBuilder().running(false).connected(false).since(Instant.now()).build());
+    }
+
+    /** Durum değişiklik anındaki görüntüden alınır; gönderim publisher thread'inde, değişiklik sırasıyla. */
+    private void publish(SessionHealthDTO health) {
+        SimStatusDto status = status();
+        publisher.execute(() -> {
+            ws.broadcastHealth(health.getSessionId(), health);
+            ws.broadcastStatus(status);
+            sse.send(EVENT_HEALTH, health);
+            sse.send(EVENT_STATUS, status);
+        });
+    }
+
+    /** En son başlatılan (en büyük id'li) oturum. */
+    private static Optional<SessionHealthDTO> current(Map<Long, SessionHealthDTO> s) {
+        return s.values().stream().max(Comparator.comparingLong(SessionHealthDTO::getSessionId));
+    }
+}
@@ -0,0 +1,156 @@
+package com.samma.rcp.app.service;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import com.samma.rcp.app.domain.model.SimulationStatus;
+import com.samma.rcp.app.dto.SimulationJobDTO;
+import com.samma.rcp.app.dto.SimulationJobDTO.Phase;
+import com.samma.rcp.app.dto.SimulationJobDTO.Status;
+import com.samma.rcp.app.dto.SimulationStatusDTO;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
+import com.samma.rcp.app.ws.RobotSocketHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Oturum başlatma/durdurma işlerini "sim-job" thread'lerinde çalıştırır; istek hemen iş tanıtıcısıyla
+ * döner, her aşama değişikliği /topic/jobs'a yayınlanır. Aynı işi yapacak (aynı model + senaryo
+ * başlatma, aynı oturumu durdurma) istekler, ilk iş bitene kadar o işe bağlanır.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimulationJobService {
+
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final SimulationSessionManager sessions;
+    private final RobotSocketHandler.WebSocketController ws;
+    private final RosDockerProps props;
+
+    private final Map<String, SimulationJobDTO> jobs = new ConcurrentHashMap<>();
+    /** Yinelenen istek anahtarı -> sürmekte olan iş. Erişim this üzerinden senkronize. */
+    private final Map<String, String> inflight = new HashMap<>();
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        // Her slot için bir başlatma ve bir durdurma aynı anda sürebilir; slotsuz başlatma hemen düşer
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(2 * props.getSessions().getMaxSessions(), r -> {
+            Thread t = new Thread(r, "sim-job-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** Yeni oturum başlatma işi; aynı model + senaryo için süren iş varsa o döner. */
+    public SimulationJobDTO start(RobotModel model, ScenarioType scenario) {
+        String jobId = UUID.randomUUID().toString();
+        SimulationJobDTO job = SimulationJobDTO.builder()
+                .jobId(jobId).kind(SimulationJobDTO.Kind.START).model(model).scenario(scenario).build();
+        return submit("start:" + model + "/" + scenario, job, () -> {
+            SimulationStatusDTO s = sessions.start(model, scenario, (id, phase) -> update(jobId, j -> j.sessionId(id).phase(phase)));
+            if (s.getStatus() == SimulationStatus.ERROR) throw new IllegalStateException(s.getMessage());
+            return s;
+        });
+    }
+
+    /** Oturumu durdurma işi; aynı oturum için süren iş varsa o döner. */
+    public SimulationJobDTO stop(long sessionId) {
+        String jobId = UUID.randomUUID().toString();
+        SimulationJobDTO job = SimulationJobDTO.builder()
+                .jobId(jobId).kind(SimulationJobDTO.Kind.STOP).sessionId(sessionId).build();
+        return submit("stop:" + sessionId, job, () -> {
+            update(jobId, j -> j.phase(Phase.STOPPING));
+            return sessions.stop(sessionId)
+                    .orElseThrow(() -> new IllegalStateException("Oturum bulunamadı: " + sessionId));
+        });
+    }
+
+    /** Yapılacak iş yoksa (oturum zaten çalışıyor/durmuş) doğrudan DONE kaydedilen iş. */
+    public SimulationJobDTO completed(SimulationJobDTO.Kind kind, Long sessionId) {
+        Instant now = Instant.now();
+        SimulationJobDTO job = SimulationJobDTO.builder()
+                .jobId(UUID.randomUUID().toString()).kind(kind).sessionId(sessionId)
+                .status(Status.DONE).phase(kind == SimulationJobDTO.Kind.START ? Phase.CONNECTED : Phase.STOPPED)
+                .session(sessionId == null ? null : sessions.get(sessionId).orElse(null))
+                .createdAt(now).finishedAt(now)
+                .build();
+        jobs.put(job.getJobId(), job);
+        return job;
+    }
+
+    public Optional<SimulationJobDTO> job(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private synchronized SimulationJobDTO submit(String key, SimulationJobDTO template, Work work) {
+        SimulationJobDTO running = Optional.ofNullable(inflight.get(key)).map(jobs::get).orElse(null);
+        if (running != null) return running;
+        pruneJobs();
+
+        SimulationJobDTO job = template.toBuilder()
+                .status(Status.PENDING).phase(Phase.QUEUED)
+                .createdAt(Instant.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+        inflight.put(key, job.getJobId());
+        ws.broadcastJob(job);
+        workers.execute(() -> run(key, job, work));
+        return job;
+    }
+
+    private void run(String key, SimulationJobDTO job, Work work) {
+        String jobId = job.getJobId();
+        Phase done = job.getKind() == SimulationJobDTO.Kind.START ? Phase.CONNECTED : Phase.STOPPED;
+        update(jobId, j -> j.status(Status.RUNNING));
+        try {
+            SimulationStatusDTO s = work.run();
+            update(jobId, j -> j.status(Status.DONE).phase(done).sessionId(s.getSessionId()).session(s)
+                    .finishedAt(Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("sim job {} failed: {}", jobId, e.getMessage());
+            update(jobId, j -> j.status(Status.FAILED).phase(Phase.FAILED).error(e.getMessage()).finishedAt(Instant.now()));
+        } finally {
+            synchronized (this) { inflight.remove(key, jobId); }
+        }
+    }
+
+    /** İşi değiştirip (toBuilder) yerine koyar ve yeni halini yayınlar. */
+    private void update(String jobId, UnaryOperator<SimulationJobDTO.SimulationJobDTOBuilder> change) {
+        SimulationJobDTO next = jobs.computeIfPresent(jobId, (id, j) -> change.apply(j.toBuilder()).build());
+        if (next != null) ws.broadcastJob(next);
+    }
+
+    private void pruneJobs() {
+        Instant cutoff = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(j -> j.getFinishedAt() != null && j.getFinishedAt().isBefore(cutoff));
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        SimulationStatusDTO run();
+    }
+}
@@ -1,46 +1,96 @@
 package com.samma.rcp.app.service;
 
+import com.samma.rcp.app.config.RosDockerProps;
 import com.samma.rcp.app.domain.SimStatusDto; // DTO sende zaten var
-import com.samma.rcp.app.orchestration.SimulationOrchestrator;
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import com.samma.rcp.app.dto.SimulationJobDTO;
+import com.samma.rcp.app.dto.SimulationStartRequest;
+import com.samma.rcp.app.dto.SimulationStatusDTO;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationSessionManager;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 /**
- * İnce servis katmanı; Controller ile Orchestrator arasındaki köprü.
- * DÖNÜŞ: Her zaman SimStatusDto (UI tek tip JSON beklesin).
+ * İnce servis katmanı; Controller ile oturum yöneticisi arasındaki köprü.
+ * Tekli API (start/stop/status) en son başlatılan oturum üzerinden çalışır; status
+ * DÖNÜŞ olarak her zaman SimStatusDto verir (UI tek tip JSON beklesin).
+ * Başlatma/durdurma {@link SimulationJobService} işi olarak döner; çoklu oturum API'si SimulationStatusDTO döner.
  */
 @Service
 public class SimulationService {
 
-    private final SimulationOrchestrator orchestrator;
+    private final SimulationSessionManager sessions;
+    private final SimulationJobService jobs;
+    private final SimulationHealthMonitor health;
+    private final RosDockerProps props;
 
-    public SimulationService(SimulationOrchestrator orchestrator) {
-        this.orchestrator = orchestrator;
+    public SimulationService(SimulationSessionManager sessions, SimulationJobService jobs,
+                             SimulationHealthMonitor health, RosDockerProps props) {
+        this.sessions = sessions;
+        this.jobs = jobs;
+        this.health = health;
+        this.props = props;
     }
 
-    /** Simülasyonu başlatır ve websocket bilgisiyle birlikte durum döner. */
-    public SimStatusDto start() {
-        orchestrator.start();
-        return buildStatus();
+    /** Çalışan oturum varsa tamamlanmış iş, yoksa varsayılan modelle TELEOP oturumu başlatan iş döner. */
+    public SimulationJobDTO start() {
+        return live()
+                .map(s -> jobs.completed(SimulationJobDTO.Kind.START, s.getId()))
+                .orElseGet(() -> jobs.start(defaultModel(), ScenarioType.TELEOP));
     }
 
-    /** Simülasyonu durdurur ve güncel durumu döner. */
-    public SimStatusDto stop() {
-        orchestrator.stop();
-        return buildStatus();
+    /** En son oturumu durduran iş; çalışan oturum yoksa tamamlanmış iş döner. */
+    public SimulationJobDTO stop() {
+        return live()
+                .map(s -> jobs.stop(s.getId()))
+                .orElseGet(() -> jobs.completed(SimulationJobDTO.Kind.STOP, null));
     }
 
-    /** Anlık durumu döner. */
+    /** Anlık durumu {@link SimulationHealthMonitor} görüntüsünden döner; port yoklamaz. */
     public SimStatusDto status() {
-        return buildStatus();
+        return health.status();
+    }
+
+    public SseEmitter statusStream() {
+        return health.subscribe();
+    }
+
+    // ---- çoklu oturum ----
+    public SimulationJobDTO startSession(SimulationStartRequest req) {
+        return jobs.start(req.getModel(), req.getScenario());
+    }
+
+    /** Bilinmeyen oturumda boş; durmuş oturumun işi kayıttaki haliyle hemen biter. */
+    public Optional<SimulationJobDTO> stopSession(long id) {
+        if (sessions.get(id).isEmpty()) return Optional.empty();
+        return Optional.of(jobs.stop(id));
+    }
+
+    public Optional<SimulationJobDTO> job(String jobId) {
+        return jobs.job(jobId);
+    }
+
+    public Optional<SimulationStatusDTO> session(long id) {
+        return sessions.get(id);
+    }
+
+    public List<SimulationStatusDTO> sessions() {
+        return sessions.list();
     }
 
     // ---- helper ----
-    private SimStatusDto buildStatus() {
-        boolean running = orchestrator.isRunning();
-        int port = orchestrator.getWsPort(); // Orchestrator’ında hazır.
-        // Ortam değişkeniyle host override edilebilir; yoksa localhost.
-        String host = System.getenv().getOrDefault("ROSBRIDGE_HOST", "localhost");
-        String wsUrl = "ws://" + host + ":" + port;
-        return new SimStatusDto(running, wsUrl, port);
+    private Optional<SessionRuntime> live() {
+        return sessions.current().filter(s -> !s.isReplay());
+    }
+
+    private RobotModel defaultModel() {
+        String m = props.getSimulation().getDefaultModel();
+        return m == null || m.isBlank() ? RobotModel.BURGER : RobotModel.valueOf(m.trim().toUpperCase(Locale.ROOT));
     }
 }
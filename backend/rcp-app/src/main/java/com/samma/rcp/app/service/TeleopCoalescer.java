@@ -0,0 +1,140 @@
+package com.samma.rcp.app.service;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.TwistDTO;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TeleopService ile RosBridgeClient arasındaki birleştirme katmanı.
+ * Her oturumdaki her robot (ros.teleop.topics'teki cmd_vel topic'i) için "son komut kazanır" kutusu tutulur;
+ * kutular sabit hızda boşaltılır. Kutular oturumun haritasındadır: harita oturum açılınca eklenir, kapanınca
+ * çıkarılır; kapanışla yarışan komut artık dolaşılmayan haritaya düşer. Hareket halindeyken deadman süresi boyunca komut gelmezse sıfır hız gönderilir.
+ * teleop.commands (result=accepted|coalesced), teleop.deadman.stops ve teleop.publish.failures sayılır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeleopCoalescer implements SessionLifecycleListener {
+
+    private static final String DEFAULT_TOPIC = "/cmd_vel";
+
+    private final RosDockerProps props;
+    private final MeterRegistry meters;
+
+    /** sessionId -> (topic -> kutu) */
+    private final Map<Long, Map<String, Mailbox>> mailboxes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService drainer;
+    private Counter accepted;
+    private Counter coalesced;
+    private Counter deadmanStops;
+    private Counter publishFailures;
+
+    @PostConstruct
+    void start() {
+        accepted = meters.counter("teleop.commands", "result", "accepted");
+        coalesced = meters.counter("teleop.commands", "result", "coalesced"); // gönderilmeden üzerine yazılan
+        deadmanStops = meters.counter("teleop.deadman.stops");
+        publishFailures = meters.counter("teleop.publish.failures");
+        long periodMicros = 1_000_000L / Math.max(1, props.getTeleop().getRateHz());
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "teleop-drain");
+            t.setDaemon(true);
+            return t;
+        });
+        drainer.scheduleAtFixedRate(this::drain, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        drainer.shutdownNow();
+    }
+
+    /**
+     * Komutu oturumun kutusuna bırakır; henüz gönderilmemiş önceki komutun üzerine yazar. Soket yazımını beklemez.
+     * Bağlantı koptuysa ve yeniden bağlanılıyorsa komut kabul edilir, CONTROL şeridinde son komut olarak bekler.
+     * ros.teleop.topics dışındaki topic için {@link IllegalArgumentException}.
+     */
+    public void offer(SessionRuntime session, TwistDTO t) {
+        String topic = t.getTopic() == null ? DEFAULT_TOPIC : t.getTopic();
+        if (!props.getTeleop().getTopics().contains(topic)) throw new IllegalArgumentException("teleop topic'ine izin yok: " + topic);
+        Map<String, Mailbox> own = mailboxes.get(session.getId());
+        if (own == null || !session.getClient().isActive()) throw new IllegalStateException("rosbridge bağlı değil");
+        boolean replaced = own.computeIfAbsent(topic, k -> new Mailbox(session.getId(), session.getClient(), topic)).put(t);
+        (replaced ? coalesced : accepted).increment();
+    }
+
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        mailboxes.put(session.getId(), new ConcurrentHashMap<>());
+    }
+
+    /** Kapanan oturumun kutuları bırakılır; istemcisi zaten kapalıdır. */
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+        mailboxes.remove(session.getId());
+    }
+
+    private void drain() {
+        long now = System.nanoTime();
+        long deadman = TimeUnit.MILLISECONDS.toNanos(props.getTeleop().getDeadmanTimeout());
+        for (Map<String, Mailbox> own : mailboxes.values()) {
+            for (Mailbox m : own.values()) drain(m, now, deadman);
+        }
+    }
+
+    private void drain(Mailbox m, long now, long deadman) {
+        TwistDTO next = m.pending.getAndSet(null);
+        try {
+            if (next != null) {
+                m.ros.publishTwist(next);
+                m.moving = next.getLinear() != 0.0 || next.getAngular() != 0.0;
+            } else if (m.moving && now - m.lastOfferNanos > deadman) {
+                m.ros.publishTwist(TwistDTO.builder().linear(0.0).angular(0.0).topic(m.topic).build());
+                m.moving = false;
+                deadmanStops.increment();
+                log.debug("session {} deadman stop on {}", m.sessionId, m.topic);
+            }
+        } catch (RuntimeException e) {
+            // Gönderilemeyen komut düşer; deadman durdurması bir sonraki turda yeniden denenir
+            publishFailures.increment();
+            log.warn("session {} teleop publish failed on {}: {}", m.sessionId, m.topic, e.getMessage());
+        }
+    }
+
+    private static final class Mailbox {
+        private final long sessionId;
+        private final RosBridgeClient ros;
+        private final String topic;
+        private final AtomicReference<TwistDTO> pending = new AtomicReference<>();
+        private volatile long lastOfferNanos;
+        private boolean moving; // yalnızca drain thread'i okur/yazar
+
+        private Mailbox(long sessionId, RosBridgeClient ros, String topic) {
+            this.sessionId = sessionId;
+            this.ros = ros;
+            this.topic = topic;
+        }
+
+        /** Gönderilmemiş önceki komutun üzerine yazıldıysa true. */
+        private boolean put(TwistDTO t) {
+            lastOfferNanos = System.nanoTime();
+            return pending.getAndSet(t) != null;
+        }
+    }
+}
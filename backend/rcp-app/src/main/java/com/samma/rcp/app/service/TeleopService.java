@@ -2,15 +2,16 @@ package com.samma.rcp.app.service;
 
 import com.samma.rcp.app.dto.GoalPoseDTO;
 import com.samma.rcp.app.dto.TwistDTO;
-import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+/** Oturumu çağıran çözer (bilinmeyen oturum 404, bağlı olmayan 409 ayrı dönsün diye). */
 @Service
 @RequiredArgsConstructor
 public class TeleopService {
-    private final RosBridgeClient ros;
+    private final TeleopCoalescer coalescer;
 
-    public void sendTwist(TwistDTO t) { ros.publishTwist(t); }
-    public void sendGoal(GoalPoseDTO g) { ros.sendGoal(g); }
+    public void sendTwist(SessionRuntime session, TwistDTO t) { coalescer.offer(session, t); }
+    public void sendGoal(SessionRuntime session, GoalPoseDTO g) { session.getClient().sendGoal(g); }
 }
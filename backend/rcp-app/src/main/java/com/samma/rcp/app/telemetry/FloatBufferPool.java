@@ -0,0 +1,50 @@
+package com.samma.rcp.app.telemetry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 2'nin kuvveti boyut sınıflarında float[] havuzu. Yüksek frekanslı işleme aşamaları her mesajda
+ * yeni dizi ayırmak yerine buradan alıp geri verir; sınıf başına en fazla perClass dizi tutulur.
+ */
+public class FloatBufferPool {
+
+    private static final int MIN_CLASS = 6;  // 64
+    private static final int MAX_CLASS = 24; // 16M
+
+    /** (sınıf - MIN_CLASS) -> boştaki diziler */
+    private final List<ArrayDeque<float[]>> free = new ArrayList<>(MAX_CLASS - MIN_CLASS + 1);
+    private final int perClass;
+
+    public FloatBufferPool(int perClass) {
+        this.perClass = perClass;
+        for (int c = MIN_CLASS; c <= MAX_CLASS; c++) free.add(new ArrayDeque<>(perClass));
+    }
+
+    /** En az minLength uzunluğunda dizi; içerik tanımsızdır. */
+    public float[] acquire(int minLength) {
+        int c = sizeClass(minLength);
+        ArrayDeque<float[]> q = free.get(c - MIN_CLASS);
+        synchronized (q) {
+            float[] a = q.pollFirst();
+            if (a != null) return a;
+        }
+        return new float[1 << c];
+    }
+
+    public void release(float[] a) {
+        if (a == null || Integer.bitCount(a.length) != 1) return;
+        int c = Integer.numberOfTrailingZeros(a.length);
+        if (c < MIN_CLASS || c > MAX_CLASS) return;
+        ArrayDeque<float[]> q = free.get(c - MIN_CLASS);
+        synchronized (q) {
+            if (q.size() < perClass) q.addFirst(a);
+        }
+    }
+
+    private static int sizeClass(int n) {
+        if (n > 1 << MAX_CLASS) throw new IllegalArgumentException("buffer too large: " + n);
+        return Math.max(MIN_CLASS, 32 - Integer.numberOfLeadingZeros(Math.max(1, n) - 1));
+    }
+}
@@ -0,0 +1,51 @@
+package com.samma.rcp.app.telemetry;
+
+/**
+ * LaserScan mesafeleri üzerinde ayırmasız işlemler: açısal seyreltme + menzil kırpma (yerinde)
+ * ve nokta bütçesine göre min-havuzlama. Min-havuzlama pencere içindeki en yakın engeli korur,
+ * bu yüzden seyrek çizimde ince engeller kaybolmaz.
+ */
+public final class LaserScanDecimator {
+
+    private LaserScanDecimator() {}
+
+    /**
+     * ranges[0..n) içinden her step. ışını alır, [lo, hi] dışını NaN yapar ve sonucu dizinin başına
+     * yazar (yazma indeksi okuma indeksini geçmez). Kalan ışın sayısını döner.
+     */
+    public static int decimate(float[] ranges, int n, int step, float lo, float hi) {
+        step = Math.max(1, step);
+        int m = 0;
+        for (int i = 0; i < n; i += step) {
+            float v = ranges[i];
+            ranges[m++] = v >= lo && v <= hi ? v : Float.NaN; // NaN/Inf karşılaştırmada false
+        }
+        return m;
+    }
+
+    /** count ışını en fazla budget noktaya indirecek pencere genişliği. */
+    public static int stride(int count, int budget) {
+        if (budget <= 0 || count <= budget) return 1;
+        return (count + budget - 1) / budget;
+    }
+
+    /** count ışının stride genişliğindeki pencerelere indirgenmiş nokta sayısı. */
+    public static int downsampledLength(int count, int stride) {
+        return (count + stride - 1) / stride;
+    }
+
+    /**
+     * stride genişliğindeki pencerelerin en küçük geçerli değeri (mm'ye yuvarlı); geçerli değer yoksa 0.
+     * Sonuç out'un ilk {@link #downsampledLength} elemanına yazılır.
+     */
+    public static void downsample(float[] ranges, int count, int stride, float[] out) {
+        int len = downsampledLength(count, stride);
+        for (int j = 0, i = 0; j < len; j++) {
+            float min = Float.POSITIVE_INFINITY;
+            for (int end = Math.min(count, i + stride); i < end; i++) {
+                if (ranges[i] < min) min = ranges[i];
+            }
+            out[j] = min == Float.POSITIVE_INFINITY ? 0f : Math.round(min * 1000f) / 1000f;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.LaserScanFrameDTO;
+import com.samma.rcp.app.orchestration.RosArrays;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.ws.SessionTopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /scan'i tarayıcılara ham iletmek yerine seyreltir. İstemci nokta bütçesini hedefle seçer:
+ * /topic/sessions/&lt;id&gt;/scan varsayılan bütçeyi, .../scan/&lt;n&gt; en fazla n noktayı alır. Aynı pencere
+ * genişliğine düşen bütçeler tek frame paylaşır; oturumun abonesi yoksa mesaj işlenmez.
+ * Mesafeler havuzdan alınan tek bir float[] üzerinde işlenir. Gönderilen frame'ler ve ranges dizileri oturum
+ * başına tutulup her taramada yeniden doldurulur (ışın sayısı değişmedikçe ayrılmaz): convertAndSend frame'i
+ * dönmeden JSON'a çevirdiğinden, yeniden kullanım yalnızca oturumun inbound thread'inde güvenlidir.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LaserScanStage implements SessionLifecycleListener {
+
+    public static final String SUFFIX = "/scan";
+    private static final int MAX_POINTS = 1 << 16;
+
+    private final RosDockerProps props;
+    private final SimpMessagingTemplate mq;
+
+    private final FloatBufferPool pool = new FloatBufferPool(2);
+    /** STOMP sessionId -> (subscriptionId -> hedef) */
+    private final Map<String, Map<String, String>> subscribers = new ConcurrentHashMap<>();
+    /** simülasyon oturumu -> şeritler */
+    private volatile Map<Long, List<Lane>> lanes = Map.of();
+
+    /** Bir STOMP hedefi ve ona uygulanan (gerekirse sınırlanmış) bütçe. */
+    record Lane(String destination, int budget) {}
+
+    /** Oturumun yeniden kullanılan frame'leri (farklı stride başına bir tane); yalnızca inbound thread'i erişir. */
+    private static final class Frames {
+        long seq;
+        final List<LaserScanFrameDTO> byStride = new ArrayList<>();
+
+        /** i. farklı stride'ın frame'i; ranges length uzunluğunda (değiştiyse yeniden ayrılır). */
+        LaserScanFrameDTO get(int i, int length) {
+            if (i == byStride.size()) byStride.add(new LaserScanFrameDTO());
+            LaserScanFrameDTO f = byStride.get(i);
+            if (f.getRanges() == null || f.getRanges().length != length) f.setRanges(new float[length]);
+            return f;
+        }
+    }
+
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        RosDockerProps.Scan cfg = props.getScan();
+        Frames frames = new Frames();
+        session.getClient().subscribe(cfg.getTopic(), "sensor_msgs/msg/LaserScan", cfg.getThrottleRate(), 1,
+                cfg.getCompression(), (topic, msg) -> onScan(session.getId(), frames, msg));
+    }
+
+    /** Abonelik istemciyle kapanır; şeritler STOMP aboneleri ayrıldıkça temizlenir. */
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+    }
+
+    private void onScan(long sessionId, Frames frames, JsonNode msg) {
+        List<Lane> active = lanes.getOrDefault(sessionId, List.of());
+        if (active.isEmpty()) return;
+        RosDockerProps.Scan cfg = props.getScan();
+        JsonNode ranges = msg.get("ranges");
+        int n = RosArrays.length(ranges);
+        if (n == 0) return;
+
+        float[] buf = pool.acquire(n);
+        try {
+            n = RosArrays.floatsInto(ranges, buf);
+            float lo = (float) msg.path("range_min").asDouble(0);
+            float hi = (float) msg.path("range_max").asDouble(Float.MAX_VALUE);
+            if (cfg.getMinRange() > 0) lo = Math.max(lo, (float) cfg.getMinRange());
+            if (cfg.getMaxRange() > 0) hi = Math.min(hi, (float) cfg.getMaxRange());
+            int step = Math.max(1, cfg.getDecimation());
+            int count = LaserScanDecimator.decimate(buf, n, step, lo, hi);
+
+            JsonNode stamp = msg.path("header").path("stamp");
+            long stampMillis = stamp.path("sec").asLong() * 1000L + stamp.path("nanosec").asLong() / 1_000_000L;
+            String frameId = msg.path("header").path("frame_id").asText("");
+            float angleMin = (float) msg.path("angle_min").asDouble();
+            float increment = (float) msg.path("angle_increment").asDouble() * step;
+            long frameSeq = ++frames.seq;
+
+            int lastStride = 0, distinct = 0;
+            LaserScanFrameDTO frame = null;
+            for (Lane lane : active) { // bütçeye göre sıralı: aynı stride'lar ardışık
+                int stride = LaserScanDecimator.stride(count, lane.budget());
+                if (stride != lastStride) {
+                    frame = frames.get(distinct++, LaserScanDecimator.downsampledLength(count, stride));
+                    frame.setSeq(frameSeq);
+                    frame.setFrameId(frameId);
+                    frame.setStampMillis(stampMillis);
+                    frame.setAngleMin(angleMin + increment * (stride - 1) * 0.5f);
+                    frame.setAngleIncrement(increment * stride);
+                    frame.setRangeMin(lo);
+                    frame.setRangeMax(hi);
+                    LaserScanDecimator.downsample(buf, count, stride, frame.getRanges());
+                    lastStride = stride;
+                }
+                mq.convertAndSend(lane.destination(), frame);
+            }
+        } finally {
+            pool.release(buf);
+        }
+    }
+
+    @EventListener
+    void onSubscribe(SessionSubscribeEvent e) {
+        StompHeaderAccessor h = StompHeaderAccessor.wrap(e.getMessage());
+        String dest = h.getDestination();
+        if (budgetOf(dest) <= 0 || h.getSessionId() == null || h.getSubscriptionId() == null) return;
+        subscribers.computeIfAbsent(h.getSessionId(), k -> new ConcurrentHashMap<>()).put(h.getSubscriptionId(), dest);
+        rebuildLanes();
+    }
+
+    @EventListener
+    void onUnsubscribe(SessionUnsubscribeEvent e) {
+        StompHeaderAccessor h = StompHeaderAccessor.wrap(e.getMessage());
+        Map<String, String> subs = h.getSessionId() == null ? null : subscribers.get(h.getSessionId());
+        if (subs != null && h.getSubscriptionId() != null && subs.remove(h.getSubscriptionId()) != null) rebuildLanes();
+    }
+
+    @EventListener
+    void onDisconnect(SessionDisconnectEvent e) {
+        if (subscribers.remove(e.getSessionId()) != null) rebuildLanes();
+    }
+
+    /** .../scan -> varsayılan bütçe, .../scan/&lt;n&gt; -> n; ilgisiz hedef için 0. */
+    private int budgetOf(String dest) {
+        Long session = SessionTopics.sessionOf(dest);
+        String suffix = session == null ? null : SessionTopics.suffixOf(dest, session);
+        if (suffix == null || !suffix.startsWith(SUFFIX)) return 0;
+        if (suffix.length() == SUFFIX.length()) return props.getScan().getDefaultBudget();
+        if (suffix.charAt(SUFFIX.length()) != '/') return 0;
+        try {
+            int n = Integer.parseInt(suffix.substring(SUFFIX.length() + 1));
+            return n > 0 ? Math.min(n, MAX_POINTS) : 0;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /** Aktif hedefleri simülasyon oturumlarına ayırıp her birinin şeritlerini yeniden kurar. */
+    private synchronized void rebuildLanes() {
+        Map<Long, TreeSet<String>> bySession = new HashMap<>();
+        subscribers.values().forEach(m -> m.values().forEach(d ->
+                bySession.computeIfAbsent(SessionTopics.sessionOf(d), k -> new TreeSet<>()).add(d)));
+        Map<Long, List<Lane>> next = new HashMap<>();
+        bySession.forEach((session, dests) -> next.put(session, lanesFor(session, dests)));
+        lanes = Map.copyOf(next);
+    }
+
+    /**
+     * max-budgets'tan fazla farklı bütçe istenirse fazlası izin verilen en büyük bütçeye indirilir
+     * (hedefe yine yollanır, ayrıca hesaplanmaz).
+     */
+    private List<Lane> lanesFor(long session, TreeSet<String> dests) {
+        TreeSet<Integer> budgets = new TreeSet<>();
+        dests.forEach(d -> budgets.add(budgetOf(d)));
+
+        int cap = Math.max(1, props.getScan().getMaxBudgets());
+        List<Integer> allowed = new ArrayList<>(budgets).subList(0, Math.min(cap, budgets.size()));
+        if (budgets.size() > cap) log.warn("session {} scan: {} distinct budgets requested, capping to {}", session, budgets.size(), cap);
+
+        List<Lane> next = new ArrayList<>(dests.size());
+        for (String d : dests) {
+            int b = budgetOf(d);
+            next.add(new Lane(d, allowed.contains(b) ? b : allowed.get(allowed.size() - 1)));
+        }
+        next.sort(Comparator.comparingInt(Lane::budget));
+        return List.copyOf(next);
+    }
+}
@@ -0,0 +1,214 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.LatencyStatsDTO;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SendLane;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Uçtan uca komut gecikmesi. Her oturumda ros.latency.interval'de bir zaman damgalı std_msgs/String,
+ * teleop komutlarıyla aynı yoldan (CONTROL şeridi, topic'in kontrol bağlantısı) ros.latency.topic'e publish
+ * edilir; echo-topic'ten (boşsa aynı topic) dönen mesajın gidiş-dönüş süresi HdrHistogram {@link Recorder}'a
+ * yazılır. Kayıt gelen mesaj thread'inde kilitsizdir, toplam histograma okuma sırasında aktarılır.
+ * Veri "&lt;çalışma&gt;:&lt;sıra&gt;:&lt;nanoTime&gt;" biçimindedir; başka bir backend'in yoklamaları yok sayılır.
+ * Sırası son dönenden büyük olmayan yankı (kopya ya da geç gelen) sayılmaz. Bağlantı yokken yoklama
+ * gönderilmez. Replay oturumları yoklanmaz.
+ * Metrikler: ros.latency.rtt (quantile=0.5|0.99|0.999|max), ros.latency.probes (result=sent|received).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LatencyProbeService implements SessionLifecycleListener {
+
+    static final String TYPE = "std_msgs/msg/String";
+
+    private final RosDockerProps props;
+    private final MeterRegistry meters;
+
+    private final Map<Long, Probe> probes = new ConcurrentHashMap<>();
+    /** Bu sürecin yoklamalarını ayırt eder. */
+    private final String run = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "latency-probe");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        RosDockerProps.Latency cfg = props.getLatency();
+        if (!cfg.isEnabled() || session.isReplay()) return;
+        Probe p = new Probe(session.getId(), session.getClient(), cfg);
+        probes.put(p.sessionId, p);
+        p.client.subscribe(p.echoTopic, TYPE, 0, 1, (topic, msg) -> p.onEcho(msg));
+        long interval = Math.max(cfg.getInterval(), 10);
+        p.task = ticker.scheduleAtFixedRate(p::tick, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Abonelik istemciyle kapanır. */
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+        Probe p = probes.remove(session.getId());
+        if (p == null) return;
+        p.task.cancel(false);
+        p.registered.forEach(meters::remove);
+    }
+
+    /** Yoklanmayan (bilinmeyen, replay ya da yoklama kapalı) oturum için boş. */
+    public Optional<LatencyStatsDTO> stats(long sessionId) {
+        return Optional.ofNullable(probes.get(sessionId)).map(Probe::stats);
+    }
+
+    private final class Probe {
+        final long sessionId;
+        final RosBridgeClient client;
+        final String topic;
+        final String echoTopic;
+        final String prefix;
+        final Recorder recorder;
+        /** Erişim this üzerinden senkronize. */
+        final Histogram total;
+        private Histogram interval;
+        final LongAdder sent = new LongAdder();
+        final LongAdder received = new LongAdder();
+        final List<Meter> registered = new ArrayList<>();
+        volatile long seq;
+        final AtomicLong lastEcho = new AtomicLong();
+        volatile long lastMicros = -1;
+        ScheduledFuture<?> task;
+
+        Probe(long sessionId, RosBridgeClient client, RosDockerProps.Latency cfg) {
+            this.sessionId = sessionId;
+            this.client = client;
+            this.topic = cfg.getTopic();
+            this.echoTopic = cfg.getEchoTopic() == null || cfg.getEchoTopic().isBlank() ? cfg.getTopic() : cfg.getEchoTopic();
+            this.prefix = run + ":";
+            long highest = TimeUnit.MILLISECONDS.toMicros(Math.max(cfg.getHighestTrackable(), 1));
+            this.recorder = new Recorder(highest, 3);
+            this.total = new Histogram(highest, 3);
+            String session = String.valueOf(sessionId);
+            rtt(session, "0.5", h -> h.getValueAtPercentile(50.0));
+            rtt(session, "0.99", h -> h.getValueAtPercentile(99.0));
+            rtt(session, "0.999", h -> h.getValueAtPercentile(99.9));
+            rtt(session, "max", Histogram::getMaxValue);
+            registered.add(FunctionCounter.builder("ros.latency.probes", sent, LongAdder::sum)
+                    .description("Gecikme yoklaması").tags("session", session, "result", "sent").register(meters));
+            registered.add(FunctionCounter.builder("ros.latency.probes", received, LongAdder::sum)
+                    .description("Gecikme yoklaması").tags("session", session, "result", "received").register(meters));
+        }
+
+        private void rtt(String session, String quantile, ToDoubleFunction<Histogram> micros) {
+            registered.add(Gauge.builder("ros.latency.rtt", this, p -> p.read(micros) / 1e6)
+                    .description("Yoklamanın gidiş-dönüş süresi").baseUnit("seconds")
+                    .tags("session", session, "quantile", quantile).register(meters));
+        }
+
+        void tick() {
+            if (!client.isConnected()) return;
+            long n = ++seq; // yalnızca ticker thread'i artırır
+            try {
+                client.publish(SendLane.CONTROL, topic, TYPE, Map.of("data", prefix + n + ":" + System.nanoTime()));
+                sent.increment();
+            } catch (RuntimeException e) {
+                log.debug("session {} latency probe failed: {}", sessionId, e.getMessage());
+            }
+        }
+
+        void onEcho(JsonNode msg) {
+            long now = System.nanoTime();
+            String data = msg == null ? null : msg.path("data").asText(null);
+            if (data == null || !data.startsWith(prefix)) return;
+            int colon = data.indexOf(':', prefix.length());
+            if (colon < 0) return;
+            long n, sentAt;
+            try {
+                n = Long.parseLong(data, prefix.length(), colon, 10);
+                sentAt = Long.parseLong(data, colon + 1, data.length(), 10);
+            } catch (NumberFormatException e) {
+                return;
+            }
+            long prev;
+            do {
+                prev = lastEcho.get();
+                if (n <= prev) return;
+            } while (!lastEcho.compareAndSet(prev, n));
+            long micros = TimeUnit.NANOSECONDS.toMicros(now - sentAt);
+            if (micros < 0) return;
+            recorder.recordValue(Math.min(micros, total.getHighestTrackableValue()));
+            lastMicros = micros;
+            received.increment();
+        }
+
+        /** Recorder'da biriken aralığı toplama ekler. */
+        private synchronized Histogram absorb() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return total;
+        }
+
+        private synchronized double read(ToDoubleFunction<Histogram> f) {
+            Histogram h = absorb();
+            return h.getTotalCount() == 0 ? 0 : f.applyAsDouble(h);
+        }
+
+        synchronized LatencyStatsDTO stats() {
+            Histogram h = absorb();
+            boolean empty = h.getTotalCount() == 0;
+            long s = sent.sum();
+            long r = received.sum();
+            long last = lastMicros;
+            return LatencyStatsDTO.builder()
+                    .sessionId(sessionId)
+                    .topic(topic)
+                    .echoTopic(echoTopic)
+                    .sent(s)
+                    .received(r)
+                    .lost(Math.max(s - r, 0))
+                    .meanMs(empty ? 0 : h.getMean() / 1000.0)
+                    .p50Ms(empty ? 0 : h.getValueAtPercentile(50.0) / 1000.0)
+                    .p99Ms(empty ? 0 : h.getValueAtPercentile(99.0) / 1000.0)
+                    .p999Ms(empty ? 0 : h.getValueAtPercentile(99.9) / 1000.0)
+                    .maxMs(empty ? 0 : h.getMaxValue() / 1000.0)
+                    .lastMs(last < 0 ? 0 : last / 1000.0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.MapDeltaDTO;
+import com.samma.rcp.app.dto.MapSnapshotDTO;
+import com.samma.rcp.app.orchestration.RosArrays;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.ws.SessionTopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /map güncellemelerinden her oturumun OccupancyGrid modelini tutar ve istemcilere yalnızca değişen
+ * karoları yollar. Yeni katılan istemci /app/sessions/&lt;id&gt;/map/snapshot aboneliğiyle tam kopyayı alır,
+ * ardından /topic/sessions/&lt;id&gt;/map/delta dinler. Yerleşim değişirse herkese .../map/snapshot gider.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MapStreamService implements SessionLifecycleListener {
+
+    public static final String SNAPSHOT_DEST = "/map/snapshot";
+    public static final String DELTA_DEST = "/map/delta";
+
+    private final RosDockerProps props;
+    private final SimpMessagingTemplate mq;
+
+    /** sessionId -> model; model aynı zamanda awaitGrid bekleyenlerinin monitörüdür. */
+    private final Map<Long, OccupancyGridModel> models = new ConcurrentHashMap<>();
+
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        RosDockerProps.MapStream cfg = props.getMap();
+        OccupancyGridModel model = new OccupancyGridModel(cfg.getTileSize());
+        models.put(session.getId(), model);
+        session.getClient().subscribe(cfg.getTopic(), "nav_msgs/msg/OccupancyGrid", 0, 1, cfg.getCompression(),
+                (topic, msg) -> onMap(session.getId(), model, msg));
+    }
+
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+        OccupancyGridModel model = models.remove(session.getId());
+        if (model != null) synchronized (model) { model.notifyAll(); } // bekleyen kayıt boşuna beklemesin
+    }
+
+    private void onMap(long sessionId, OccupancyGridModel model, JsonNode msg) {
+        JsonNode info = msg.path("info");
+        JsonNode origin = info.path("origin");
+        OccupancyGridModel.Result r = model.apply(
+                msg.path("header").path("frame_id").asText("map"),
+                info.path("width").asInt(), info.path("height").asInt(), info.path("resolution").asDouble(),
+                origin.path("position").path("x").asDouble(), origin.path("position").path("y").asDouble(),
+                RosGeometry.yaw(origin.path("orientation")),
+                RosArrays.bytes(msg.get("data")));
+
+        synchronized (model) {
+            model.notifyAll(); // awaitGrid bekleyenleri
+        }
+        if (r.reset()) {
+            mq.convertAndSend(SessionTopics.of(sessionId, SNAPSHOT_DEST), model.snapshot());
+        } else if (!r.tiles().isEmpty()) {
+            mq.convertAndSend(SessionTopics.of(sessionId, DELTA_DEST), MapDeltaDTO.builder()
+                    .version(r.version()).baseVersion(r.baseVersion())
+                    .tileSize(model.getTileSize()).tiles(r.tiles())
+                    .build());
+            log.debug("session {} map v{}: {} tiles changed", sessionId, r.version(), r.tiles().size());
+        }
+    }
+
+    /** Oturum bilinmiyorsa boş. */
+    public Optional<MapSnapshotDTO> snapshot(long sessionId) {
+        return Optional.ofNullable(models.get(sessionId)).map(OccupancyGridModel::snapshot);
+    }
+
+    /**
+     * Grid hazır olana kadar en fazla timeoutMs bekler. /map latched olduğundan abonelik
+     * (bağlantı açılınca yeniden yapılır) son haritayı kısa sürede getirir. Oturum kapanırsa false.
+     */
+    public boolean awaitGrid(long sessionId, long timeoutMs) throws InterruptedException {
+        OccupancyGridModel model = models.get(sessionId);
+        if (model == null) return false;
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        synchronized (model) {
+            while (!model.hasGrid()) {
+                long left = (deadline - System.nanoTime()) / 1_000_000L;
+                if (left <= 0 || models.get(sessionId) != model) return false;
+                model.wait(left);
+            }
+        }
+        return true;
+    }
+
+    /** Grid'i kopyasız dışarı aktarır (bkz. {@link OccupancyGridModel#export}). */
+    public boolean export(long sessionId, OccupancyGridModel.GridSink sink) throws IOException {
+        OccupancyGridModel model = models.get(sessionId);
+        return model != null && model.export(sink);
+    }
+}
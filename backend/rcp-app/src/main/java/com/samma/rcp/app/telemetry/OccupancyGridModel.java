@@ -0,0 +1,149 @@
+package com.samma.rcp.app.telemetry;
+
+import com.samma.rcp.app.dto.MapDeltaDTO;
+import com.samma.rcp.app.dto.MapSnapshotDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Oturumun tek yetkili OccupancyGrid kopyası. Her /map güncellemesinde sabit boyutlu karolar
+ * önceki sürümle karşılaştırılır; yalnızca değişen karolar delta olarak döner.
+ * Boyut, çözünürlük ya da origin değişirse delta anlamsızdır ve tam snapshot gerekir.
+ * Dışa aktarım sürerken hücre dizisi paylaşımlıdır: o sırada gelen ilk değişiklik diziyi kopyalayıp
+ * kopyaya yazar (copy-on-write), aktarılan dizi değişmez.
+ */
+public class OccupancyGridModel {
+
+    /** Grid'i kopyalamadan dışarı aktaran tüketici; kilit dışında çağrılır, cells salt okunurdur. */
+    public interface GridSink {
+        void write(String frameId, int width, int height, double resolution,
+                   double originX, double originY, double originYaw, byte[] cells) throws IOException;
+    }
+
+    /** reset=true ise istemciler snapshot almalı; aksi halde tiles delta'dır (boş olabilir). */
+    public record Result(boolean reset, long version, long baseVersion, List<MapDeltaDTO.Tile> tiles) {}
+
+    private final int tileSize;
+
+    private String frameId;
+    private int width;
+    private int height;
+    private double resolution;
+    private double originX;
+    private double originY;
+    private double originYaw;
+    private byte[] cells;
+    private long version;
+    /** cells'i okumakta olan dışa aktarım sayısı; sıfırdan büyükse apply() yazmadan önce kopyalar. */
+    private int exporters;
+
+    public OccupancyGridModel(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    public synchronized Result apply(String frameId, int w, int h, double res,
+                                     double ox, double oy, double oyaw, byte[] data) {
+        if (data.length < (long) w * h) throw new IllegalArgumentException("data " + data.length + " < " + w + "x" + h);
+        long base = version;
+        boolean layoutChanged = cells == null || w != width || h != height || res != resolution
+                || ox != originX || oy != originY || oyaw != originYaw;
+        if (layoutChanged) {
+            this.frameId = frameId;
+            width = w;
+            height = h;
+            resolution = res;
+            originX = ox;
+            originY = oy;
+            originYaw = oyaw;
+            cells = Arrays.copyOf(data, w * h);
+            exporters = 0; // yeni dizi paylaşımlı değil
+            version++;
+            return new Result(true, version, base, List.of());
+        }
+
+        List<MapDeltaDTO.Tile> changed = new ArrayList<>();
+        for (int ty = 0; ty < h; ty += tileSize) {
+            int th = Math.min(tileSize, h - ty);
+            for (int tx = 0; tx < w; tx += tileSize) {
+                int tw = Math.min(tileSize, w - tx);
+                if (tileEquals(data, tx, ty, tw, th)) continue;
+                if (exporters > 0) {
+                    cells = cells.clone();
+                    exporters = 0;
+                }
+                byte[] tile = new byte[tw * th];
+                for (int r = 0; r < th; r++) {
+                    int src = (ty + r) * w + tx;
+                    System.arraycopy(data, src, cells, src, tw);
+                    System.arraycopy(data, src, tile, r * tw, tw);
+                }
+                changed.add(MapDeltaDTO.Tile.builder().x(tx).y(ty).w(tw).h(th).data(tile).build());
+            }
+        }
+        if (!changed.isEmpty()) version++;
+        return new Result(false, version, base, changed);
+    }
+
+    private boolean tileEquals(byte[] data, int tx, int ty, int tw, int th) {
+        for (int r = 0; r < th; r++) {
+            int from = (ty + r) * width + tx;
+            if (!Arrays.equals(cells, from, from + tw, data, from, from + tw)) return false;
+        }
+        return true;
+    }
+
+    /** Yeni katılan istemci için tam kopya; henüz harita yoksa null. */
+    public synchronized MapSnapshotDTO snapshot() {
+        if (cells == null) return null;
+        return MapSnapshotDTO.builder()
+                .version(version).frameId(frameId)
+                .width(width).height(height).resolution(resolution)
+                .originX(originX).originY(originY).originYaw(originYaw)
+                .tileSize(tileSize)
+                .data(cells.clone())
+                .build();
+    }
+
+    /**
+     * Mevcut grid'i kopyasız olarak sink'e verir; henüz harita yoksa false döner.
+     * Kilit yalnızca alanları okurken tutulur: sink (ör. fsync'li PGM yazımı) süresince /map güncellemeleri
+     * beklemez, değişiklikler yeni diziye yazılır.
+     */
+    public boolean export(GridSink sink) throws IOException {
+        String f;
+        int w, h;
+        double res, ox, oy, oyaw;
+        byte[] shared;
+        synchronized (this) {
+            if (cells == null) return false;
+            f = frameId;
+            w = width;
+            h = height;
+            res = resolution;
+            ox = originX;
+            oy = originY;
+            oyaw = originYaw;
+            shared = cells;
+            exporters++;
+        }
+        try {
+            sink.write(f, w, h, res, ox, oy, oyaw, shared);
+        } finally {
+            synchronized (this) {
+                if (cells == shared) exporters--;
+            }
+        }
+        return true;
+    }
+
+    public synchronized boolean hasGrid() {
+        return cells != null;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+}
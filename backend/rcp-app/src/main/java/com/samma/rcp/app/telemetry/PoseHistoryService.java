@@ -0,0 +1,73 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.PoseHistoryDTO;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /odom ve /amcl_pose örneklerini oturum başına birer {@link PoseRing}'e kaydeder.
+ * Bellek kapasiteyle sabittir; oturum kapanınca halkalar bırakılır, okuyucular bıraktığında toplanır.
+ * Örnek zamanı mesajın header.stamp'idir (kuyrukta bekleme ve replay hızı zamanı kaydırmaz); stamp yoksa alış zamanı.
+ */
+@Service
+@RequiredArgsConstructor
+public class PoseHistoryService implements SessionLifecycleListener {
+
+    public static final String ODOM = "odom";
+    public static final String AMCL = "amcl";
+
+    private final RosDockerProps props;
+
+    private final Map<Long, Rings> sessions = new ConcurrentHashMap<>();
+
+    private record Rings(PoseRing odom, PoseRing amcl) {}
+
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        RosDockerProps.History cfg = props.getHistory();
+        Rings r = new Rings(new PoseRing(cfg.getOdomCapacity()), new PoseRing(cfg.getAmclCapacity()));
+        sessions.put(session.getId(), r);
+        session.getClient().subscribe(cfg.getOdomTopic(), "nav_msgs/msg/Odometry", cfg.getOdomThrottle(), 1,
+                (topic, msg) -> onOdom(r.odom(), msg));
+        session.getClient().subscribe(cfg.getAmclTopic(), "geometry_msgs/msg/PoseWithCovarianceStamped", 0, 1,
+                (topic, msg) -> onAmcl(r.amcl(), msg));
+    }
+
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+        sessions.remove(session.getId());
+    }
+
+    private void onOdom(PoseRing odom, JsonNode msg) {
+        JsonNode pose = msg.path("pose").path("pose");
+        JsonNode twist = msg.path("twist").path("twist");
+        odom.add(RosGeometry.stampMillis(msg.path("header"), System.currentTimeMillis()),
+                pose.path("position").path("x").asDouble(), pose.path("position").path("y").asDouble(),
+                RosGeometry.yaw(pose.path("orientation")),
+                twist.path("linear").path("x").asDouble(), twist.path("angular").path("z").asDouble());
+    }
+
+    private void onAmcl(PoseRing amcl, JsonNode msg) {
+        JsonNode pose = msg.path("pose").path("pose");
+        amcl.add(RosGeometry.stampMillis(msg.path("header"), System.currentTimeMillis()),
+                pose.path("position").path("x").asDouble(), pose.path("position").path("y").asDouble(),
+                RosGeometry.yaw(pose.path("orientation")), 0, 0);
+    }
+
+    /** Bilinmeyen oturum ya da kaynak için boş döner. limit max-points ile sınırlanır. */
+    public Optional<PoseHistoryDTO> query(long sessionId, String source, long from, long to, long stride, int limit) {
+        Rings r = sessions.get(sessionId);
+        PoseRing ring = r == null ? null : ODOM.equals(source) ? r.odom() : AMCL.equals(source) ? r.amcl() : null;
+        if (ring == null) return Optional.empty();
+        int max = Math.min(limit <= 0 ? Integer.MAX_VALUE : limit, props.getHistory().getMaxPoints());
+        return Optional.of(ring.query(from, to, stride, max).toBuilder().source(source).build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.samma.rcp.app.telemetry;
+
+import com.samma.rcp.app.dto.PoseHistoryDTO;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Sabit kapasiteli poz geçmişi: (t, x, y, yaw, v, ω) örnekleri sütun sütun primitive dizilerde
+ * tutulur, örnek başına 28 bayt. Tek yazar (inbound thread), çok okuyucu, kilitsiz:
+ * yazar slotu doldurup head'i yayınlar; okuyucu kopyaladıktan sonra head'i yeniden okuyup
+ * bu arada üzerine yazılmış olabilecek en eski örnekleri atar (seqlock mantığı).
+ * Zaman damgaları artan tutulduğu için aralık başı ikili aramayla bulunur.
+ */
+public class PoseRing {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] t;
+    private final float[] x;
+    private final float[] y;
+    private final float[] yaw;
+    private final float[] v;
+    private final float[] w;
+
+    /** Yazılmış örnek sayısı (mantıksal indeks); slot = index & mask. */
+    private volatile long head;
+    private long lastT = Long.MIN_VALUE;
+
+    public PoseRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        t = new long[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        yaw = new float[capacity];
+        v = new float[capacity];
+        w = new float[capacity];
+    }
+
+    /** Yalnızca tek thread'den çağrılmalı. Geri giden saat, sıralamayı korumak için son zamana sabitlenir. */
+    public void add(long tMillis, double px, double py, double pyaw, double lin, double ang) {
+        long h = head;
+        int i = (int) (h & mask);
+        VarHandle.storeStoreFence(); // önceki head yayını, bu slotun üzerine yazılmasından önce görünsün
+        lastT = Math.max(lastT, tMillis);
+        t[i] = lastT;
+        x[i] = (float) px;
+        y[i] = (float) py;
+        yaw[i] = (float) pyaw;
+        v[i] = (float) lin;
+        w[i] = (float) ang;
+        head = h + 1;
+    }
+
+    public long size() {
+        return Math.min(head, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * [from, to] aralığındaki örnekler; stride > 0 ise ardışık örnekler arası en az stride ms olur.
+     * En fazla limit örnek döner. İş maliyeti O(dönen örnek × log stride).
+     */
+    public PoseHistoryDTO query(long from, long to, long stride, int limit) {
+        long hi = head;
+        long lo = oldest(hi);
+        long k = lowerBound(lo, hi, from);
+        long end = to == Long.MAX_VALUE ? hi : lowerBound(k, hi, to + 1);
+        // Sonuç boyutunun üst sınırı baştan bilinir: aralıktaki örnek sayısı ve stride'a göre zaman açıklığı
+        long bound = Math.min(end - k, limit);
+        if (stride > 0 && end > k) bound = Math.min(bound, (t[(int) ((end - 1) & mask)] - t[(int) (k & mask)]) / stride + 1);
+        int cap = (int) Math.max(0, bound);
+
+        int n = 0;
+        long[] rt = new long[cap], srcIndex = new long[cap];
+        float[] rx = new float[cap], ry = new float[cap], ryaw = new float[cap], rv = new float[cap], rw = new float[cap];
+        while (k < end && n < cap) {
+            int i = (int) (k & mask);
+            rt[n] = t[i];
+            rx[n] = x[i];
+            ry[n] = y[i];
+            ryaw[n] = yaw[i];
+            rv[n] = v[i];
+            rw[n] = w[i];
+            srcIndex[n++] = k;
+            k = stride > 0 ? gallop(k + 1, end, rt[n - 1] + stride) : k + 1;
+        }
+
+        // Kopya sırasında yazar tur attıysa en eski örnekler bozulmuş olabilir: onları at
+        VarHandle.loadLoadFence();
+        long valid = oldest(head);
+        int skip = 0;
+        while (skip < n && srcIndex[skip] < valid) skip++;
+        if (skip == 0 && n == cap) {
+            return PoseHistoryDTO.builder().count(n).t(rt).x(rx).y(ry).yaw(ryaw).v(rv).w(rw).build();
+        }
+        return PoseHistoryDTO.builder()
+                .count(n - skip)
+                .t(Arrays.copyOfRange(rt, skip, n))
+                .x(Arrays.copyOfRange(rx, skip, n))
+                .y(Arrays.copyOfRange(ry, skip, n))
+                .yaw(Arrays.copyOfRange(ryaw, skip, n))
+                .v(Arrays.copyOfRange(rv, skip, n))
+                .w(Arrays.copyOfRange(rw, skip, n))
+                .build();
+    }
+
+    /** Okunması güvenli en eski mantıksal indeks; yazılmakta olan slot (head - capacity) hariç. */
+    private long oldest(long h) {
+        return Math.max(0, h - capacity + 1);
+    }
+
+    /** lowerBound'un yakın hedefler için hali: lo'dan üstel adımlarla aralığı daraltır, önbellek dostudur. */
+    private long gallop(long lo, long hi, long target) {
+        long step = 1;
+        while (lo + step < hi && t[(int) ((lo + step) & mask)] < target) step <<= 1;
+        return lowerBound(lo + (step >> 1), Math.min(lo + step + 1, hi), target);
+    }
+
+    /** [lo, hi) içinde t >= target olan ilk mantıksal indeks (yoksa hi). */
+    private long lowerBound(long lo, long hi, long target) {
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (t[(int) (mid & mask)] < target) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,24 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/** ROS geometri ve başlık alanları için küçük yardımcılar. */
+public final class RosGeometry {
+
+    private RosGeometry() {}
+
+    /** geometry_msgs/Quaternion -&gt; z ekseni etrafındaki açı (rad). */
+    public static double yaw(JsonNode q) {
+        double x = q.path("x").asDouble(), y = q.path("y").asDouble();
+        double z = q.path("z").asDouble(), w = q.path("w").asDouble(1.0);
+        return Math.atan2(2.0 * (w * z + x * y), 1.0 - 2.0 * (y * y + z * z));
+    }
+
+    /** std_msgs/Header.stamp -&gt; ms; stamp yoksa ya da sıfırsa fallback. */
+    public static long stampMillis(JsonNode header, long fallback) {
+        JsonNode stamp = header.path("stamp");
+        long sec = stamp.path("sec").asLong(), nanos = stamp.path("nanosec").asLong();
+        if (sec == 0 && nanos == 0) return fallback;
+        return sec * 1000L + nanos / 1_000_000L;
+    }
+}
@@ -0,0 +1,179 @@
+package com.samma.rcp.app.ws;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * clientOutboundChannel üzerinde abone başına birleştirme. ros.stomp.conflate kalıplarına uyan bir hedefe
+ * abone olunca (STOMP oturumu, abonelik) için tek slot açılır: broker'ın ürettiği mesaj slota yazılır ve
+ * slotta teslim bekleyen varsa kuyruğa ikinci görev eklenmez; görev çalışırken ({@link #beforeHandle})
+ * slottaki en son mesaj gönderilir. Böylece yavaş kalan ya da kuyruğu dolan abone ara değerleri atlar,
+ * kuyrukta oturum başına hedef sayısından fazla telemetri birikmez.
+ * SUBSCRIBE'daki "max-rate" başlığı (Hz; yoksa ros.stomp.default-max-rate, 0 sınırsız) teslim aralığını sınırlar;
+ * erken gelen mesaj slotta bekler, aralık dolunca gönderilir.
+ * Kalıba uymayan hedefler (harita farkı, durum) olduğu gibi geçer. Gönderim tamponu/süresi aşılan oturumu
+ * Spring kapatır (SESSION_NOT_RELIABLE); bu kapanışlar stomp.slow.consumers ile sayılır.
+ * Metrikler: stomp.conflated (yerine yenisi geçen mesaj), stomp.slow.consumers.
+ */
+@Slf4j
+@Component
+public class ConflatingOutboundInterceptor implements ExecutorChannelInterceptor {
+
+    /** SUBSCRIBE başlığı: en fazla teslim hızı (Hz). */
+    public static final String MAX_RATE_HEADER = "max-rate";
+    /** Aralık dolunca kuyruğa konan teslim görevinin işareti; taşıdığı mesaj gönderilmez. */
+    private static final String TOKEN_HEADER = "rcpConflateToken";
+
+    private final RosDockerProps props;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    /** STOMP sessionId -> (subscriptionId -> slot) */
+    private final Map<String, Map<String, Slot>> slots = new ConcurrentHashMap<>();
+    private final LongAdder conflated = new LongAdder();
+    private final Counter slowConsumers;
+    private final ScheduledExecutorService flusher;
+
+    public ConflatingOutboundInterceptor(RosDockerProps props, MeterRegistry meters) {
+        this.props = props;
+        FunctionCounter.builder("stomp.conflated", conflated, LongAdder::sum)
+                .description("Abone slotunda yerine yenisi geçen telemetri mesajı").register(meters);
+        this.slowConsumers = Counter.builder("stomp.slow.consumers")
+                .description("Gönderim tamponu ya da süresi aşıldığı için kapatılan STOMP oturumu").register(meters);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stomp-conflate");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    /** Abonenin birleştirme slotu. */
+    private static final class Slot {
+        final long intervalNanos;
+        final AtomicReference<Message<?>> latest = new AtomicReference<>();
+        final AtomicBoolean pending = new AtomicBoolean();
+        volatile long lastSent;
+        volatile Message<?> token;
+
+        Slot(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+            this.lastSent = System.nanoTime() - intervalNanos; // ilk mesaj beklemez
+        }
+    }
+
+    /** Broker thread'i: mesaj slota yazılır, teslim görevi yalnızca bekleyen yoksa kuyruğa girer. */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        Slot slot = slotOf(message);
+        if (slot == null || message.getHeaders().containsKey(TOKEN_HEADER)) return message;
+        if (slot.latest.getAndSet(message) != null) conflated.increment();
+        if (!slot.pending.compareAndSet(false, true)) return null;
+        long wait = slot.lastSent + slot.intervalNanos - System.nanoTime();
+        if (slot.intervalNanos <= 0 || wait <= 0) return message;
+        if (slot.token == null) slot.token = MessageBuilder.fromMessage(message).setHeader(TOKEN_HEADER, true).build();
+        try {
+            flusher.schedule(() -> channel.send(slot.token), wait, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) { // kapanışta
+            slot.pending.set(false);
+        }
+        return null;
+    }
+
+    /** Kanal thread'i: görevin taşıdığı mesaj yerine slottaki en son mesaj gönderilir. */
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Slot slot = slotOf(message);
+        if (slot == null) return message.getHeaders().containsKey(TOKEN_HEADER) ? null : message; // abonelik kapanmış
+        slot.pending.set(false); // bundan sonra gelen mesaj yeni görev açar
+        Message<?> latest = slot.latest.getAndSet(null);
+        if (latest != null) slot.lastSent = System.nanoTime();
+        return latest;
+    }
+
+    @EventListener
+    void onConnect(SessionConnectEvent e) {
+        String session = SimpMessageHeaderAccessor.getSessionId(e.getMessage().getHeaders());
+        if (session != null) slots.putIfAbsent(session, new ConcurrentHashMap<>());
+    }
+
+    @EventListener
+    void onSubscribe(SessionSubscribeEvent e) {
+        StompHeaderAccessor h = StompHeaderAccessor.wrap(e.getMessage());
+        String dest = h.getDestination();
+        if (dest == null || h.getSessionId() == null || h.getSubscriptionId() == null || !conflates(dest)) return;
+        double rate = props.getStomp().getDefaultMaxRate();
+        String header = h.getFirstNativeHeader(MAX_RATE_HEADER);
+        if (header != null) {
+            try {
+                rate = Double.parseDouble(header);
+            } catch (NumberFormatException ex) {
+                log.debug("ignoring {} header '{}' on {}", MAX_RATE_HEADER, header, dest);
+            }
+        }
+        long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        slots.computeIfAbsent(h.getSessionId(), k -> new ConcurrentHashMap<>()).put(h.getSubscriptionId(), new Slot(interval));
+    }
+
+    @EventListener
+    void onUnsubscribe(SessionUnsubscribeEvent e) {
+        StompHeaderAccessor h = StompHeaderAccessor.wrap(e.getMessage());
+        Map<String, Slot> own = h.getSessionId() == null ? null : slots.get(h.getSessionId());
+        if (own != null && h.getSubscriptionId() != null) own.remove(h.getSubscriptionId());
+    }
+
+    /** Kapanış olayı aynı oturum için birden fazla gelebilir; yalnızca ilki sayılır. */
+    @EventListener
+    void onDisconnect(SessionDisconnectEvent e) {
+        if (slots.remove(e.getSessionId()) != null && CloseStatus.SESSION_NOT_RELIABLE.equals(e.getCloseStatus())) {
+            slowConsumers.increment();
+            log.warn("STOMP session {} dropped as slow consumer (send limits exceeded)", e.getSessionId());
+        }
+    }
+
+    private boolean conflates(String destination) {
+        for (String pattern : props.getStomp().getConflate()) {
+            if (matcher.match(pattern, destination)) return true;
+        }
+        return false;
+    }
+
+    private Slot slotOf(Message<?> message) {
+        if (message == null || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) return null;
+        String session = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscription = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        Map<String, Slot> own = session == null ? null : slots.get(session);
+        return own == null || subscription == null ? null : own.get(subscription);
+    }
+}
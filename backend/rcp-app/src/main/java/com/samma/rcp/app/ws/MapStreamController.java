@@ -0,0 +1,21 @@
+package com.samma.rcp.app.ws;
+
+import com.samma.rcp.app.dto.MapSnapshotDTO;
+import com.samma.rcp.app.telemetry.MapStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+@RequiredArgsConstructor
+public class MapStreamController {
+
+    private final MapStreamService maps;
+
+    /** /app/sessions/{id}/map/snapshot aboneliğinde oturumun güncel haritasını yalnızca abone olan istemciye döner. */
+    @SubscribeMapping("/sessions/{sessionId}/map/snapshot")
+    public MapSnapshotDTO snapshot(@DestinationVariable long sessionId) {
+        return maps.snapshot(sessionId).orElse(null);
+    }
+}
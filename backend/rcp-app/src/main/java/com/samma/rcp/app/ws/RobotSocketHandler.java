@@ -1,46 +1,119 @@
 package com.samma.rcp.app.ws;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.SimStatusDto;
+import com.samma.rcp.app.dto.SimulationJobDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * /ws/robot STOMP uç noktası. Kanal thread havuzları ve gönderim sınırları ros.stomp'tan gelir; telemetri
+ * hedefleri clientOutboundChannel'da abone başına birleştirilir ({@link ConflatingOutboundInterceptor}).
+ */
 @Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
 public class RobotSocketHandler implements WebSocketMessageBrokerConfigurer {
 
+    private final RosDockerProps props;
+    private final ConflatingOutboundInterceptor conflation;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        RosDockerProps.Stomp cfg = props.getStomp();
+        registration.setSendTimeLimit(cfg.getSendTimeLimit())
+                .setSendBufferSizeLimit(cfg.getSendBufferSizeLimit())
+                .setMessageSizeLimit(cfg.getMessageSizeLimit());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        int threads = props.getStomp().getInboundThreads();
+        registration.taskExecutor().corePoolSize(threads).maxPoolSize(threads);
+    }
+
+    /** Kuyruk sınırsız kalır: birleştirilen hedeflerde abone başına en fazla bir teslim görevi bekler. */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        int threads = props.getStomp().getOutboundThreads();
+        registration.taskExecutor().corePoolSize(threads).maxPoolSize(threads);
+        registration.interceptors(conflation);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws/robot").setAllowedOriginPatterns("*").withSockJS();
     }
 
+    /**
+     * Yayın süresi (dönüştürme + broker'ın abonelere dağıtması) stomp.broadcast (kind=status|job|telemetry|health)
+     * ile ölçülür; zamanlayıcılar baştan kaydedilir.
+     */
     @Controller
-    @RequiredArgsConstructor
     public static class WebSocketController {
         private final SimpMessagingTemplate mq;
         private final ObjectMapper om;
+        private final Timer statusTimer;
+        private final Timer jobTimer;
+        private final Timer telemetryTimer;
+        private final Timer healthTimer;
+
+        public WebSocketController(SimpMessagingTemplate mq, ObjectMapper om, MeterRegistry meters) {
+            this.mq = mq;
+            this.om = om;
+            this.statusTimer = broadcastTimer(meters, "status");
+            this.jobTimer = broadcastTimer(meters, "job");
+            this.telemetryTimer = broadcastTimer(meters, "telemetry");
+            this.healthTimer = broadcastTimer(meters, "health");
+        }
 
-        public void broadcastStatus(Object status) { mq.convertAndSend("/topic/status", status); }
-        public void broadcastTelemetry(Map<String, Object> telemetry) { mq.convertAndSend("/topic/telemetry", telemetry); }
+        /** Oturum durumu /topic/status hedefine; iş aşamaları ayrı hedefte. */
+        public void broadcastStatus(SimStatusDto status) { send(statusTimer, "/topic/status", status); }
+        /** Başlatma/durdurma işinin aşama değişikliği /topic/jobs hedefine. */
+        public void broadcastJob(SimulationJobDTO job) { send(jobTimer, "/topic/jobs", job); }
+        public void broadcastTelemetry(Map<String, Object> telemetry) { send(telemetryTimer, "/topic/telemetry", telemetry); }
+        /** Oturumun ROS topic mesajını /topic/sessions/&lt;id&gt;/telemetry/&lt;topic&gt; hedefine yollar (örn. 3, /odom -> /topic/sessions/3/telemetry/odom). */
+        public void broadcastTelemetry(long sessionId, String rosTopic, Object msg) { send(telemetryTimer, SessionTopics.of(sessionId, "/telemetry" + rosTopic), msg); }
+        /** Oturumun sağlık değişikliğini /topic/sessions/&lt;id&gt;/health hedefine yollar. */
+        public void broadcastHealth(long sessionId, Object health) { send(healthTimer, SessionTopics.of(sessionId, "/health"), health); }
+
+        private void send(Timer timer, String destination, Object payload) {
+            long start = System.nanoTime();
+            try {
+                mq.convertAndSend(destination, payload);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private static Timer broadcastTimer(MeterRegistry meters, String kind) {
+            return Timer.builder("stomp.broadcast").description("STOMP yayını").tag("kind", kind).register(meters);
+        }
 
         @MessageMapping("/command")
         @SendTo("/topic/response")
@@ -0,0 +1,35 @@
+package com.samma.rcp.app.ws;
+
+/**
+ * Oturum başına STOMP hedefleri: /topic/sessions/&lt;id&gt;&lt;suffix&gt;
+ * (örn. /topic/sessions/3/telemetry/odom, /topic/sessions/3/map/delta).
+ */
+public final class SessionTopics {
+
+    public static final String PREFIX = "/topic/sessions/";
+
+    private SessionTopics() {}
+
+    public static String of(long sessionId, String suffix) {
+        return PREFIX + sessionId + suffix;
+    }
+
+    /** Hedef bu oturumun altındaysa suffix kısmı (örn. "/scan/180"), değilse null. */
+    public static String suffixOf(String dest, long sessionId) {
+        String base = PREFIX + sessionId;
+        if (dest == null || !dest.startsWith(base)) return null;
+        String rest = dest.substring(base.length());
+        return rest.isEmpty() || rest.charAt(0) == '/' ? rest : null;
+    }
+
+    /** /topic/sessions/&lt;id&gt;/... hedefindeki oturum id'si; eşleşmezse null. */
+    public static Long sessionOf(String dest) {
+        if (dest == null || !dest.startsWith(PREFIX)) return null;
+        int end = dest.indexOf('/', PREFIX.length());
+        try {
+            return Long.parseLong(end < 0 ? dest.substring(PREFIX.length()) : dest.substring(PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
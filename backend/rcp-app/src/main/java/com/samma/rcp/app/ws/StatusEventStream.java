@@ -0,0 +1,42 @@
+package com.samma.rcp.app.ws;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** STOMP kullanmayan istemciler için durum değişikliklerini SSE ile iter. */
+@Slf4j
+@Component
+public class StatusEventStream {
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    /** Yeni abone; bağlanır bağlanmaz verilen olayları alır. Zaman aşımı yok, istemci kapatınca düşer. */
+    public SseEmitter subscribe(String event, Object initial) {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        send(emitter, event, initial);
+        return emitter;
+    }
+
+    public void send(String event, Object data) {
+        emitters.forEach(e -> send(e, event, data));
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("sse subscriber dropped: {}", e.getMessage());
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.samma.rcp.app.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.orchestration.RosTopicListener;
+import com.samma.rcp.app.orchestration.SessionLifecycleListener;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ros.telemetry.topics listesindeki topic'lere her oturum için backend adına bir kez abone olur ve gelen
+ * mesajları STOMP /topic/sessions/&lt;id&gt;/telemetry/&lt;topic&gt; hedeflerine dağıtır. Böylece tarayıcı
+ * sayısından bağımsız olarak oturumun rosbridge'ine tek bağlantı düşer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TelemetryFanout implements SessionLifecycleListener {
+
+    private final RosDockerProps props;
+    private final RobotSocketHandler.WebSocketController ws;
+
+    @Override
+    public void sessionOpened(SessionRuntime session) {
+        for (RosDockerProps.TopicSub t : props.getTelemetry().getTopics()) {
+            session.getClient().subscribe(t.getTopic(), t.getType(), t.getThrottleRate(), t.getQueueLength(),
+                    t.getCompression(), throttled(session.getId(), t.getThrottleRate()));
+            log.debug("session {} telemetry fan-out {} ({})", session.getId(), t.getTopic(), t.getType());
+        }
+    }
+
+    /** Abonelikler oturumun istemcisiyle birlikte kapanır. */
+    @Override
+    public void sessionClosed(SessionRuntime session) {
+    }
+
+    /** Abonelik başka bir dinleyici için daha sık akıyor olabilir; istemcilere yine throttleRate ile gider. */
+    private RosTopicListener throttled(long sessionId, int throttleRate) {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(throttleRate);
+        long[] last = {System.nanoTime() - periodNanos};
+        return (topic, msg) -> {
+            long now = System.nanoTime();
+            if (now - last[0] < periodNanos) return;
+            last[0] = now; // bir topic'in dinleyicileri tek inbound thread'den çağrılır
+            forward(sessionId, topic, msg);
+        };
+    }
+
+    private void forward(long sessionId, String topic, JsonNode msg) {
+        ws.broadcastTelemetry(sessionId, topic, msg);
+    }
+}
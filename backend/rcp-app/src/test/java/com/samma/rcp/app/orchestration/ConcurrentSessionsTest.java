@@ -0,0 +1,120 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import com.samma.rcp.app.domain.model.SimulationStatus;
+import com.samma.rcp.app.dto.SimulationStatusDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * İki oturum aynı anda sahte docker CLI (test kaynaklarındaki fake-docker.sh) ile kaldırılır: her biri ayrı
+ * compose projesi, rosbridge/noVNC portu ve ROS_DOMAIN_ID almalı, durdurulunca slotlar geri verilmeli.
+ * rosbridge hazırlığı "started"a çekilir; bağlantı bu testin konusu değil.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
+class ConcurrentSessionsTest {
+
+    private static Path composeDir;
+
+    @Autowired SimulationSessionManager sessions;
+    @Autowired PortAllocator ports;
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry r) throws IOException, URISyntaxException {
+        composeDir = Files.createTempDirectory("fake-compose");
+        Path compose = Files.writeString(composeDir.resolve("docker-compose.yml"), "services: {}\n");
+        System.setProperty("ros.compose.file", compose.toString());
+        Path cli = Path.of(ConcurrentSessionsTest.class.getResource("/fake-docker.sh").toURI());
+        cli.toFile().setExecutable(true);
+        r.add("ros.docker.host", () -> "unix:///nonexistent/docker.sock");
+        r.add("ros.docker.cli", cli::toString);
+        r.add("ros.sessions.max-sessions", () -> 2);
+        int bridgeBase = freePort();
+        int novncBase = freePort();
+        r.add("ros.sessions.bridge-port-base", () -> bridgeBase);
+        r.add("ros.sessions.novnc-port-base", () -> novncBase);
+        r.add("ros.startup.ready.rosbridge", () -> "started");
+        r.add("ros.startup.required.default", () -> "rosbridge");
+        r.add("ros.latency.enabled", () -> false);
+    }
+
+    @AfterAll
+    static void clear() {
+        System.clearProperty("ros.compose.file");
+    }
+
+    @Test
+    void concurrentSessionsGetOwnSlotsAndReleaseThem() throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        Callable<SimulationStatusDTO> start = () -> {
+            go.await();
+            return sessions.start(RobotModel.BURGER, ScenarioType.TELEOP);
+        };
+        ExecutorService exec = Executors.newFixedThreadPool(2);
+        List<Future<SimulationStatusDTO>> started = List.of(exec.submit(start), exec.submit(start));
+        go.countDown();
+        SimulationStatusDTO a = started.get(0).get();
+        SimulationStatusDTO b = started.get(1).get();
+        exec.shutdown();
+
+        assertThat(a.getStatus()).isEqualTo(SimulationStatus.RUNNING);
+        assertThat(b.getStatus()).isEqualTo(SimulationStatus.RUNNING);
+        assertThat(a.getComposeProject()).isNotEqualTo(b.getComposeProject());
+        assertThat(a.getBridgePort()).isNotEqualTo(b.getBridgePort());
+        assertThat(a.getRosDomainId()).isNotEqualTo(b.getRosDomainId());
+        assertThat(ports.inUse()).isEqualTo(2);
+        // Slot kalmayınca yeni başlatma reddedilir
+        assertThatThrownBy(() -> sessions.start(RobotModel.BURGER, ScenarioType.TELEOP))
+                .isInstanceOf(IllegalStateException.class);
+
+        List<String> log = Files.readAllLines(composeDir.resolve("fake-docker.log"));
+        for (SimulationStatusDTO s : List.of(a, b)) {
+            String env = " bridge=" + s.getBridgePort() + " novnc=";
+            assertThat(log).anyMatch(l -> l.startsWith(s.getComposeProject() + " create" + env));
+            assertThat(log).anyMatch(l -> l.startsWith(s.getComposeProject() + " up -d" + env)
+                    && l.endsWith(" domain=" + s.getRosDomainId()));
+        }
+
+        sessions.stop(a.getSessionId());
+        sessions.stop(b.getSessionId());
+        assertThat(ports.inUse()).isZero();
+        log = Files.readAllLines(composeDir.resolve("fake-docker.log"));
+        assertThat(log).anyMatch(l -> l.startsWith(a.getComposeProject() + " down"));
+        assertThat(log).anyMatch(l -> l.startsWith(b.getComposeProject() + " down"));
+
+        // Bırakılan slot yeniden verilir
+        SimulationStatusDTO c = sessions.start(RobotModel.BURGER, ScenarioType.TELEOP);
+        assertThat(c.getStatus()).isEqualTo(SimulationStatus.RUNNING);
+        assertThat(c.getBridgePort()).isIn(a.getBridgePort(), b.getBridgePort());
+        sessions.stop(c.getSessionId());
+        assertThat(ports.inUse()).isZero();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Geçici dizindeki unix soketinde dinleyen stub daemon'a karşı: istek satırları, yanıtların çözülmesi,
+ * hata yanıtlarının IllegalStateException'a çevrilmesi ve yanıt vermeyen daemon'da sürenin dolması.
+ */
+class DockerEngineClientTest {
+
+    private static final String JSON = "Content-Type: application/json\r\n";
+
+    @TempDir Path dir;
+
+    /** İstek satırı -> ham HTTP yanıtı; eşleşme yoksa yanıt verilmez (takılan daemon). */
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<SocketChannel> open = new CopyOnWriteArrayList<>();
+    private ServerSocketChannel server;
+    private Thread acceptor;
+    private DockerEngineClient client;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        Path sock = dir.resolve("docker.sock");
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(sock));
+        acceptor = new Thread(() -> {
+            while (server.isOpen()) {
+                try {
+                    SocketChannel ch = server.accept();
+                    open.add(ch);
+                    serve(ch);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }, "docker-stub");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        client = new DockerEngineClient(sock, new ObjectMapper(), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void stopStub() throws Exception {
+        server.close();
+        for (SocketChannel ch : open) ch.close();
+        acceptor.join(1000);
+    }
+
+    @Test
+    void startStopAndRemoveSendExpectedRequestLines() {
+        responses.put("POST /containers/abc/start", status(204, "No Content"));
+        responses.put("POST /containers/abc/stop?t=7", status(304, "Not Modified"));
+        responses.put("DELETE /containers/abc?force=1", status(404, "Not Found"));
+
+        client.start("abc");
+        client.stop("abc", 7);
+        client.remove("abc");
+
+        assertThat(requests).containsExactly(
+                "POST /containers/abc/start HTTP/1.1",
+                "POST /containers/abc/stop?t=7 HTTP/1.1",
+                "DELETE /containers/abc?force=1 HTTP/1.1");
+    }
+
+    @Test
+    void inspectReadsRunningAndHealth() {
+        responses.put("GET /containers/abc/json", ok("{\"State\":{\"Running\":true,\"Health\":{\"Status\":\"healthy\"}}}"));
+        responses.put("GET /containers/def/json", chunked("{\"State\":{\"Running\":false}}"));
+
+        assertThat(client.inspect("abc")).isEqualTo(new DockerEngineClient.ContainerState(true, "healthy"));
+        assertThat(client.inspect("def")).isEqualTo(new DockerEngineClient.ContainerState(false, null));
+        assertThat(requests).containsExactly("GET /containers/abc/json HTTP/1.1", "GET /containers/def/json HTTP/1.1");
+    }
+
+    @Test
+    void containersFilterByProjectLabelAndParseDependsOn() {
+        String filter = "/containers/json?all=1&filters=%7B%22label%22%3A%5B%22com.docker.compose.project%3Dtb3-1%22%5D%7D";
+        responses.put("GET " + filter, ok("[{\"Id\":\"c1\",\"State\":\"created\",\"Labels\":{"
+                + "\"com.docker.compose.service\":\"tb3-sim\","
+                + "\"com.docker.compose.depends_on\":\"rosbridge:service_healthy:false,rviz\"}}]"));
+
+        List<DockerEngineClient.Container> list = client.containers("tb3-1");
+
+        assertThat(requests).containsExactly("GET " + filter + " HTTP/1.1");
+        assertThat(list).containsExactly(new DockerEngineClient.Container("c1", "tb3-sim", "created",
+                Map.of("rosbridge", "service_healthy", "rviz", "service_started")));
+    }
+
+    @Test
+    void errorStatusMapsToIllegalStateWithDaemonMessage() {
+        responses.put("POST /containers/gone/start", error(404, "Not Found", "{\"message\":\"No such container: gone\"}"));
+        responses.put("GET /containers/bad/json", error(500, "Internal Server Error", "daemon exploded"));
+
+        assertThatThrownBy(() -> client.start("gone"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Docker Engine API 404: No such container: gone");
+        assertThatThrownBy(() -> client.inspect("bad"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Docker Engine API 500: daemon exploded");
+    }
+
+    @Test
+    void missingSocketFails() throws IOException {
+        server.close();
+        DockerEngineClient gone = new DockerEngineClient(dir.resolve("none.sock"), new ObjectMapper(), Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> gone.start("abc"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Docker Engine API POST /containers/abc/start failed");
+    }
+
+    @Test
+    void hungDaemonTimesOut() {
+        DockerEngineClient impatient = new DockerEngineClient(dir.resolve("docker.sock"), new ObjectMapper(),
+                Duration.ofMillis(300));
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> impatient.inspect("slow"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no response within 300 ms");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(requests).containsExactly("GET /containers/slow/json HTTP/1.1");
+    }
+
+    // ---- stub ----
+
+    /** Başlığı (ve varsa gövdeyi) okur, istek satırını kaydeder, kayıtlı yanıtı yazıp bağlantıyı kapatır. */
+    private void serve(SocketChannel ch) throws IOException {
+        ByteArrayOutputStream in = new ByteArrayOutputStream();
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        String head;
+        while (true) {
+            if (ch.read(buf) < 0) return;
+            in.write(buf.array(), 0, buf.position());
+            buf.clear();
+            head = in.toString(StandardCharsets.US_ASCII);
+            if (head.contains("\r\n\r\n")) break;
+        }
+        String requestLine = head.substring(0, head.indexOf("\r\n"));
+        requests.add(requestLine);
+        String response = responses.get(requestLine.substring(0, requestLine.lastIndexOf(' ')));
+        if (response == null) return; // yanıt yok, bağlantı açık kalır
+        ByteBuffer out = ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8));
+        while (out.hasRemaining()) ch.write(out);
+        ch.close();
+    }
+
+    private static String status(int code, String reason) {
+        return "HTTP/1.1 " + code + " " + reason + "\r\nContent-Length: 0\r\n\r\n";
+    }
+
+    private static String ok(String json) {
+        return "HTTP/1.1 200 OK\r\n" + JSON + "Content-Length: " + json.length() + "\r\n\r\n" + json;
+    }
+
+    private static String chunked(String json) {
+        int half = json.length() / 2;
+        return "HTTP/1.1 200 OK\r\n" + JSON + "Transfer-Encoding: chunked\r\n\r\n"
+                + Integer.toHexString(half) + "\r\n" + json.substring(0, half) + "\r\n"
+                + Integer.toHexString(json.length() - half) + "\r\n" + json.substring(half) + "\r\n0\r\n\r\n";
+    }
+
+    private static String error(int code, String reason, String body) {
+        return "HTTP/1.1 " + code + " " + reason + "\r\nContent-Length: " + body.length() + "\r\n\r\n" + body;
+    }
+}
@@ -0,0 +1,119 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Şerit önceliği, bekleyen bağlantının diğerlerini tıkamaması, protokol işlemlerinin düşmemesi ve uyandırma. */
+class OutboundSchedulerTest {
+
+    /** Yazılabilirliği testten değiştirilen bağlantı. */
+    private static final class Gate implements OutboundScheduler.Target {
+        volatile boolean open;
+
+        Gate(boolean open) {
+            this.open = open;
+        }
+
+        @Override
+        public boolean writable() {
+            return open;
+        }
+    }
+
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private OutboundScheduler scheduler;
+
+    @BeforeEach
+    void start() {
+        RosDockerProps.Outbound cfg = new RosDockerProps.Outbound();
+        cfg.setBulk(new RosDockerProps.Lane(2, OverflowPolicy.DROP_OLDEST));
+        cfg.setGoal(new RosDockerProps.Lane(1, OverflowPolicy.REJECT));
+        scheduler = new OutboundScheduler("test", cfg, meters);
+        scheduler.start();
+    }
+
+    @AfterEach
+    void stop() {
+        scheduler.stop();
+    }
+
+    @Test
+    void blockedLinkDoesNotStallOtherLinks() throws Exception {
+        Gate down = new Gate(false);
+        Gate up = new Gate(true);
+        scheduler.submit(SendLane.SAFETY, null, down, write("advertise a"));
+        scheduler.submit(SendLane.CONTROL, "pub:a", down, write("publish a"));
+        scheduler.submit(SendLane.CONTROL, "pub:b", up, write("publish b"));
+        scheduler.submit(SendLane.BULK, null, up, write("subscribe b"));
+
+        awaitWritten(2);
+        assertThat(written).containsExactly("publish b", "subscribe b");
+
+        down.open = true;
+        scheduler.wake();
+        awaitWritten(4);
+        assertThat(written).containsExactly("publish b", "subscribe b", "advertise a", "publish a");
+    }
+
+    @Test
+    void overflowEvictsOldestMessageButKeepsProtocolOps() throws Exception {
+        Gate link = new Gate(false);
+        scheduler.submit(SendLane.BULK, null, link, write("subscribe"));
+        scheduler.submit(SendLane.BULK, "pub:1", link, write("m1"));
+        scheduler.submit(SendLane.BULK, "pub:2", link, write("m2"));
+        scheduler.submit(SendLane.BULK, null, link, write("unsubscribe"));
+        scheduler.submit(SendLane.BULK, "pub:3", link, write("m3"));
+
+        link.open = true;
+        scheduler.wake();
+        awaitWritten(4);
+        assertThat(written).containsExactly("subscribe", "m2", "unsubscribe", "m3");
+        assertThat(meters.get("ros.bridge.outbound.dropped").tags("lane", "bulk", "reason", "overflow")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectCountsOnlyMessages() {
+        Gate link = new Gate(false);
+        scheduler.submit(SendLane.GOAL, null, link, write("advertise"));
+        scheduler.submit(SendLane.GOAL, "pub:/goal_pose", link, write("goal"));
+
+        assertThatThrownBy(() -> scheduler.submit(SendLane.GOAL, "pub:/other", link, write("other")))
+                .isInstanceOf(SendRejectedException.class);
+        scheduler.submit(SendLane.GOAL, null, link, write("unadvertise")); // protokol işlemi reddedilmez
+    }
+
+    @Test
+    void higherLaneSupersedesQueuedMessage() throws Exception {
+        Gate link = new Gate(false);
+        scheduler.submit(SendLane.CONTROL, "pub:/cmd_vel", link, write("move"));
+        scheduler.submit(SendLane.SAFETY, "pub:/cmd_vel", link, write("stop"));
+
+        link.open = true;
+        scheduler.wake();
+        awaitWritten(1);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThat(written).containsExactly("stop");
+    }
+
+    private Runnable write(String what) {
+        return () -> written.add(what);
+    }
+
+    private void awaitWritten(int n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (written.size() < n && System.nanoTime() < deadline) TimeUnit.MILLISECONDS.sleep(5);
+        assertThat(written).hasSize(n);
+    }
+}
@@ -0,0 +1,159 @@
+package com.samma.rcp.app.orchestration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.GoalPoseDTO;
+import com.samma.rcp.app.dto.TwistDTO;
+import com.samma.rcp.app.support.FakeRosbridge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Sahte rosbridge öldürülüp aynı portta yeniden açılır: advertise ve abonelikler yeni bağlantıda yeniden
+ * gönderilmeli, kopukken şerit politikaları uygulanmalı (hız komutu birleşir, hedef kuyruğu dolunca ret) ve
+ * bağlantı açılınca trafik kaldığı yerden sürmeli.
+ */
+class RosBridgeClientReconnectTest {
+
+    private static final long WAIT_MS = 5000;
+
+    private final List<FakeRosbridge> bridges = new CopyOnWriteArrayList<>();
+    private int port;
+    private RosBridgeClient client;
+
+    @BeforeEach
+    void connect() throws Exception {
+        RosDockerProps props = new RosDockerProps();
+        RosDockerProps.Bridge cfg = props.getBridge();
+        cfg.setConnections(2);
+        cfg.setControlTopics(List.of("/cmd_vel", "/goal_pose"));
+        cfg.setReconnectInterval(50);
+        cfg.setReconnectMaxInterval(200);
+        cfg.getOutbound().setGoal(new RosDockerProps.Lane(2, OverflowPolicy.REJECT));
+        port = freePort();
+        start();
+        client = new RosBridgeClient(new ObjectMapper(), props, new SimpleMeterRegistry(), "reconnect-test");
+        client.init();
+        client.connect("ws://127.0.0.1:" + port);
+        await("ilk bağlantı", client::isConnected);
+    }
+
+    @AfterEach
+    void close() throws InterruptedException {
+        client.disconnect();
+        client.shutdown();
+        for (FakeRosbridge b : bridges) b.stop(1000);
+    }
+
+    @Test
+    void replaysStateKeepsLanePoliciesDuringOutageAndResumes() throws Exception {
+        AtomicInteger odom = new AtomicInteger();
+        client.subscribe("/odom", "nav_msgs/msg/Odometry", 0, 1, (t, m) -> odom.incrementAndGet());
+        client.publishTwist(twist(0.1));
+        FakeRosbridge first = bridges.get(0);
+        await("ilk /cmd_vel", () -> first.received("/cmd_vel") == 1);
+        await("ilk /odom", () -> odom.get() > 0);
+        assertThat(first.isAdvertised("/cmd_vel")).isTrue();
+
+        first.stop(1000);
+        await("kopma", () -> !client.isConnected());
+
+        // Kopukken: hız komutları topic başına son komuta birleşir, hedef şeridi (kapasite 2) dolunca reddeder
+        for (int i = 1; i <= 50; i++) client.publishTwist(twist(i));
+        client.sendGoal(goal(1));
+        client.sendGoal(goal(2));
+        assertThatThrownBy(() -> client.sendGoal(goal(3))).isInstanceOf(SendRejectedException.class);
+        client.subscribe("/scan", "sensor_msgs/msg/LaserScan", 0, 1, (t, m) -> { });
+
+        List<String> outOfOrder = new CopyOnWriteArrayList<>();
+        List<Double> twists = new CopyOnWriteArrayList<>();
+        FakeRosbridge second = new FakeRosbridge(port, 50);
+        second.onPublish((topic, msg) -> {
+            if (!second.isAdvertised(topic)) outOfOrder.add(topic);
+            if ("/cmd_vel".equals(topic)) twists.add(msg.path("linear").path("x").asDouble());
+        });
+        bridges.add(second);
+        second.start();
+
+        await("yeniden bağlantı", client::isConnected);
+        await("advertise replay", () -> second.isAdvertised("/cmd_vel") && second.isAdvertised("/goal_pose"));
+        await("abonelik replay", () -> second.subscribers("/odom") == 1 && second.subscribers("/scan") == 1);
+        await("bekleyen hız komutu", () -> twists.size() == 1);
+        await("bekleyen hedefler", () -> second.received("/goal_pose") == 2);
+        assertThat(twists).containsExactly(50.0);
+        assertThat(outOfOrder).isEmpty();
+
+        int before = odom.get();
+        await("/odom yeniden akıyor", () -> odom.get() > before);
+        long advertises = second.ops("advertise");
+        client.publishTwist(twist(0.3));
+        await("yeni hız komutu", () -> twists.size() == 2);
+        assertThat(twists.get(1)).isEqualTo(0.3);
+        assertThat(second.ops("advertise")).isEqualTo(advertises); // advertise yayında tekrarlanmaz
+    }
+
+    @Test
+    void subscriptionsMadeWhileReconnectingAreNotLost() throws Exception {
+        bridges.get(0).stop(1000);
+        await("kopma", () -> !client.isConnected());
+
+        FakeRosbridge second = new FakeRosbridge(port, 1);
+        bridges.add(second);
+        List<String> topics = IntStream.range(0, 300).mapToObj(i -> "/t" + i).toList();
+        Thread subscriber = new Thread(() -> {
+            for (String t : topics) {
+                client.subscribe(t, "std_msgs/msg/String", 0, 1, (topic, m) -> { });
+            }
+        });
+        second.start(); // açılış, abonelikler sürerken olur
+        subscriber.start();
+        subscriber.join();
+
+        await("yeniden bağlantı", client::isConnected);
+        await("tüm abonelikler", () -> topics.stream().allMatch(t -> second.subscribers(t) == 1));
+    }
+
+    private void start() throws InterruptedException {
+        FakeRosbridge b = new FakeRosbridge(port, 50);
+        bridges.add(b);
+        b.start();
+        if (!b.awaitStarted(WAIT_MS)) fail("sahte rosbridge başlamadı");
+    }
+
+    private static TwistDTO twist(double linear) {
+        return TwistDTO.builder().linear(linear).angular(0.0).build();
+    }
+
+    private static GoalPoseDTO goal(double x) {
+        return GoalPoseDTO.builder().x(x).y(0.0).theta(0.0).build();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
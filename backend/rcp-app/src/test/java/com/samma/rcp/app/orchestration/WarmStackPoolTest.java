@@ -0,0 +1,115 @@
+package com.samma.rcp.app.orchestration;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.model.RobotModel;
+import com.samma.rcp.app.domain.model.ScenarioType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Container'ı ölmüş hazır stack verilmez: alırken ve doldurma turunda yoklanıp indirilir; alma süresi ölçülür.
+ * Doldurma claim'le eşzamanlı sürebildiğinden hangi stack'in alınacağı değil, ölünün alınmadığı denetlenir.
+ */
+class WarmStackPoolTest {
+
+    private static final long WAIT_MS = 5000;
+    private static final RobotModel MODEL = RobotModel.BURGER;
+    private static final ScenarioType SCENARIO = ScenarioType.TELEOP;
+
+    private final SimulationOrchestrator orchestrator = mock(SimulationOrchestrator.class);
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    /** tb3-pool-N projelerinden N'si eşleşenler için isRunning false */
+    private volatile IntPredicate dead = n -> false;
+    private PortAllocator ports;
+    private WarmStackPool pool;
+
+    @BeforeEach
+    void open() throws InterruptedException {
+        RosDockerProps props = new RosDockerProps();
+        props.getSessions().setMaxSessions(4);
+        props.getSessions().setBridgePortBase(47090); // yerelde dinlenen portlarla çakışmasın
+        props.getSessions().setNovncPortBase(47080);
+        RosDockerProps.PoolTarget target = new RosDockerProps.PoolTarget();
+        target.setModel(MODEL);
+        target.setScenario(SCENARIO);
+        target.setSize(2);
+        props.getPool().setEnabled(true);
+        props.getPool().getTargets().add(target);
+        props.getPool().setRefillInterval(60000);
+        when(orchestrator.isRunning(anyString(), any())).thenAnswer(inv -> !dead.test(number(inv.getArgument(0))));
+        ports = new PortAllocator(props);
+        pool = new WarmStackPool(orchestrator, ports, props, meters);
+        pool.start();
+        await("iki hazır stack", () -> readyGauge() == 2);
+    }
+
+    @AfterEach
+    void close() {
+        pool.shutdown();
+    }
+
+    @Test
+    void deadStackIsDiscardedOnClaimAndNextOneIsUsed() throws InterruptedException {
+        dead = n -> n == 2;
+
+        Optional<WarmStackPool.WarmStack> s = pool.claim(MODEL, SCENARIO);
+
+        assertThat(s).map(WarmStackPool.WarmStack::project).hasValueSatisfying(p -> assertThat(p).isNotEqualTo("tb3-pool-2"));
+        verify(orchestrator).stop(eq("tb3-pool-2"), any()); // en taze: önce o denendi
+        assertThat(deadCount()).isEqualTo(1);
+        assertThat(meters.find("sim.pool.claim").tag("result", "hit").timer().count()).isEqualTo(1);
+        await("havuz yeniden dolu", () -> readyGauge() == 2);
+        assertThat(ports.inUse()).isEqualTo(3); // alınan + iki hazır; ölünün slotu geri verildi
+    }
+
+    @Test
+    void refillRoundReapsDeadStacks() throws InterruptedException {
+        assertThat(pool.claim(MODEL, SCENARIO)).isPresent();
+        await("havuz yeniden dolu", () -> readyGauge() == 2 && ports.inUse() == 3);
+
+        dead = n -> true; // havuzdakiler öldü
+        pool.claim(RobotModel.WAFFLE, SCENARIO); // başka anahtar: yalnızca doldurma turunu tetikler
+        await("ölüler doldurma turunda indirildi", () -> deadCount() == 2);
+        assertThat(meters.find("sim.pool.claim").tag("model", MODEL.name()).timer().count()).isEqualTo(1);
+
+        dead = n -> false;
+        await("havuz yeniden dolu", () -> readyGauge() == 2);
+        assertThat(ports.inUse()).isEqualTo(3);
+    }
+
+    private double readyGauge() {
+        return meters.get("sim.pool.ready").gauge().value();
+    }
+
+    private double deadCount() {
+        return meters.counter("sim.pool.dead", "model", MODEL.name(), "scenario", SCENARIO.name()).count();
+    }
+
+    private static int number(String project) {
+        return Integer.parseInt(project.substring(project.lastIndexOf('-') + 1));
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.samma.rcp.app.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Yazılan frame'lerin segment geçişleri ve segmentten büyük frame dahil aynen geri okunması, seek'in seyrek indeksle
+ * doğru noktaya konumlanması ve reserve izin vermeyince yazımın durması.
+ */
+class RecordingWriterReaderTest {
+
+    private static final int SEGMENT = 1024;
+    private static final long STEP = 1000;      // ns, frame aralığı
+    private static final long INDEX = 10 * STEP; // her 10 frame'de bir indeks
+
+    @TempDir Path dir;
+
+    @Test
+    void appendRollSeekAndNextRoundTrip() throws IOException {
+        List<Integer> reservations = new ArrayList<>();
+        try (RecordingWriter w = new RecordingWriter(dir, SEGMENT, INDEX, bytes -> reservations.add((int) bytes))) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(w.append(i * STEP, flags(i), payload(i))).isTrue();
+            }
+            assertThat(w.getFrames()).isEqualTo(100);
+            assertThat(w.getSegments()).isEqualTo(reservations.size()).isGreaterThan(3);
+        }
+        assertThat(reservations).allMatch(r -> r == SEGMENT || r == RecordingWriter.HEADER + payload(50).remaining());
+        assertThat(reservations).contains(RecordingWriter.HEADER + payload(50).remaining()); // segmentten büyük frame
+
+        RecordingReader reader = new RecordingReader(dir);
+        RecordingReader.Frame f = new RecordingReader.Frame();
+        for (int i = 0; i < 100; i++) {
+            assertThat(reader.next(f)).as("frame %d", i).isTrue();
+            assertFrame(f, i);
+        }
+        assertThat(reader.next(f)).isFalse();
+
+        // 55. frame'in zamanı: önceki son indeks noktası 50. frame; oradan segment geçişleri boyunca sırayla devam
+        reader.seek(55 * STEP + 1);
+        for (int i = 50; i < 100; i++) {
+            assertThat(reader.next(f)).as("frame %d", i).isTrue();
+            assertFrame(f, i);
+        }
+        assertThat(reader.next(f)).isFalse();
+
+        reader.seek(-1); // ilk indeksten önce: baştan
+        assertThat(reader.next(f)).isTrue();
+        assertFrame(f, 0);
+    }
+
+    @Test
+    void deniedReservationWritesNothingFurther() throws IOException {
+        int[] granted = {0};
+        int written = 0;
+        try (RecordingWriter w = new RecordingWriter(dir, SEGMENT, INDEX, bytes -> granted[0]++ < 2)) {
+            for (int i = 0; i < 30 && w.append(i * STEP, (byte) 0, small(i)); i++) written++;
+            assertThat(w.getSegments()).isEqualTo(2);
+            assertThat(w.getFrames()).isEqualTo(written);
+            assertThat(written).isGreaterThan(0).isLessThan(30);
+        }
+        RecordingReader reader = new RecordingReader(dir);
+        RecordingReader.Frame f = new RecordingReader.Frame();
+        int read = 0;
+        while (reader.next(f)) assertThat(f.tNanos()).isEqualTo(read++ * STEP);
+        assertThat(read).isEqualTo(written);
+    }
+
+    @Test
+    void emptyRecordingHasNoSegments() throws IOException {
+        try (RecordingWriter w = new RecordingWriter(dir, SEGMENT, INDEX, bytes -> true)) {
+            assertThat(w.getSegments()).isZero();
+        }
+        assertThat(new RecordingReader(dir).next(new RecordingReader.Frame())).isFalse();
+    }
+
+    private static void assertFrame(RecordingReader.Frame f, int i) {
+        assertThat(f.tNanos()).isEqualTo(i * STEP);
+        assertThat(f.outbound()).isEqualTo((flags(i) & RecordingWriter.OUTBOUND) != 0);
+        assertThat(f.binary()).isEqualTo((flags(i) & RecordingWriter.BINARY) != 0);
+        assertThat(f.payload()).isEqualTo(payload(i));
+    }
+
+    private static byte flags(int i) {
+        return (byte) (i % 3 == 0 ? RecordingWriter.BINARY : i % 2 == 0 ? RecordingWriter.OUTBOUND : 0);
+    }
+
+    /** Çoğu ~300 B; 50. frame segmentten büyük. */
+    private static ByteBuffer payload(int i) {
+        return ByteBuffer.wrap(("frame-" + i + "-").repeat(i == 50 ? 400 : 30).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer small(int i) {
+        return ByteBuffer.wrap(("frame-" + i).repeat(20).getBytes(StandardCharsets.UTF_8));
+    }
+}
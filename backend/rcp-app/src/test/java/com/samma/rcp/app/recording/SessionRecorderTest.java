@@ -0,0 +1,101 @@
+package com.samma.rcp.app.recording;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.RecordingDTO;
+import com.samma.rcp.app.orchestration.FrameTap;
+import com.samma.rcp.app.orchestration.PortAllocator;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/** max-total-mb tüm oturumların kayıtları için ortak sınırdır; kapanmış kayıtlar yer açmak için silinir. */
+class SessionRecorderTest {
+
+    private static final int FRAME = 64 * 1024;
+
+    @TempDir Path dir;
+
+    private final RosDockerProps props = new RosDockerProps();
+    private SessionRecorder recorder;
+
+    @BeforeEach
+    void config() {
+        RosDockerProps.Recording cfg = props.getRecording();
+        cfg.setEnabled(true);
+        cfg.setDir(dir.toString());
+        cfg.setSegmentMb(1);
+        cfg.setMaxTotalMb(3);
+        recorder = new SessionRecorder(props, new ObjectMapper().registerModule(new JavaTimeModule()));
+        recorder.init();
+    }
+
+    @Test
+    void concurrentSessionsShareTheTotalCap() throws IOException {
+        SessionRuntime a = session(1), b = session(2);
+        FrameTap tapA = start(a), tapB = start(b);
+        for (int i = 0; i < 40; i++) { // oturum başına 2.5 MB: tek başına sığar, ikisi birlikte sığmaz
+            tapA.binary(ByteBuffer.allocate(FRAME));
+            tapB.binary(ByteBuffer.allocate(FRAME));
+        }
+        recorder.stop(a);
+        recorder.stop(b);
+
+        assertThat(segmentBytes()).isLessThanOrEqualTo(3 << 20);
+        assertThat(recorder.list()).hasSize(2).allMatch(r -> !r.isActive())
+                .extracting(RecordingDTO::getDropped).anyMatch(d -> d > 0);
+        assertThat(recorder.list()).extracting(RecordingDTO::getFrames).allMatch(n -> n > 0);
+
+        // Yeni kayıt, en eski kapanmış kaydı silerek yer açar
+        SessionRuntime c = session(3);
+        FrameTap tapC = start(c);
+        tapC.binary(ByteBuffer.allocate(FRAME));
+        recorder.stop(c);
+        assertThat(recorder.list()).filteredOn(r -> r.getSessionId() == 3).singleElement()
+                .satisfies(r -> assertThat(r.getFrames()).isEqualTo(1));
+        assertThat(segmentBytes()).isLessThanOrEqualTo(3 << 20);
+    }
+
+    @Test
+    void segmentNotSmallerThanTotalIsRejectedAtStartup() {
+        props.getRecording().setSegmentMb(3);
+        SessionRecorder bad = new SessionRecorder(props, new ObjectMapper());
+        assertThatThrownBy(bad::init).isInstanceOf(IllegalStateException.class).hasMessageContaining("segment-mb");
+    }
+
+    private FrameTap start(SessionRuntime session) {
+        assertThat(recorder.start(session)).isPresent();
+        ArgumentCaptor<FrameTap> tap = ArgumentCaptor.forClass(FrameTap.class);
+        verify(session.getClient(), atLeastOnce()).setTap(tap.capture());
+        return tap.getValue();
+    }
+
+    /** Sınır segmentlerin ayrılmasıyla uygulanır; index.bin ve recording.json birkaç KB'dir. */
+    private long segmentBytes() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            long sum = 0;
+            for (Path f : files.filter(f -> f.toString().endsWith(".rlog")).toList()) sum += Files.size(f);
+            return sum;
+        }
+    }
+
+    private static SessionRuntime session(long id) {
+        return new SessionRuntime(id, "tb3-test", new PortAllocator.Slot(0, 9090, 0, 0), "127.0.0.1", mock(RosBridgeClient.class));
+    }
+}
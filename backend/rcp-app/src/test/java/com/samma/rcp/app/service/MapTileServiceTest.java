@@ -0,0 +1,170 @@
+package com.samma.rcp.app.service;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.domain.entity.SavedMap;
+import com.samma.rcp.app.domain.repo.SavedMapRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Geçici dizindeki PGM'den piramit: aynı karonun eşzamanlı isteklerde tek üretimi, üst seviyenin önbellekteki alt
+ * karolardan kurulması ve dosya değişince / harita silinince eski önbelleklerin atılması.
+ */
+class MapTileServiceTest {
+
+    private static final byte FREE = (byte) 254;
+
+    @TempDir Path dir;
+
+    private final SavedMapRepository repo = mock(SavedMapRepository.class);
+    private final RosDockerProps props = new RosDockerProps();
+    private Path pgm;
+    private Path cache;
+
+    @BeforeEach
+    void map() throws IOException {
+        pgm = dir.resolve("map.pgm");
+        writePgm(1000, 600, 999, 599); // maxZoom 2: 4x3 yaprak karo
+        cache = dir.resolve("tiles");
+        props.getTiles().setCacheDir(cache.toString());
+        props.getTiles().setRecheckInterval(60000);
+        SavedMap m = SavedMap.builder().id(1L).name("map").pgmFilePath(pgm.toString()).resolution(0.05).build();
+        when(repo.findById(1L)).thenReturn(Optional.of(m));
+    }
+
+    @Test
+    void concurrentRequestsShareOneBuildAndKeepObstacles() throws Exception {
+        MapTileService tiles = service();
+        CountDownLatch go = new CountDownLatch(1);
+        Callable<MapTileService.Tile> get = () -> {
+            go.await();
+            return tiles.tile(1, 0, 0, 0).orElseThrow();
+        };
+        ExecutorService exec = Executors.newFixedThreadPool(8);
+        List<Future<MapTileService.Tile>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) results.add(exec.submit(get));
+        go.countDown();
+        MapTileService.Tile first = results.get(0).get();
+        for (Future<MapTileService.Tile> f : results) assertThat(f.get()).isSameAs(first);
+        exec.shutdown();
+
+        byte[] gray = gray(first.png());
+        assertThat(gray[149 * 256 + 249]).isEqualTo((byte) 0); // (999,599) engeli 4x küçültmede kaybolmaz
+        assertThat(gray[0]).isEqualTo(FREE);
+        assertThat(tiles.tile(1, 0, 1, 0)).isEmpty();
+        assertThat(tiles.tile(1, 3, 0, 0)).isEmpty();
+    }
+
+    @Test
+    void parentIsBuiltFromCachedChildTilesNotThePgm() throws Exception {
+        props.getTiles().setMemoryCacheMb(0);
+        props.getTiles().setRawCacheTiles(1);
+        MapTileService tiles = service();
+        for (int y = 0; y < 3; y++) for (int x = 0; x < 4; x++) tiles.tile(1, 2, x, y).orElseThrow();
+
+        // Disktaki yaprak karo değişirse üst seviye onu yansıtır: PGM yeniden okunmaz
+        Path leaf = fingerprints().get(0).resolve("2/0/0.png");
+        Files.write(leaf, png((byte) 0));
+        byte[] gray = gray(tiles.tile(1, 0, 0, 0).orElseThrow().png());
+        assertThat(gray[0]).isEqualTo((byte) 0);
+        assertThat(gray[63 * 256 + 63]).isEqualTo((byte) 0);
+        assertThat(gray[64 * 256 + 64]).isEqualTo(FREE);
+    }
+
+    @Test
+    void changedFileDropsOldFingerprintAndDeletedMapDropsAll() throws Exception {
+        props.getTiles().setRecheckInterval(0);
+        MapTileService tiles = service();
+        tiles.tile(1, 0, 0, 0).orElseThrow();
+        List<Path> before = fingerprints();
+        assertThat(before).hasSize(1);
+
+        writePgm(1000, 700, 0, 0);
+        tiles.tile(1, 0, 0, 0).orElseThrow();
+        assertThat(tiles.info(1).orElseThrow().getHeight()).isEqualTo(700);
+        List<Path> after = fingerprints();
+        assertThat(after).hasSize(1).doesNotContainAnyElementsOf(before);
+
+        when(repo.findById(1L)).thenReturn(Optional.empty());
+        assertThat(tiles.tile(1, 0, 0, 0)).isEmpty();
+        assertThat(cache.resolve("1")).doesNotExist();
+    }
+
+    @Test
+    void startupSweepsCachesOfDeletedMaps() throws IOException {
+        Files.createDirectories(cache.resolve("7/abc/0/0"));
+        Files.createDirectories(cache.resolve("1/abc/0/0"));
+        when(repo.existsById(1L)).thenReturn(true);
+
+        service();
+
+        assertThat(cache.resolve("7")).doesNotExist();
+        assertThat(cache.resolve("1")).exists();
+    }
+
+    private MapTileService service() {
+        MapTileService tiles = new MapTileService(repo, props);
+        tiles.init();
+        return tiles;
+    }
+
+    private List<Path> fingerprints() throws IOException {
+        try (var s = Files.list(cache.resolve("1"))) {
+            return s.toList();
+        }
+    }
+
+    /** Serbest (254) harita; (ox, oy) pikseli engel (0). */
+    private void writePgm(int w, int h, int ox, int oy) throws IOException {
+        byte[] header = ("P5\n" + w + " " + h + "\n255\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] px = new byte[w * h];
+        Arrays.fill(px, FREE);
+        px[oy * w + ox] = 0;
+        byte[] all = Arrays.copyOf(header, header.length + px.length);
+        System.arraycopy(px, 0, all, header.length, px.length);
+        Path tmp = dir.resolve("map.pgm.part"); // MapService gibi: eşlenmiş eski dosya yerinde kesilmez
+        Files.write(tmp, all);
+        Files.move(tmp, pgm, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] gray(byte[] png) throws IOException {
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(png));
+        byte[] gray = new byte[MapTileService.TILE * MapTileService.TILE];
+        img.getRaster().getDataElements(0, 0, MapTileService.TILE, MapTileService.TILE, gray);
+        return gray;
+    }
+
+    private static byte[] png(byte value) throws IOException {
+        BufferedImage img = new BufferedImage(MapTileService.TILE, MapTileService.TILE, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] gray = new byte[MapTileService.TILE * MapTileService.TILE];
+        Arrays.fill(gray, value);
+        img.getRaster().setDataElements(0, 0, MapTileService.TILE, MapTileService.TILE, gray);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+package com.samma.rcp.app.service;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.orchestration.PortAllocator;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.orchestration.SimulationOrchestrator;
+import com.samma.rcp.app.ws.RobotSocketHandler;
+import com.samma.rcp.app.ws.StatusEventStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Takılan container yoklaması ya da yavaş SSE istemcisi bağlantı olaylarının işlenmesini ve /api/sim/status'un
+ * güncellenmesini bekletmez; yanıt vermeyen yoklama zaman aşımında çalışmıyor sayılır ve üst üste binmez.
+ */
+class SimulationHealthMonitorTest {
+
+    private static final long WAIT_MS = 2000;
+    private static final long SESSION = 7;
+
+    private final SimulationOrchestrator orchestrator = mock(SimulationOrchestrator.class);
+    private final RobotSocketHandler.WebSocketController ws = mock(RobotSocketHandler.WebSocketController.class);
+    private final StatusEventStream sse = mock(StatusEventStream.class);
+    private final RosBridgeClient client = mock(RosBridgeClient.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    /** Sahteler monitor thread'lerinden çağrılırken yeniden stub'lanmasın diye davranış bu alanlardan okunur. */
+    private volatile Callable<Boolean> running = () -> false;
+    private volatile boolean connected;
+    private volatile boolean slowSse;
+    private SimulationHealthMonitor monitor;
+    private Consumer<Boolean> connection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void open() {
+        RosDockerProps props = new RosDockerProps();
+        props.getSimulation().setHealthCheckInterval(500);
+        props.getSimulation().setHealthProbeTimeout(100);
+        when(orchestrator.isRunning(anyString(), any())).thenAnswer(inv -> running.call());
+        when(client.isConnected()).thenAnswer(inv -> connected);
+        doAnswer(inv -> {
+            if (slowSse) release.await();
+            return null;
+        }).when(sse).send(anyString(), any());
+        monitor = new SimulationHealthMonitor(orchestrator, ws, sse, props);
+        monitor.init();
+        monitor.sessionOpened(new SessionRuntime(SESSION, "tb3-test", new PortAllocator.Slot(0, 9090, 0, 0), "127.0.0.1", client));
+        ArgumentCaptor<Consumer<Boolean>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(client).setConnectionListener(listener.capture());
+        connection = listener.getValue();
+    }
+
+    @AfterEach
+    void close() {
+        release.countDown();
+        monitor.shutdown();
+    }
+
+    @Test
+    void stuckProbeTimesOutAndDoesNotBlockConnectionEvents() throws InterruptedException {
+        CountDownLatch probed = new CountDownLatch(1);
+        running = () -> {
+            probed.countDown();
+            release.await(); // api-timeout'a kadar yanıt vermeyen Engine API
+            return true;
+        };
+        assertThat(probed.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+
+        // Takılı yoklama üst üste binmez: sonraki aralıklarda yeni yoklama başlamaz
+        verify(orchestrator, after(1200).times(1)).isRunning(anyString(), any());
+        assertThat(monitor.status().isRunning()).isFalse();
+
+        connected = true;
+        connection.accept(true);
+        await("bağlantı olayı işlendi", () -> monitor.status().isRunning());
+    }
+
+    @Test
+    void slowSseSubscriberDoesNotDelayStatusUpdates() throws InterruptedException {
+        slowSse = true;
+        connected = true;
+        connection.accept(true);
+        await("bağlandı", () -> monitor.status().isRunning());
+
+        connected = false;
+        connection.accept(false);
+        await("koptu ve yoklandı", () -> !monitor.status().isRunning());
+
+        // SSE açılınca bekleyen olaylar sırayla gider
+        release.countDown();
+        verify(ws, timeout(WAIT_MS).times(3)).broadcastHealth(eq(SESSION), any());
+        verify(sse, timeout(WAIT_MS).times(6)).send(anyString(), any());
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.samma.rcp.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.TwistDTO;
+import com.samma.rcp.app.orchestration.PortAllocator;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.support.FakeRosbridge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Sahte rosbridge'e karşı: bir tur içinde gelen komutlardan yalnızca sonuncusu gönderilir, hareket halindeyken
+ * deadman süresi boyunca komut gelmezse sıfır hız gönderilir.
+ */
+class TeleopCoalescerTest {
+
+    private static final long WAIT_MS = 5000;
+    /** Tur aralığı (2 Hz); bir patlama iki tur arasına rahatça sığar. */
+    private static final long PERIOD_MS = 500;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final List<Double> twists = new CopyOnWriteArrayList<>();
+    private FakeRosbridge bridge;
+    private RosBridgeClient client;
+    private TeleopCoalescer coalescer;
+    private SessionRuntime session;
+
+    @BeforeEach
+    void open() throws Exception {
+        RosDockerProps props = new RosDockerProps();
+        props.getTeleop().setRateHz(2);
+        props.getTeleop().setDeadmanTimeout(300);
+        props.getBridge().setControlTopics(List.of("/cmd_vel"));
+        int port = freePort();
+        bridge = new FakeRosbridge(port, 1);
+        bridge.onPublish((topic, msg) -> {
+            if ("/cmd_vel".equals(topic)) twists.add(msg.path("linear").path("x").asDouble());
+        });
+        bridge.start();
+        if (!bridge.awaitStarted(WAIT_MS)) fail("sahte rosbridge başlamadı");
+        client = new RosBridgeClient(new ObjectMapper(), props, meters, "teleop-test");
+        client.init();
+        client.connect("ws://127.0.0.1:" + port);
+        await("bağlantı", client::isConnected);
+        session = new SessionRuntime(1, "tb3-test", new PortAllocator.Slot(0, port, 0, 0), "127.0.0.1", client);
+        coalescer = new TeleopCoalescer(props, meters);
+        coalescer.start();
+        coalescer.sessionOpened(session);
+    }
+
+    @AfterEach
+    void close() throws InterruptedException {
+        coalescer.sessionClosed(session);
+        coalescer.stop();
+        client.disconnect();
+        client.shutdown();
+        bridge.stop(1000);
+    }
+
+    @Test
+    void offersWithinOneTickPublishOnlyTheLatest() throws Exception {
+        coalescer.offer(session, twist(0.1));
+        await("ilk komut", () -> twists.size() == 1); // bir tur az önce boşaltıldı
+
+        for (int i = 1; i <= 10; i++) coalescer.offer(session, twist(i));
+        await("birleşen komut", () -> twists.size() == 2);
+
+        assertThat(twists.subList(0, 2)).containsExactly(0.1, 10.0);
+        assertThat(meters.counter("teleop.commands", "result", "accepted").count()).isEqualTo(2);
+        assertThat(meters.counter("teleop.commands", "result", "coalesced").count()).isEqualTo(9);
+        assertThatThrownBy(() -> coalescer.offer(session, TwistDTO.builder().linear(1.0).angular(0.0).topic("/other").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void deadmanPublishesZeroOnceAfterTimeout() throws Exception {
+        coalescer.offer(session, twist(0.5));
+        await("komut", () -> twists.size() == 1);
+        long sent = System.nanoTime();
+
+        await("deadman durdurması", () -> twists.size() == 2);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent)).isGreaterThanOrEqualTo(300);
+        assertThat(twists).containsExactly(0.5, 0.0);
+        assertThat(meters.counter("teleop.deadman.stops").count()).isEqualTo(1);
+
+        TimeUnit.MILLISECONDS.sleep(2 * PERIOD_MS); // durunca yeniden gönderilmez
+        assertThat(twists).containsExactly(0.5, 0.0);
+    }
+
+    private static TwistDTO twist(double linear) {
+        return TwistDTO.builder().linear(linear).angular(0.0).build();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
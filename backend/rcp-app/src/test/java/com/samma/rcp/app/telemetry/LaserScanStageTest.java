@@ -0,0 +1,147 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.LaserScanFrameDTO;
+import com.samma.rcp.app.orchestration.PortAllocator;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.support.FakeRosbridge;
+import com.samma.rcp.app.ws.SessionTopics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Sahte rosbridge'in 10 Hz /scan'i (720 ışın) iki bütçeye seyreltilir: her hedef bütçesini aşmayan frame alır,
+ * frame'ler ve ranges dizileri taramalar arasında yeniden kullanılır ama gönderilen JSON her taramanın kendisidir.
+ */
+class LaserScanStageTest {
+
+    private static final long WAIT_MS = 5000;
+    private static final long SESSION = 3;
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    /** convertAndSend'e verilen frame nesneleri, gönderim sırasıyla. */
+    private final List<Object> payloads = new CopyOnWriteArrayList<>();
+    private FakeRosbridge bridge;
+    private RosBridgeClient client;
+    private LaserScanStage stage;
+
+    @BeforeEach
+    void open() throws Exception {
+        RosDockerProps props = new RosDockerProps();
+        int port = freePort();
+        bridge = new FakeRosbridge(port, 1);
+        bridge.start();
+        if (!bridge.awaitStarted(WAIT_MS)) fail("sahte rosbridge başlamadı");
+        client = new RosBridgeClient(om, props, new SimpleMeterRegistry(), "scan-test");
+        client.init();
+        client.connect("ws://127.0.0.1:" + port);
+
+        SimpMessagingTemplate mq = new SimpMessagingTemplate((message, timeout) -> sent.add(message)) {
+            @Override
+            public void convertAndSend(String destination, Object payload) {
+                payloads.add(payload);
+                super.convertAndSend(destination, payload);
+            }
+        };
+        mq.setMessageConverter(new MappingJackson2MessageConverter());
+        stage = new LaserScanStage(props, mq);
+        subscribe("a", SessionTopics.of(SESSION, "/scan"));
+        subscribe("b", SessionTopics.of(SESSION, "/scan/100"));
+        stage.sessionOpened(new SessionRuntime(SESSION, "tb3-test", new PortAllocator.Slot(0, port, 0, 0), "127.0.0.1", client));
+    }
+
+    @AfterEach
+    void close() throws InterruptedException {
+        client.disconnect();
+        client.shutdown();
+        bridge.stop(1000);
+    }
+
+    @Test
+    void framesAreReusedButEachScanIsSerializedWhole() throws Exception {
+        await("üç tarama", () -> sent.size() >= 6);
+
+        Map<String, List<JsonNode>> byDest = Map.of(
+                SessionTopics.of(SESSION, "/scan"), new ArrayList<>(),
+                SessionTopics.of(SESSION, "/scan/100"), new ArrayList<>());
+        for (Message<?> m : sent.subList(0, 6)) {
+            String dest = SimpMessageHeaderAccessor.getDestination(m.getHeaders());
+            byDest.get(dest).add(om.readTree((byte[]) m.getPayload()));
+        }
+        List<JsonNode> full = byDest.get(SessionTopics.of(SESSION, "/scan"));
+        List<JsonNode> small = byDest.get(SessionTopics.of(SESSION, "/scan/100"));
+        assertThat(full).hasSize(3);
+        assertThat(small).hasSize(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(full.get(i).path("ranges").size()).isEqualTo(360);  // 720 ışın, stride 2
+            assertThat(small.get(i).path("ranges").size()).isEqualTo(90);  // stride 8
+            assertThat(small.get(i).path("seq").asLong()).isEqualTo(full.get(i).path("seq").asLong());
+            assertThat(small.get(i).path("angleIncrement").asDouble())
+                    .isCloseTo(4 * full.get(i).path("angleIncrement").asDouble(), within(1e-6));
+        }
+        assertThat(full.get(1).path("seq").asLong()).isEqualTo(full.get(0).path("seq").asLong() + 1);
+        assertThat(full.get(0).path("ranges")).isNotEqualTo(full.get(1).path("ranges")); // gönderilen, o taramanın verisi
+
+        // Taramalar arasında yalnızca iki frame (stride başına bir) ve iki dizi kullanıldı
+        Set<Object> frames = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<float[]> arrays = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object p : payloads) {
+            frames.add(p);
+            arrays.add(((LaserScanFrameDTO) p).getRanges());
+        }
+        assertThat(frames).hasSize(2);
+        assertThat(arrays).hasSize(2);
+    }
+
+    private void subscribe(String subscription, String destination) {
+        StompHeaderAccessor h = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        h.setSessionId("stomp-1");
+        h.setSubscriptionId(subscription);
+        h.setDestination(destination);
+        stage.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], h.getMessageHeaders())));
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.LatencyStatsDTO;
+import com.samma.rcp.app.orchestration.PortAllocator;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.support.FakeRosbridge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Sahte rosbridge yoklamaları yankılar: stats() gönderilen/dönen sayıları ve sıfırdan büyük yüzdelikleri
+ * vermeli; eski, kopya, başka backend'e ait ya da bozuk yankılar sayılmamalı.
+ */
+class LatencyProbeServiceTest {
+
+    private static final long WAIT_MS = 5000;
+    private static final long SESSION = 7;
+    private static final String PROBE = "/rcp/latency_probe";
+    private static final String ECHO = "/rcp/latency_echo";
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final RosDockerProps props = new RosDockerProps();
+    private FakeRosbridge bridge;
+    private RosBridgeClient client;
+    private LatencyProbeService service;
+    private SessionRuntime session;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        if (service != null) {
+            service.sessionClosed(session);
+            service.shutdown();
+        }
+        if (client != null) {
+            client.disconnect();
+            client.shutdown();
+        }
+        if (bridge != null) bridge.stop(1000);
+    }
+
+    @Test
+    void echoedProbesReportCountsAndPercentiles() throws Exception {
+        open(null);
+
+        await("yankılar", () -> stats().getReceived() >= 10);
+        LatencyStatsDTO s = stats();
+        assertThat(s.getSessionId()).isEqualTo(SESSION);
+        assertThat(s.getTopic()).isEqualTo(PROBE);
+        assertThat(s.getEchoTopic()).isEqualTo(PROBE);
+        assertThat(s.getSent()).isGreaterThanOrEqualTo(s.getReceived());
+        assertThat(s.getLost()).isEqualTo(s.getSent() - s.getReceived());
+        assertThat(s.getP50Ms()).isPositive();
+        assertThat(s.getP99Ms()).isGreaterThanOrEqualTo(s.getP50Ms());
+        assertThat(s.getP999Ms()).isGreaterThanOrEqualTo(s.getP99Ms());
+        assertThat(s.getMaxMs()).isGreaterThanOrEqualTo(s.getP999Ms());
+        assertThat(s.getMeanMs()).isPositive();
+        assertThat(s.getLastMs()).isPositive();
+        assertThat(bridge.received(PROBE)).isGreaterThanOrEqualTo(s.getReceived());
+
+        assertThat(meters.get("ros.latency.probes").tags("session", "7", "result", "received")
+                .functionCounter().count()).isGreaterThanOrEqualTo(10);
+        assertThat(meters.get("ros.latency.rtt").tags("session", "7", "quantile", "0.5").gauge().value()).isPositive();
+        assertThat(service.stats(SESSION + 1)).isEmpty();
+    }
+
+    @Test
+    void staleDuplicateAndForeignEchoesAreIgnored() throws Exception {
+        // Yankı ayrı topic'ten ve yalnızca testin seçtiği mesajlarla gelir
+        List<String> probes = new CopyOnWriteArrayList<>();
+        open(ECHO);
+        bridge.onPublish((topic, msg) -> {
+            if (PROBE.equals(topic)) probes.add(msg.path("data").asText());
+        });
+        await("yankı aboneliği", () -> bridge.subscribers(ECHO) == 1);
+        await("üç yoklama", () -> probes.size() >= 3);
+        String first = probes.get(0), second = probes.get(1), third = probes.get(2);
+        String prefix = second.substring(0, second.indexOf(':') + 1);
+
+        echo(second);
+        await("ilk yankı", () -> stats().getReceived() == 1);
+
+        echo(first);                                          // eski: sırası son dönenden küçük
+        echo(second);                                         // kopya
+        echo("0:" + second.substring(prefix.length()));      // başka backend'in yoklaması
+        echo(prefix + "x:" + System.nanoTime());             // bozuk sıra
+        echo(prefix + "99");                                  // zaman damgası yok
+        echo(third);
+        await("son yankı", () -> stats().getReceived() >= 2);
+
+        LatencyStatsDTO s = stats();
+        assertThat(s.getReceived()).isEqualTo(2); // gelen mesajlar sırayla işlendiğinden aradakiler de işlendi
+        assertThat(s.getEchoTopic()).isEqualTo(ECHO);
+        assertThat(s.getSent()).isGreaterThanOrEqualTo(3);
+        assertThat(s.getP50Ms()).isPositive();
+    }
+
+    private void open(String echoTopic) throws Exception {
+        RosDockerProps.Latency cfg = props.getLatency();
+        cfg.setInterval(20);
+        cfg.setEchoTopic(echoTopic);
+        props.getBridge().setControlTopics(List.of(PROBE));
+        int port = freePort();
+        bridge = new FakeRosbridge(port, 1);
+        bridge.start();
+        if (!bridge.awaitStarted(WAIT_MS)) fail("sahte rosbridge başlamadı");
+        client = new RosBridgeClient(om, props, meters, "latency-test");
+        client.init();
+        client.connect("ws://127.0.0.1:" + port);
+        await("bağlantı", client::isConnected);
+        session = new SessionRuntime(SESSION, "tb3-test", new PortAllocator.Slot(0, port, 0, 0), "127.0.0.1", client);
+        service = new LatencyProbeService(props, meters);
+        service.init();
+        service.sessionOpened(session);
+    }
+
+    private void echo(String data) {
+        ObjectNode msg = om.createObjectNode().put("data", data);
+        bridge.publish(ECHO, msg);
+    }
+
+    private LatencyStatsDTO stats() {
+        return service.stats(SESSION).orElseThrow();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.samma.rcp.app.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Delta üretimi ve dışa aktarım sürerken gelen güncellemelerin beklememesi (copy-on-write). */
+class OccupancyGridModelTest {
+
+    private static final int W = 128;
+    private static final int H = 64;
+
+    @Test
+    void deltaContainsOnlyChangedTiles() {
+        OccupancyGridModel model = new OccupancyGridModel(32);
+        assertThat(model.apply("map", W, H, 0.05, 0, 0, 0, grid((byte) 0)).reset()).isTrue();
+
+        byte[] next = grid((byte) 0);
+        next[40 * W + 70] = 100;
+        OccupancyGridModel.Result r = model.apply("map", W, H, 0.05, 0, 0, 0, next);
+
+        assertThat(r.reset()).isFalse();
+        assertThat(r.version()).isEqualTo(2);
+        assertThat(r.tiles()).singleElement().satisfies(t -> {
+            assertThat(t.getX()).isEqualTo(64);
+            assertThat(t.getY()).isEqualTo(32);
+        });
+        assertThat(model.apply("map", W, H, 0.05, 0, 0, 0, next).tiles()).isEmpty();
+    }
+
+    @Test
+    void updatesDoNotWaitForExportAndLeaveExportedCellsIntact() throws Exception {
+        OccupancyGridModel model = new OccupancyGridModel(32);
+        model.apply("map", W, H, 0.05, 0, 0, 0, grid((byte) 0));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        byte[][] exported = new byte[1][];
+        byte[][] seenAfter = new byte[1][];
+
+        CompletableFuture<Boolean> export = CompletableFuture.supplyAsync(() -> {
+            try {
+                return model.export((frameId, w, h, res, ox, oy, oyaw, cells) -> {
+                    exported[0] = cells;
+                    writing.countDown();
+                    try {
+                        release.await(); // yavaş (fsync'li) yazım
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    seenAfter[0] = cells.clone();
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Yazım sürerken güncelleme kilitte beklemeden uygulanır
+        CompletableFuture<OccupancyGridModel.Result> update =
+                CompletableFuture.supplyAsync(() -> model.apply("map", W, H, 0.05, 0, 0, 0, grid((byte) 100)));
+        OccupancyGridModel.Result r = update.get(2, TimeUnit.SECONDS);
+        assertThat(r.tiles()).hasSize(8);
+        assertThat(model.snapshot().getData()).containsOnly((byte) 100);
+
+        release.countDown();
+        assertThat(export.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(seenAfter[0]).containsOnly((byte) 0);
+        assertThat(exported[0]).containsOnly((byte) 0);
+
+        // Aktarım bitince yeni dizi paylaşımsızdır: sonraki güncelleme yerinde yazar
+        byte[] last = grid((byte) 100);
+        last[0] = 50;
+        assertThat(model.apply("map", W, H, 0.05, 0, 0, 0, last).tiles()).hasSize(1);
+        assertThat(model.snapshot().getData()[0]).isEqualTo((byte) 50);
+    }
+
+    private static byte[] grid(byte value) {
+        byte[] g = new byte[W * H];
+        Arrays.fill(g, value);
+        return g;
+    }
+}
@@ -0,0 +1,113 @@
+package com.samma.rcp.app.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.PoseHistoryDTO;
+import com.samma.rcp.app.orchestration.PortAllocator;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.orchestration.SessionRuntime;
+import com.samma.rcp.app.support.FakeRosbridge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/** Örnek zamanı header.stamp'tir; stamp'i olmayan mesaj alış zamanıyla kaydedilir. */
+class PoseHistoryServiceTest {
+
+    private static final long WAIT_MS = 5000;
+    private static final long SESSION = 5;
+    private static final String ODOM = "/test/odom"; // sahte rosbridge'in kendi /odom yayını karışmasın
+    private static final String AMCL = "/test/amcl_pose";
+
+    private final ObjectMapper om = new ObjectMapper();
+    private FakeRosbridge bridge;
+    private RosBridgeClient client;
+    private PoseHistoryService history;
+
+    @BeforeEach
+    void open() throws Exception {
+        RosDockerProps props = new RosDockerProps();
+        props.getHistory().setOdomTopic(ODOM);
+        props.getHistory().setOdomThrottle(0);
+        props.getHistory().setOdomCapacity(16);
+        props.getHistory().setAmclTopic(AMCL);
+        props.getHistory().setAmclCapacity(16);
+        int port = freePort();
+        bridge = new FakeRosbridge(port, 1);
+        bridge.start();
+        if (!bridge.awaitStarted(WAIT_MS)) fail("sahte rosbridge başlamadı");
+        client = new RosBridgeClient(om, props, new SimpleMeterRegistry(), "history-test");
+        client.init();
+        client.connect("ws://127.0.0.1:" + port);
+        history = new PoseHistoryService(props);
+        history.sessionOpened(new SessionRuntime(SESSION, "tb3-test", new PortAllocator.Slot(0, port, 0, 0), "127.0.0.1", client));
+        await("abonelikler", () -> bridge.subscribers(ODOM) == 1 && bridge.subscribers(AMCL) == 1);
+    }
+
+    @AfterEach
+    void close() throws InterruptedException {
+        client.disconnect();
+        client.shutdown();
+        bridge.stop(1000);
+    }
+
+    @Test
+    void samplesAreStampedWithHeaderStamp() throws Exception {
+        bridge.publish(ODOM, json("{\"header\":{\"stamp\":{\"sec\":1000,\"nanosec\":250000000}},"
+                + "\"pose\":{\"pose\":{\"position\":{\"x\":1.0,\"y\":2.0},\"orientation\":{\"w\":1.0}}},"
+                + "\"twist\":{\"twist\":{\"linear\":{\"x\":0.2},\"angular\":{\"z\":0.1}}}}"));
+        bridge.publish(AMCL, json("{\"header\":{\"stamp\":{\"sec\":2000,\"nanosec\":0}},"
+                + "\"pose\":{\"pose\":{\"position\":{\"x\":3.0,\"y\":4.0},\"orientation\":{\"w\":1.0}}}}"));
+        long before = System.currentTimeMillis();
+        bridge.publish(ODOM, json("{\"pose\":{\"pose\":{\"position\":{\"x\":5.0,\"y\":6.0},\"orientation\":{\"w\":1.0}}}}"));
+
+        await("odom örnekleri", () -> odom().getCount() == 2);
+        await("amcl örneği", () -> amcl().getCount() == 1);
+        long after = System.currentTimeMillis();
+
+        PoseHistoryDTO odom = odom();
+        assertThat(odom.getT()[0]).isEqualTo(1_000_250L);
+        assertThat(odom.getX()[0]).isEqualTo(1.0f);
+        assertThat(odom.getV()[0]).isEqualTo(0.2f);
+        assertThat(odom.getT()[1]).isBetween(before, after); // stamp yok: alış zamanı
+        assertThat(amcl().getT()).containsExactly(2_000_000L);
+        assertThat(history.query(SESSION, PoseHistoryService.ODOM, 1_000_000, 1_000_500, 0, 0).orElseThrow().getCount())
+                .isEqualTo(1);
+    }
+
+    private PoseHistoryDTO odom() {
+        return history.query(SESSION, PoseHistoryService.ODOM, 0, Long.MAX_VALUE, 0, 0).orElseThrow();
+    }
+
+    private PoseHistoryDTO amcl() {
+        return history.query(SESSION, PoseHistoryService.AMCL, 0, Long.MAX_VALUE, 0, 0).orElseThrow();
+    }
+
+    private JsonNode json(String s) throws IOException {
+        return om.readTree(s);
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
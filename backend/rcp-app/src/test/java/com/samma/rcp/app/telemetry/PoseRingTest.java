@@ -0,0 +1,84 @@
+package com.samma.rcp.app.telemetry;
+
+import com.samma.rcp.app.dto.PoseHistoryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+/** Tur atınca en eskinin atılması, aralık/stride/limit sorguları ve yazarla eşzamanlı okumanın tutarlılığı. */
+class PoseRingTest {
+
+    @Test
+    void wrapDiscardsOldestAndTheSlotBeingWritten() {
+        PoseRing ring = new PoseRing(8);
+        for (int i = 0; i < 20; i++) add(ring, i * 10L);
+
+        PoseHistoryDTO all = ring.query(0, Long.MAX_VALUE, 0, Integer.MAX_VALUE);
+
+        assertThat(ring.size()).isEqualTo(8);
+        // head - capacity slotu bir sonraki yazımda ezileceğinden okunmaz: 7 örnek
+        assertThat(all.getT()).containsExactly(LongStream.rangeClosed(13, 19).map(i -> i * 10).toArray());
+        assertThat(all.getX()).containsExactly(130f, 140f, 150f, 160f, 170f, 180f, 190f);
+        assertThat(all.getCount()).isEqualTo(7);
+    }
+
+    @Test
+    void rangeStrideAndLimit() {
+        PoseRing ring = new PoseRing(64);
+        for (int i = 0; i < 50; i++) add(ring, i * 10L); // 0..490
+
+        assertThat(ring.query(100, 200, 0, Integer.MAX_VALUE).getT())
+                .containsExactly(LongStream.rangeClosed(10, 20).map(i -> i * 10).toArray());
+        assertThat(ring.query(495, Long.MAX_VALUE, 0, Integer.MAX_VALUE).getCount()).isZero();
+        assertThat(ring.query(0, Long.MAX_VALUE, 0, 5).getT()).containsExactly(0, 10, 20, 30, 40);
+
+        // stride 25 ms: her örnek bir öncekinden en az 25 ms sonra -> 0, 30, 60, ..., 480
+        PoseHistoryDTO strided = ring.query(0, Long.MAX_VALUE, 25, Integer.MAX_VALUE);
+        assertThat(strided.getT()).containsExactly(LongStream.rangeClosed(0, 16).map(i -> i * 30).toArray());
+        // uzun stride'da gallop aralığın sonunu aşmaz
+        assertThat(ring.query(100, 300, 1000, Integer.MAX_VALUE).getT()).containsExactly(100);
+        assertThat(ring.query(0, Long.MAX_VALUE, 7, 3).getT()).containsExactly(0, 10, 20);
+    }
+
+    @Test
+    void backwardsClockIsClampedToKeepOrder() {
+        PoseRing ring = new PoseRing(4);
+        add(ring, 100);
+        add(ring, 50);
+        add(ring, 120);
+
+        assertThat(ring.query(0, Long.MAX_VALUE, 0, Integer.MAX_VALUE).getT()).containsExactly(100, 100, 120);
+        assertThatThrownBy(() -> new PoseRing(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentReadsNeverSeeTornSamples() throws Exception {
+        PoseRing ring = new PoseRing(256);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (long t = 0; t < 2_000_000 && !stop.get(); t++) add(ring, t); // x = t: slot tutarlı mı?
+        }, "pose-writer");
+        writer.start();
+        try {
+            for (int q = 0; q < 20_000 && writer.isAlive(); q++) {
+                PoseHistoryDTO h = ring.query(0, Long.MAX_VALUE, q % 3, Integer.MAX_VALUE);
+                for (int i = 0; i < h.getCount(); i++) {
+                    if (h.getX()[i] != (float) h.getT()[i]) fail("yarım yazılmış örnek: t=" + h.getT()[i] + " x=" + h.getX()[i]);
+                    if (i > 0 && h.getT()[i] <= h.getT()[i - 1]) fail("sıra bozuk: " + h.getT()[i - 1] + " -> " + h.getT()[i]);
+                }
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    private static void add(PoseRing ring, long t) {
+        ring.add(t, t, -t, 0, 0, 0);
+    }
+}
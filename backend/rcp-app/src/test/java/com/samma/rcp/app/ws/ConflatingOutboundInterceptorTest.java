@@ -0,0 +1,183 @@
+package com.samma.rcp.app.ws;
+
+import com.samma.rcp.app.config.RosDockerProps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Gerçek bir executor kanalında: kuyrukta bekleyen abone ara değerleri atlayıp her aboneliğin son değerini alır,
+ * max-rate teslim aralığını sınırlar, kapanan aboneliğin bekleyen teslimi düşer, yavaş tüketici kapanışı sayılır.
+ */
+class ConflatingOutboundInterceptorTest {
+
+    private static final long WAIT_MS = 5000;
+    private static final String ODOM = "/topic/sessions/1/telemetry/odom";
+    private static final String SCAN = "/topic/sessions/1/telemetry/scan";
+    private static final String STATUS = "/topic/status";
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(); // clientOutboundChannel gibi
+    /** Teslim edilen mesajlar: "oturum/abonelik=payload" */
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final List<Long> deliveredAt = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ConflatingOutboundInterceptor conflation;
+    private ExecutorSubscribableChannel channel;
+
+    @BeforeEach
+    void open() {
+        RosDockerProps props = new RosDockerProps();
+        props.getStomp().getConflate().add("/topic/sessions/*/telemetry/**");
+        conflation = new ConflatingOutboundInterceptor(props, meters);
+        channel = new ExecutorSubscribableChannel(executor);
+        channel.addInterceptor(conflation);
+        channel.subscribe(m -> {
+            String payload = new String((byte[]) m.getPayload(), StandardCharsets.UTF_8);
+            if (payload.equals("block")) {
+                try {
+                    release.await(); // gönderimi takılan (yavaş) soket
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            delivered.add(SimpMessageHeaderAccessor.getSessionId(m.getHeaders()) + "/"
+                    + SimpMessageHeaderAccessor.getSubscriptionId(m.getHeaders()) + "=" + payload);
+            deliveredAt.add(System.nanoTime());
+        });
+    }
+
+    @AfterEach
+    void close() {
+        release.countDown();
+        conflation.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void queuedSubscriberGetsOnlyLatestValuePerSubscription() throws InterruptedException {
+        subscribe("s1", "odom", ODOM, null);
+        subscribe("s1", "scan", SCAN, null);
+        subscribe("s2", "odom", ODOM, null);
+        channel.send(message("s1", "status", STATUS, "block")); // birleştirilmez; kuyruğu tıkar
+
+        for (int i = 1; i <= 100; i++) {
+            channel.send(message("s1", "odom", ODOM, "odom-" + i));
+            channel.send(message("s1", "scan", SCAN, "scan-" + i));
+            channel.send(message("s2", "odom", ODOM, "odom-" + i));
+        }
+        release.countDown();
+
+        await("kuyruk boşaldı", () -> delivered.size() == 4);
+        assertThat(delivered).containsExactly("s1/status=block", "s1/odom=odom-100", "s1/scan=scan-100", "s2/odom=odom-100");
+        assertThat(meters.get("stomp.conflated").functionCounter().count()).isEqualTo(3 * 99);
+
+        // Kuyruk boşken gelen mesaj beklemeden teslim edilir
+        channel.send(message("s1", "odom", ODOM, "odom-101"));
+        await("sonraki mesaj", () -> delivered.size() == 5);
+        assertThat(delivered.get(4)).isEqualTo("s1/odom=odom-101");
+    }
+
+    @Test
+    void maxRateHeaderSpacesDeliveriesAndFlushesLastValue() throws InterruptedException {
+        subscribe("s1", "odom", ODOM, "10"); // 100 ms
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(550);
+        int i = 0;
+        while (System.nanoTime() < end) {
+            channel.send(message("s1", "odom", ODOM, "odom-" + ++i));
+            TimeUnit.MILLISECONDS.sleep(2);
+        }
+        String last = "s1/odom=odom-" + i;
+
+        await("son değer aralık dolunca gönderildi", () -> delivered.contains(last));
+        assertThat(delivered).hasSizeBetween(6, 8).doesNotHaveDuplicates();
+        for (int k = 1; k < deliveredAt.size(); k++) {
+            assertThat(TimeUnit.NANOSECONDS.toMillis(deliveredAt.get(k) - deliveredAt.get(k - 1))).isGreaterThanOrEqualTo(90);
+        }
+    }
+
+    @Test
+    void pendingDeliveryIsDroppedAfterUnsubscribe() throws InterruptedException {
+        subscribe("s1", "odom", ODOM, "5"); // 200 ms
+        channel.send(message("s1", "odom", ODOM, "odom-1"));
+        await("ilk mesaj", () -> delivered.size() == 1);
+        channel.send(message("s1", "odom", ODOM, "odom-2")); // aralık dolmadı: slotta bekler
+
+        conflation.onUnsubscribe(new SessionUnsubscribeEvent(this, stomp(StompCommand.UNSUBSCRIBE, "s1", "odom", null, null)));
+        TimeUnit.MILLISECONDS.sleep(400);
+
+        assertThat(delivered).containsExactly("s1/odom=odom-1"); // bekleyen teslim işareti de abone'ye gitmez
+        channel.send(message("s1", "odom", ODOM, "odom-3")); // slot yok: olduğu gibi geçer
+        await("slotsuz mesaj", () -> delivered.size() == 2);
+    }
+
+    @Test
+    void slowConsumerCloseIsCountedOnce() {
+        subscribe("s1", "odom", ODOM, null);
+        conflation.onDisconnect(disconnect("s1", CloseStatus.SESSION_NOT_RELIABLE));
+        conflation.onDisconnect(disconnect("s1", CloseStatus.SESSION_NOT_RELIABLE));
+        subscribe("s2", "odom", ODOM, null);
+        conflation.onDisconnect(disconnect("s2", CloseStatus.NORMAL));
+
+        assertThat(meters.get("stomp.slow.consumers").counter().count()).isEqualTo(1);
+    }
+
+    private void subscribe(String session, String subscription, String destination, String maxRate) {
+        conflation.onSubscribe(new SessionSubscribeEvent(this, stomp(StompCommand.SUBSCRIBE, session, subscription, destination, maxRate)));
+    }
+
+    private static Message<byte[]> stomp(StompCommand command, String session, String subscription, String destination,
+                                         String maxRate) {
+        StompHeaderAccessor h = StompHeaderAccessor.create(command);
+        h.setSessionId(session);
+        h.setSubscriptionId(subscription);
+        if (destination != null) h.setDestination(destination);
+        if (maxRate != null) h.addNativeHeader(ConflatingOutboundInterceptor.MAX_RATE_HEADER, maxRate);
+        return MessageBuilder.createMessage(new byte[0], h.getMessageHeaders());
+    }
+
+    /** Broker'ın aboneye ürettiği MESSAGE. */
+    private static Message<byte[]> message(String session, String subscription, String destination, String payload) {
+        SimpMessageHeaderAccessor h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        h.setSessionId(session);
+        h.setSubscriptionId(subscription);
+        h.setDestination(destination);
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), h.getMessageHeaders());
+    }
+
+    private SessionDisconnectEvent disconnect(String session, CloseStatus status) {
+        return new SessionDisconnectEvent(this, stomp(StompCommand.DISCONNECT, session, null, null, null), session, status);
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("beklenen olmadı: " + what);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Testlerde docker CLI yerine (ros.docker.cli): compose çağrısını proje ve slot ortamıyla birlikte
+# compose dosyasının yanındaki fake-docker.log'a yazar, container başlatmaz.
+#   <proje> <komut...> bridge=<ROS_BRIDGE_PORT> novnc=<NOVNC_PORT> domain=<ROS_DOMAIN_ID>
+set -eu
+if [ "${1:-}" != compose ]; then
+  echo "fake-docker: yalnızca compose destekleniyor: $*" >&2
+  exit 2
+fi
+shift
+file=. project= cmd=
+while [ $# -gt 0 ]; do
+  case "$1" in
+    -f) file=$2; shift 2 ;;
+    -p) project=$2; shift 2 ;;
+    *) cmd="$cmd $1"; shift ;;
+  esac
+done
+# Gerçek create/up gibi biraz sürsün ki eşzamanlı başlatmalar üst üste binsin
+sleep 0.2
+printf '%s%s bridge=%s novnc=%s domain=%s\n' "$project" "$cmd" \
+  "${ROS_BRIDGE_PORT:-}" "${NOVNC_PORT:-}" "${ROS_DOMAIN_ID:-}" >> "$(dirname "$file")/fake-docker.log"
@@ -0,0 +1,331 @@
+package com.samma.rcp.app.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Testler ve yük testi için süreç içi rosbridge: /odom (JSON), /scan (720 ışın) ve /map (kenarı değişen grid) yayınlar.
+ * Abonelikler bağlantı başına tutulur, throttle_rate ve compression:"cbor" (typed array) uygulanır.
+ * /rosapi/publishers yayınlanan ya da advertise edilen topic'ler için yayıncı döndürür; istemci publish'leri
+ * aynı topic'in abonelerine iletilir (gecikme yoklaması yankısı). header.stamp duvar saatidir, tarayıcı
+ * tarafı gecikmeyi bundan ölçer. Gelen frame'ler op başına sayılır; publish'ler ayrıca {@link #onPublish} ile izlenebilir.
+ * Yeniden başlatılamaz; kopma denemek için durdurulup aynı portta yenisi açılır (adres yeniden kullanılabilir).
+ */
+public class FakeRosbridge extends WebSocketServer {
+
+    static final int SCAN_RAYS = 720;
+    static final int MAP_SIDE = 384;
+    static final Set<String> EMITTED = Set.of("/odom", "/scan", "/map");
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final CBORFactory cbor = new CBORFactory();
+    private final Map<WebSocket, Map<String, Sub>> subs = new ConcurrentHashMap<>();
+    private final Set<String> advertised = ConcurrentHashMap.newKeySet();
+    private final Map<String, LongAdder> received = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> ops = new ConcurrentHashMap<>();
+    private volatile BiConsumer<String, JsonNode> publishListener = (topic, msg) -> { };
+    private final LongAdder sent = new LongAdder();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fake-rosbridge");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Random rnd = new Random(42);
+    private final byte[] grid = new byte[MAP_SIDE * MAP_SIDE];
+    private final int odomHz;
+    private double x, y, yaw;
+    private int mapTick;
+
+    /** Aboneliğin rosbridge ayarları; last yalnızca ticker thread'inde güncellenir. */
+    private record Sub(int throttleMs, boolean cbor, long[] last) {}
+
+    public FakeRosbridge(int port, int odomHz) {
+        super(new InetSocketAddress("127.0.0.1", port));
+        this.odomHz = odomHz;
+        setReuseAddr(true);
+        setConnectionLostTimeout(0);
+        for (int i = 0; i < grid.length; i++) {
+            int cx = i % MAP_SIDE, cy = i / MAP_SIDE;
+            boolean edge = cx < 32 || cy < 32 || cx >= MAP_SIDE - 32 || cy >= MAP_SIDE - 32;
+            grid[i] = edge ? (byte) -1 : 0;
+        }
+    }
+
+    @Override
+    public void onStart() {
+        ticker.scheduleAtFixedRate(this::odom, 0, 1_000_000L / odomHz, TimeUnit.MICROSECONDS);
+        ticker.scheduleAtFixedRate(this::scan, 0, 100, TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::map, 0, 1000, TimeUnit.MILLISECONDS);
+        started.countDown();
+    }
+
+    /** start() soketi arka planda bağlar; dinlemeye başlayana kadar en fazla timeoutMs bekler. */
+    public boolean awaitStarted(long timeoutMs) throws InterruptedException {
+        return started.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop(int timeout) throws InterruptedException {
+        ticker.shutdownNow();
+        super.stop(timeout);
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        subs.put(conn, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        subs.remove(conn);
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        JsonNode m;
+        try {
+            m = om.readTree(message);
+        } catch (IOException e) {
+            return;
+        }
+        String topic = m.path("topic").asText();
+        String op = m.path("op").asText();
+        ops.computeIfAbsent(op, k -> new LongAdder()).increment();
+        switch (op) {
+            case "subscribe" -> {
+                Map<String, Sub> own = subs.get(conn);
+                if (own != null) own.put(topic, new Sub(m.path("throttle_rate").asInt(0),
+                        "cbor".equals(m.path("compression").asText()), new long[1]));
+            }
+            case "unsubscribe" -> {
+                Map<String, Sub> own = subs.get(conn);
+                if (own != null) own.remove(topic);
+            }
+            case "advertise" -> advertised.add(topic);
+            case "publish" -> {
+                received.computeIfAbsent(topic, k -> new LongAdder()).increment();
+                publishListener.accept(topic, m.path("msg"));
+                String frame = "{\"op\":\"publish\",\"topic\":\"" + topic + "\",\"msg\":" + m.path("msg") + "}";
+                subs.forEach((c, own) -> {
+                    if (own.containsKey(topic)) send(c, frame);
+                });
+            }
+            case "call_service" -> {
+                String asked = m.path("args").path("topic").asText();
+                boolean has = EMITTED.contains(asked) || advertised.contains(asked);
+                send(conn, "{\"op\":\"service_response\",\"service\":\"" + m.path("service").asText() + "\",\"id\":\""
+                        + m.path("id").asText() + "\",\"result\":true,\"values\":{\"publishers\":" + (has ? "[\"/fake\"]" : "[]") + "}}");
+            }
+            default -> { }
+        }
+    }
+
+    /** Gelen publish sayısı (ör. /cmd_vel). */
+    public long received(String topic) {
+        LongAdder a = received.get(topic);
+        return a == null ? 0 : a.sum();
+    }
+
+    /** Gelen op sayısı (ör. "advertise", "publish"). */
+    public long ops(String op) {
+        LongAdder a = ops.get(op);
+        return a == null ? 0 : a.sum();
+    }
+
+    /** Gelen her publish için soket thread'inde çağrılır (topic, msg). */
+    public void onPublish(BiConsumer<String, JsonNode> listener) {
+        publishListener = listener;
+    }
+
+    /** Topic'e advertise geldi mi (bu sunucu örneğinde). */
+    public boolean isAdvertised(String topic) {
+        return advertised.contains(topic);
+    }
+
+    /** Topic'e abone bağlantı sayısı. */
+    public int subscribers(String topic) {
+        return (int) subs.values().stream().filter(own -> own.containsKey(topic)).count();
+    }
+
+    /** Topic'in abonelerine testin verdiği mesajı yayınlar (throttle uygulanmaz). */
+    public void publish(String topic, JsonNode msg) {
+        String frame = "{\"op\":\"publish\",\"topic\":\"" + topic + "\",\"msg\":" + msg + "}";
+        subs.forEach((c, own) -> {
+            if (own.containsKey(topic)) send(c, frame);
+        });
+    }
+
+    /** Gönderilen frame sayısı. */
+    public long sent() {
+        return sent.sum();
+    }
+
+    private void odom() {
+        x += 0.002 * Math.cos(yaw);
+        y += 0.002 * Math.sin(yaw);
+        yaw += 0.001;
+        Instant now = Instant.now();
+        String json = "{\"op\":\"publish\",\"topic\":\"/odom\",\"msg\":{\"header\":{\"stamp\":{\"sec\":" + now.getEpochSecond()
+                + ",\"nanosec\":" + now.getNano() + "},\"frame_id\":\"odom\"},\"child_frame_id\":\"base_footprint\","
+                + "\"pose\":{\"pose\":{\"position\":{\"x\":" + x + ",\"y\":" + y + ",\"z\":0.0},"
+                + "\"orientation\":{\"x\":0.0,\"y\":0.0,\"z\":" + Math.sin(yaw / 2) + ",\"w\":" + Math.cos(yaw / 2) + "}}},"
+                + "\"twist\":{\"twist\":{\"linear\":{\"x\":0.2,\"y\":0.0,\"z\":0.0},\"angular\":{\"x\":0.0,\"y\":0.0,\"z\":0.1}}}}}";
+        fanOut("/odom", () -> json, null);
+    }
+
+    private void scan() {
+        float[] ranges = new float[SCAN_RAYS];
+        for (int i = 0; i < ranges.length; i++) ranges[i] = 0.12f + rnd.nextFloat() * 3.4f;
+        Instant now = Instant.now();
+        fanOut("/scan", () -> {
+            StringBuilder sb = new StringBuilder(SCAN_RAYS * 12);
+            sb.append("{\"op\":\"publish\",\"topic\":\"/scan\",\"msg\":{\"header\":{\"stamp\":{\"sec\":").append(now.getEpochSecond())
+                    .append(",\"nanosec\":").append(now.getNano()).append("},\"frame_id\":\"base_scan\"},")
+                    .append("\"angle_min\":0.0,\"angle_increment\":0.0087,\"range_min\":0.12,\"range_max\":3.5,\"ranges\":[");
+            for (int i = 0; i < ranges.length; i++) sb.append(i == 0 ? "" : ",").append(ranges[i]);
+            return sb.append("]}}").toString();
+        }, () -> cborFrame("/scan", g -> {
+            header(g, now, "base_scan");
+            g.writeNumberField("angle_min", 0.0);
+            g.writeNumberField("angle_increment", 0.0087);
+            g.writeNumberField("range_min", 0.12);
+            g.writeNumberField("range_max", 3.5);
+            g.writeFieldName("ranges");
+            ByteBuffer le = ByteBuffer.allocate(ranges.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+            le.asFloatBuffer().put(ranges);
+            g.writeTag(85); // float32 little-endian typed array
+            g.writeBinary(le.array());
+        }));
+    }
+
+    /** Her yayında grid'in bir bölgesi değişir: SLAM'in keşif güncellemesi gibi birkaç karo farkı. */
+    private void map() {
+        int bx = 32 + (mapTick * 24) % (MAP_SIDE - 96), by = 32 + (mapTick * 40) % (MAP_SIDE - 96);
+        byte v = (byte) ((mapTick & 1) == 0 ? 100 : 0);
+        for (int yy = by; yy < by + 32; yy++) for (int xx = bx; xx < bx + 32; xx++) grid[yy * MAP_SIDE + xx] = v;
+        mapTick++;
+        Instant now = Instant.now();
+        fanOut("/map", () -> {
+            StringBuilder sb = new StringBuilder(grid.length * 3);
+            sb.append("{\"op\":\"publish\",\"topic\":\"/map\",\"msg\":{\"header\":{\"stamp\":{\"sec\":").append(now.getEpochSecond())
+                    .append(",\"nanosec\":").append(now.getNano()).append("},\"frame_id\":\"map\"},\"info\":{\"width\":").append(MAP_SIDE)
+                    .append(",\"height\":").append(MAP_SIDE).append(",\"resolution\":0.05,\"origin\":{\"position\":{\"x\":-10.0,\"y\":-10.0,\"z\":0.0},")
+                    .append("\"orientation\":{\"x\":0.0,\"y\":0.0,\"z\":0.0,\"w\":1.0}}},\"data\":[");
+            for (int i = 0; i < grid.length; i++) sb.append(i == 0 ? "" : ",").append(grid[i]);
+            return sb.append("]}}").toString();
+        }, () -> cborFrame("/map", g -> {
+            header(g, now, "map");
+            g.writeFieldName("info");
+            g.writeStartObject();
+            g.writeNumberField("width", MAP_SIDE);
+            g.writeNumberField("height", MAP_SIDE);
+            g.writeNumberField("resolution", 0.05);
+            g.writeFieldName("origin");
+            g.writeStartObject();
+            g.writeFieldName("position");
+            g.writeStartObject();
+            g.writeNumberField("x", -10.0);
+            g.writeNumberField("y", -10.0);
+            g.writeEndObject();
+            g.writeFieldName("orientation");
+            g.writeStartObject();
+            g.writeNumberField("w", 1.0);
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeFieldName("data");
+            g.writeTag(72); // int8 typed array
+            g.writeBinary(grid);
+        }));
+    }
+
+    /** Frame'ler yalnızca o biçimi isteyen abone varsa ve bir kez üretilir. */
+    private void fanOut(String topic, Supplier<String> json, Supplier<byte[]> cborFrame) {
+        long now = System.currentTimeMillis();
+        String text = null;
+        byte[] binary = null;
+        for (Map.Entry<WebSocket, Map<String, Sub>> e : subs.entrySet()) {
+            Sub s = e.getValue().get(topic);
+            if (s == null || now - s.last()[0] < s.throttleMs()) continue;
+            s.last()[0] = now;
+            if (s.cbor() && cborFrame != null) {
+                if (binary == null) binary = cborFrame.get();
+                send(e.getKey(), binary);
+            } else {
+                if (text == null) text = json.get();
+                send(e.getKey(), text);
+            }
+        }
+    }
+
+    private void send(WebSocket c, String frame) {
+        if (!c.isOpen()) return;
+        c.send(frame);
+        sent.increment();
+    }
+
+    private void send(WebSocket c, byte[] frame) {
+        if (!c.isOpen()) return;
+        c.send(frame);
+        sent.increment();
+    }
+
+    private byte[] cborFrame(String topic, CborBody body) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (CBORGenerator g = cbor.createGenerator(bos)) {
+            g.writeStartObject();
+            g.writeStringField("op", "publish");
+            g.writeStringField("topic", topic);
+            g.writeFieldName("msg");
+            g.writeStartObject();
+            body.write(g);
+            g.writeEndObject();
+            g.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    private static void header(CBORGenerator g, Instant stamp, String frameId) throws IOException {
+        g.writeFieldName("header");
+        g.writeStartObject();
+        g.writeFieldName("stamp");
+        g.writeStartObject();
+        g.writeNumberField("sec", stamp.getEpochSecond());
+        g.writeNumberField("nanosec", stamp.getNano());
+        g.writeEndObject();
+        g.writeStringField("frame_id", frameId);
+        g.writeEndObject();
+    }
+
+    private interface CborBody { void write(CBORGenerator g) throws IOException; }
+}
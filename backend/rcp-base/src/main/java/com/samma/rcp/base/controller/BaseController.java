@@ -14,6 +14,9 @@ public abstract class BaseController {
     protected <T> ResponseEntity<ResponseDTO<T>> created(T data) {
         return ResponseEntity.status(HttpStatus.CREATED).body(ResponseDTO.<T>builder().success(true).data(data).build());
     }
+    protected <T> ResponseEntity<ResponseDTO<T>> accepted(T data) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ResponseDTO.<T>builder().success(true).data(data).build());
+    }
     protected <T> ResponseEntity<ResponseDTO<T>> error(String message, HttpStatus status) {
         return ResponseEntity.status(status).body(ResponseDTO.<T>builder().success(false).message(message).build());
     }
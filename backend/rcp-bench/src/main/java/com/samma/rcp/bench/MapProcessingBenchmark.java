@@ -0,0 +1,100 @@
+package com.samma.rcp.bench;
+
+import com.samma.rcp.app.service.PgmImage;
+import com.samma.rcp.app.service.PgmMapWriter;
+import com.samma.rcp.app.telemetry.OccupancyGridModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Harita işleme: /map güncellemesinden karo farkı (OccupancyGridModel.apply, MapStreamService), MapService'in
+ * PGM kaydı (PgmMapWriter.writePgm, fsync dahil) ve MapTileService'in memory-mapped PGM'den karo okuması.
+ * Grid setup'ta üretilir: serbest alan, duvar blokları ve bilinmeyen kenar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapProcessingBenchmark {
+
+    /** Grid kenar uzunluğu (hücre). */
+    @Param({"512", "2048"})
+    public int size;
+
+    private static final int TILE = 256;
+
+    private Path dir;
+    private byte[] grid;
+    private byte[] changed;
+    private OccupancyGridModel model;
+    private boolean flip;
+    private PgmImage image;
+    private final byte[] tile = new byte[TILE * TILE];
+    private int tileIndex;
+
+    @Setup
+    public void setup() throws IOException {
+        Random rnd = new Random(42);
+        grid = new byte[size * size];
+        int edge = size / 8;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean unknown = x < edge || y < edge || x >= size - edge || y >= size - edge;
+                grid[y * size + x] = unknown ? (byte) -1 : 0;
+            }
+        }
+        for (int i = 0; i < size / 4; i++) { // duvar blokları
+            int bx = edge + rnd.nextInt(size - 2 * edge - 8), by = edge + rnd.nextInt(size - 2 * edge - 8);
+            for (int y = by; y < by + 8; y++) for (int x = bx; x < bx + 8; x++) grid[y * size + x] = 100;
+        }
+        // SLAM'de tipik güncelleme: robot çevresinde birkaç karo değişir
+        changed = grid.clone();
+        int cx = size / 2, cy = size / 2;
+        for (int y = cy - 40; y < cy + 40; y++) for (int x = cx - 40; x < cx + 40; x++) changed[y * size + x] = 100;
+
+        model = new OccupancyGridModel(64);
+        model.apply("map", size, size, 0.05, 0, 0, 0, grid);
+
+        dir = Files.createTempDirectory("rcp-bench-map");
+        Path pgm = dir.resolve("source.pgm");
+        PgmMapWriter.writePgm(pgm, size, size, grid);
+        image = PgmImage.open(pgm);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /** Her çağrı önceki grid'den farklıdır: değişen karolar kopyalanır ve delta üretilir. */
+    @Benchmark
+    public OccupancyGridModel.Result gridDelta() {
+        flip = !flip;
+        return model.apply("map", size, size, 0.05, 0, 0, 0, flip ? changed : grid);
+    }
+
+    @Benchmark
+    public long writePgm() throws IOException {
+        return PgmMapWriter.writePgm(dir.resolve("out.pgm"), size, size, grid);
+    }
+
+    /** En yakın zoom seviyesindeki karoların sırayla okunması. */
+    @Benchmark
+    public byte[] readTile() {
+        int perRow = Math.max(1, (size + TILE - 1) / TILE);
+        int i = tileIndex++ % (perRow * perRow);
+        image.read((i % perRow) * TILE, (i / perRow) * TILE, TILE, TILE, tile, (byte) 205);
+        return tile;
+    }
+}
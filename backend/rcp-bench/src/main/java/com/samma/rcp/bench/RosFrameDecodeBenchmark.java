@@ -0,0 +1,111 @@
+package com.samma.rcp.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.samma.rcp.app.orchestration.CborMessageDecoder;
+import com.samma.rcp.app.orchestration.RosArrays;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Büyük mesajların çözülmesi: JSON metni (ObjectMapper.readTree) ile rosbridge CBOR frame'i
+ * (CborMessageDecoder) karşılaştırması. Teldeki boyutlar setup'ta yazdırılır.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosFrameDecodeBenchmark {
+
+    /** scan: 720 ışınlı LaserScan, map: OccupancyGrid kenar uzunluğu (hücre). */
+    @Param({"scan", "map-512", "map-2048"})
+    public String shape;
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final CborMessageDecoder cbor = new CborMessageDecoder();
+
+    private String json;
+    private byte[] cborFrame;
+
+    @Setup
+    public void setup() throws Exception {
+        Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (CBORGenerator g = new CBORFactory().createGenerator(bos)) {
+            g.writeStartObject();
+            g.writeStringField("op", "publish");
+            if (shape.equals("scan")) {
+                float[] ranges = new float[720];
+                for (int i = 0; i < ranges.length; i++) ranges[i] = 0.12f + rnd.nextFloat() * 3.4f;
+                sb.append("{\"op\":\"publish\",\"topic\":\"/scan\",\"msg\":{\"angle_min\":0.0,\"angle_increment\":0.0087,\"ranges\":[");
+                for (int i = 0; i < ranges.length; i++) sb.append(i == 0 ? "" : ",").append(ranges[i]);
+                sb.append("]}}");
+
+                g.writeStringField("topic", "/scan");
+                g.writeFieldName("msg");
+                g.writeStartObject();
+                g.writeNumberField("angle_min", 0.0);
+                g.writeNumberField("angle_increment", 0.0087);
+                g.writeFieldName("ranges");
+                ByteBuffer le = ByteBuffer.allocate(ranges.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+                le.asFloatBuffer().put(ranges);
+                g.writeTag(85); // float32 little-endian typed array
+                g.writeBinary(le.array());
+                g.writeEndObject();
+            } else {
+                int side = Integer.parseInt(shape.substring(4));
+                byte[] cells = new byte[side * side];
+                for (int i = 0; i < cells.length; i++) {
+                    int r = rnd.nextInt(10);
+                    cells[i] = (byte) (r < 6 ? -1 : r < 9 ? 0 : 100);
+                }
+                sb.append("{\"op\":\"publish\",\"topic\":\"/map\",\"msg\":{\"info\":{\"width\":").append(side)
+                        .append(",\"height\":").append(side).append(",\"resolution\":0.05},\"data\":[");
+                for (int i = 0; i < cells.length; i++) sb.append(i == 0 ? "" : ",").append(cells[i]);
+                sb.append("]}}");
+
+                g.writeStringField("topic", "/map");
+                g.writeFieldName("msg");
+                g.writeStartObject();
+                g.writeFieldName("info");
+                g.writeStartObject();
+                g.writeNumberField("width", side);
+                g.writeNumberField("height", side);
+                g.writeNumberField("resolution", 0.05);
+                g.writeEndObject();
+                g.writeFieldName("data");
+                g.writeTag(72); // int8 typed array
+                g.writeBinary(cells);
+                g.writeEndObject();
+            }
+            g.writeEndObject();
+        }
+        json = sb.toString();
+        cborFrame = bos.toByteArray();
+        System.out.printf("%n[%s] wire bytes: json=%d cbor=%d%n", shape, json.length(), cborFrame.length);
+    }
+
+    @Benchmark
+    public Object json() throws Exception {
+        return primitive(om.readTree(json).get("msg"));
+    }
+
+    @Benchmark
+    public Object cbor() throws Exception {
+        return primitive(cbor.decode(ByteBuffer.wrap(cborFrame)).get("msg"));
+    }
+
+    private Object primitive(JsonNode msg) {
+        return shape.equals("scan") ? RosArrays.floats(msg.get("ranges")) : RosArrays.bytes(msg.get("data"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.samma.rcp.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samma.rcp.app.orchestration.RosFrameEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish frame üretimi: eski Map + ObjectMapper yolu ile RosFrameEncoder karşılaştırması.
+ * Allocation farkı için: -PjmhArgs="-prof gc RosFrameEncoderBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosFrameEncoderBenchmark {
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final RosFrameEncoder encoder = new RosFrameEncoder();
+
+    private double linear = 0.22;
+    private double angular = -1.3;
+
+    @Benchmark
+    public byte[] twistMap() throws Exception {
+        Map<String, Object> msg = Map.of(
+                "linear", Map.of("x", linear, "y", 0.0, "z", 0.0),
+                "angular", Map.of("x", 0.0, "y", 0.0, "z", angular)
+        );
+        return publishFrame("/cmd_vel", msg);
+    }
+
+    @Benchmark
+    public ByteBuffer twistEncoder() throws Exception {
+        return encoder.twist("/cmd_vel", linear, angular);
+    }
+
+    @Benchmark
+    public byte[] poseStampedMap() throws Exception {
+        double yaw = angular;
+        Map<String, Object> msg = Map.of(
+                "header", Map.of("stamp", Map.of("sec", Instant.now().getEpochSecond(), "nanosec", 0), "frame_id", "map"),
+                "pose", Map.of(
+                        "position", Map.of("x", 1.5, "y", -0.5, "z", 0.0),
+                        "orientation", Map.of("x", 0.0, "y", 0.0, "z", Math.sin(yaw * 0.5), "w", Math.cos(yaw * 0.5))
+                )
+        );
+        return publishFrame("/goal_pose", msg);
+    }
+
+    @Benchmark
+    public ByteBuffer poseStampedEncoder() throws Exception {
+        return encoder.poseStamped("/goal_pose", "map", System.currentTimeMillis(), 1.5, -0.5, angular);
+    }
+
+    /** RosBridgeClient'ın önceki publish yolu: Map ağacı + UUID id + String + UTF-8 kopyası. */
+    private byte[] publishFrame(String topic, Object msg) throws Exception {
+        String json = om.writeValueAsString(Map.of("op", "publish", "id", "pub-" + UUID.randomUUID(), "topic", topic, "msg", msg));
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
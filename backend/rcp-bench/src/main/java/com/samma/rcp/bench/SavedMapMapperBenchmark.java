@@ -0,0 +1,61 @@
+package com.samma.rcp.bench;
+
+import com.samma.rcp.app.domain.entity.SavedMap;
+import com.samma.rcp.app.dto.SavedMapDTO;
+import com.samma.rcp.app.mapper.SavedMapMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct'ın ürettiği SavedMapMapper: tek kayıt (GET /api/map/{id}) ve MapService.listMaps'in
+ * yaptığı gibi liste dönüşümü.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SavedMapMapperBenchmark {
+
+    @Param({"100"})
+    public int maps;
+
+    private final SavedMapMapper mapper = Mappers.getMapper(SavedMapMapper.class);
+    private SavedMap entity;
+    private SavedMapDTO dto;
+    private List<SavedMap> all;
+
+    @Setup
+    public void setup() {
+        all = new ArrayList<>(maps);
+        for (int i = 0; i < maps; i++) {
+            all.add(SavedMap.builder().id((long) i).name("map-" + i)
+                    .filePath("/data/maps").pgmFilePath("/data/maps/map-" + i + ".pgm").yamlFilePath("/data/maps/map-" + i + ".yaml")
+                    .sizeMb(4.0).resolution(0.05).width(2048).height(2048)
+                    .createdAt(LocalDateTime.now()).build());
+        }
+        entity = all.get(0);
+        dto = mapper.toDto(entity);
+    }
+
+    @Benchmark
+    public SavedMapDTO toDto() {
+        return mapper.toDto(entity);
+    }
+
+    @Benchmark
+    public SavedMap toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public List<SavedMapDTO> list() {
+        return all.stream().map(mapper::toDto).toList();
+    }
+}
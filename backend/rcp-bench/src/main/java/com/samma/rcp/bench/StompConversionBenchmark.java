@@ -0,0 +1,87 @@
+package com.samma.rcp.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.samma.rcp.app.dto.LaserScanFrameDTO;
+import com.samma.rcp.app.dto.SessionHealthDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RobotSocketHandler.WebSocketController yayınlarının broker'a varmadan önceki maliyeti: SimpMessagingTemplate
+ * başlıkları + Spring'in varsayılan broker dönüştürücüsü (String, byte[], Jackson). Kanal mesajı yalnızca
+ * saklar; abonelere dağıtım ölçülmez. odom: telemetri JsonNode'u, health: SessionHealthDTO, scan: 360 noktalı frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StompConversionBenchmark {
+
+    @Param({"odom", "health", "scan"})
+    public String payload;
+
+    private CompositeMessageConverter converter;
+    private SimpMessagingTemplate template;
+    private Message<?> last;
+    private Object body;
+    private String destination;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper om = new ObjectMapper().registerModule(new JavaTimeModule());
+        MappingJackson2MessageConverter jackson = new MappingJackson2MessageConverter();
+        jackson.setObjectMapper(om);
+        converter = new CompositeMessageConverter(List.of(new StringMessageConverter(), new ByteArrayMessageConverter(), jackson));
+        template = new SimpMessagingTemplate((m, timeout) -> { last = m; return true; });
+        template.setMessageConverter(converter);
+
+        switch (payload) {
+            case "odom" -> {
+                body = om.readTree("{\"header\":{\"stamp\":{\"sec\":1700000000,\"nanosec\":120000000},\"frame_id\":\"odom\"},"
+                        + "\"child_frame_id\":\"base_footprint\",\"pose\":{\"pose\":{\"position\":{\"x\":1.25,\"y\":-0.4,\"z\":0.0},"
+                        + "\"orientation\":{\"x\":0.0,\"y\":0.0,\"z\":0.38,\"w\":0.92}}},"
+                        + "\"twist\":{\"twist\":{\"linear\":{\"x\":0.22,\"y\":0.0,\"z\":0.0},\"angular\":{\"x\":0.0,\"y\":0.0,\"z\":-0.4}}}}");
+                destination = "/topic/sessions/1/telemetry/odom";
+            }
+            case "health" -> {
+                body = SessionHealthDTO.builder().sessionId(1).running(true).connected(true)
+                        .wsUrl("ws://localhost:9090").port(9090).since(Instant.now()).build();
+                destination = "/topic/sessions/1/health";
+            }
+            default -> {
+                Random rnd = new Random(42);
+                float[] ranges = new float[360];
+                for (int i = 0; i < ranges.length; i++) ranges[i] = Math.round((0.12f + rnd.nextFloat() * 3.4f) * 1000f) / 1000f;
+                body = LaserScanFrameDTO.builder().seq(1).frameId("base_scan").stampMillis(System.currentTimeMillis())
+                        .angleMin(0f).angleIncrement(0.0175f).rangeMin(0.12f).rangeMax(3.5f).ranges(ranges).build();
+                destination = "/topic/sessions/1/scan";
+            }
+        }
+    }
+
+    /** Yalnızca dönüştürücü: payload -> JSON byte[] mesaj. */
+    @Benchmark
+    public Message<?> convert() {
+        return converter.toMessage(body, null);
+    }
+
+    /** broadcastXxx'in yaptığı: başlıklar + dönüştürme + kanala gönderim. */
+    @Benchmark
+    public Message<?> convertAndSend() {
+        template.convertAndSend(destination, body);
+        return last;
+    }
+}
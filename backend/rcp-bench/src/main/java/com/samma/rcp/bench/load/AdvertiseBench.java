@@ -0,0 +1,238 @@
+package com.samma.rcp.bench.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.samma.rcp.app.config.RosDockerProps;
+import com.samma.rcp.app.dto.TwistDTO;
+import com.samma.rcp.app.orchestration.RosBridgeClient;
+import com.samma.rcp.app.support.FakeRosbridge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Teleop yayın yolunun advertise maliyeti: aynı /cmd_vel akışı {@link FakeRosbridge}'e iki biçimde gönderilir.
+ * <ul>
+ *   <li>per-publish: eski RosBridgeClient'ın yaptığı gibi her mesajdan önce advertise, ikisi de çağıranın
+ *       thread'inde Map + ObjectMapper ile (temel ölçüm)</li>
+ *   <li>once: güncel {@link RosBridgeClient#publishTwist} (bağlantı başına bir advertise, şeritler, encoder)</li>
+ * </ul>
+ * Mesajın linear.x'i sıra numarasıdır; gecikme, çağrıdan sahte rosbridge'in frame'i almasına kadardır.
+ * Rapor: rosbridge'e varan frame/s (advertise dahil), publish/s, gecikme p50/p99/p99.9 ve teslim oranı.
+ * once modunda CONTROL şeridi yazılmayı bekleyen hız komutunun yerine yenisini koyar; teslim oranı bunu da gösterir.
+ *
+ * <pre>
+ * --rate Hz --duration s --warmup s --mode per-publish|once|both --out dosya
+ * </pre>
+ */
+public class AdvertiseBench {
+
+    private static final ObjectMapper OM = new ObjectMapper();
+    private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(10);
+    private static final String TOPIC = "/cmd_vel";
+
+    private double rate = 1000;
+    private int duration = 10;
+    private int warmup = 2;
+    private List<String> modes = List.of("per-publish", "once");
+    private Path out;
+
+    public static void main(String[] args) throws Exception {
+        AdvertiseBench b = new AdvertiseBench();
+        b.parse(args);
+        int status = 0;
+        try {
+            b.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--duration" -> duration = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--mode" -> {
+                    String m = args[++i];
+                    modes = "both".equals(m) ? List.of("per-publish", "once") : List.of(m);
+                }
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("bilinmeyen argüman: " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        ObjectNode summary = OM.createObjectNode();
+        summary.put("rateHz", rate).put("durationS", duration);
+        ObjectNode results = summary.putObject("modes");
+        for (String mode : modes) {
+            ObjectNode r = results.putObject(mode);
+            measure(mode, r);
+            System.out.printf(Locale.ROOT, "[advertise] %-11s frames=%.0f/s publish=%.0f/s advertise=%.0f/s"
+                            + " p50=%.3f p99=%.3f p999=%.3f max=%.3f ms delivered=%d/%d%n", mode,
+                    r.path("framesPerSec").asDouble(), r.path("publishPerSec").asDouble(), r.path("advertisePerSec").asDouble(),
+                    r.path("p50Ms").asDouble(), r.path("p99Ms").asDouble(), r.path("p999Ms").asDouble(),
+                    r.path("maxMs").asDouble(), r.path("delivered").asLong(), r.path("sent").asLong());
+        }
+        if (out != null) {
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            OM.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), summary);
+            System.out.println("[advertise] summary written to " + out.toAbsolutePath());
+        }
+    }
+
+    /** Her mod yeni bir sahte rosbridge'e karşı, aynı hızda ve sürede çalışır. */
+    private void measure(String mode, ObjectNode result) throws Exception {
+        int port = freePort();
+        FakeRosbridge bridge = new FakeRosbridge(port, 1);
+        bridge.start();
+        if (!bridge.awaitStarted(5000)) throw new IllegalStateException("sahte rosbridge başlamadı");
+        String url = "ws://127.0.0.1:" + port;
+
+        int capacity = (int) Math.ceil(rate * (warmup + duration + 1));
+        AtomicLongArray sentAt = new AtomicLongArray(capacity);
+        Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+        // Yalnızca ölçüm penceresinde gönderilen mesajlar (from, to] sayılır
+        AtomicInteger from = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicInteger to = new AtomicInteger(Integer.MAX_VALUE);
+        bridge.onPublish((topic, msg) -> {
+            int seq = (int) msg.path("linear").path("x").asDouble();
+            if (seq <= from.get() || seq > to.get() || seq > capacity) return;
+            long at = sentAt.get(seq - 1);
+            recorder.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - at)));
+        });
+
+        Publisher publisher = "once".equals(mode) ? new Current(url) : new PerPublish(url);
+        ScheduledExecutorService driver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "advertise-driver");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger next = new AtomicInteger();
+        driver.scheduleAtFixedRate(() -> {
+            int seq = next.incrementAndGet();
+            if (seq > capacity) return;
+            sentAt.set(seq - 1, System.nanoTime());
+            publisher.twist(seq);
+        }, 0, (long) (1_000_000 / rate), TimeUnit.MICROSECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        from.set(next.get());
+        long frames0 = bridge.ops("advertise") + bridge.ops("publish");
+        long publish0 = bridge.ops("publish");
+        long advertise0 = bridge.ops("advertise");
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        to.set(next.get());
+        long frames1 = bridge.ops("advertise") + bridge.ops("publish");
+        long publish1 = bridge.ops("publish");
+        long advertise1 = bridge.ops("advertise");
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        driver.shutdownNow();
+        Thread.sleep(200); // yoldaki frame'ler
+        Histogram h = recorder.getIntervalHistogram();
+
+        result.put("sent", to.get() - from.get());
+        result.put("delivered", h.getTotalCount());
+        result.put("framesPerSec", (frames1 - frames0) / elapsed);
+        result.put("publishPerSec", (publish1 - publish0) / elapsed);
+        result.put("advertisePerSec", (advertise1 - advertise0) / elapsed);
+        result.put("p50Ms", h.getValueAtPercentile(50.0) / 1000.0);
+        result.put("p99Ms", h.getValueAtPercentile(99.0) / 1000.0);
+        result.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+        result.put("maxMs", h.getMaxValue() / 1000.0);
+
+        publisher.close();
+        bridge.stop(1000);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            s.setReuseAddress(true);
+            return s.getLocalPort();
+        }
+    }
+
+    private interface Publisher {
+        void twist(int seq);
+
+        void close() throws Exception;
+    }
+
+    /** Temel ölçüm: advertise optimizasyonundan önceki RosBridgeClient.publishTwist'in tel davranışı. */
+    private static final class PerPublish implements Publisher {
+        private final WebSocketClient socket;
+
+        PerPublish(String url) throws Exception {
+            socket = new WebSocketClient(new URI(url)) {
+                @Override public void onOpen(ServerHandshake h) { }
+                @Override public void onMessage(String message) { }
+                @Override public void onClose(int code, String reason, boolean remote) { }
+                @Override public void onError(Exception ex) { }
+            };
+            if (!socket.connectBlocking(5, TimeUnit.SECONDS)) throw new IllegalStateException("bağlanılamadı: " + url);
+        }
+
+        @Override
+        public void twist(int seq) {
+            send(Map.of("op", "advertise", "id", "adv-" + TOPIC, "topic", TOPIC, "type", "geometry_msgs/msg/Twist"));
+            send(Map.of("op", "publish", "id", "pub-" + UUID.randomUUID(), "topic", TOPIC, "msg", Map.of(
+                    "linear", Map.of("x", (double) seq, "y", 0.0, "z", 0.0),
+                    "angular", Map.of("x", 0.0, "y", 0.0, "z", 0.1))));
+        }
+
+        private void send(Map<String, Object> payload) {
+            try { socket.send(OM.writeValueAsString(payload)); }
+            catch (Exception e) { throw new IllegalStateException("rosbridge send failed", e); }
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            socket.closeBlocking();
+        }
+    }
+
+    /** Güncel yol: tek bağlantılı RosBridgeClient. */
+    private static final class Current implements Publisher {
+        private final RosBridgeClient client;
+
+        Current(String url) {
+            client = new RosBridgeClient(OM, new RosDockerProps(), new SimpleMeterRegistry(), "advertise-bench");
+            client.init();
+            client.connect(url);
+        }
+
+        @Override
+        public void twist(int seq) {
+            client.publishTwist(TwistDTO.builder().linear((double) seq).angular(0.1).build());
+        }
+
+        @Override
+        public void close() {
+            client.disconnect();
+            client.shutdown();
+        }
+    }
+}
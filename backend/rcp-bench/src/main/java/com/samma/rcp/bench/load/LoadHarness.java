@@ -0,0 +1,491 @@
+package com.samma.rcp.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.samma.rcp.app.AppApplication;
+import com.samma.rcp.app.support.FakeRosbridge;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Docker'sız yük testi: uygulamayı süreç içinde {@link FakeRosbridge}'e karşı başlatır, bir oturum açar;
+ * /ws/robot'a N SockJS/STOMP istemcisi (odom telemetrisi, scan, harita farkı) ve M HTTP teleop sürücüsü bağlar.
+ * Rapor: hedef başına teslim edilen mesaj/s, uçtan uca gecikme (ROS header.stamp -> STOMP istemcisi) ve
+ * teleop HTTP yanıt süresi p50/p99/p99.9, sahte rosbridge'e varan /cmd_vel, heap ve GC. Heap/GC uygulama ile
+ * harness'in toplamıdır (aynı JVM). Isınma süresindeki ölçümler sonuca katılmaz.
+ *
+ * <pre>
+ * --clients N --drivers M --rate Hz (sürücü başına) --duration s --warmup s --report s --odom-hz Hz --out dosya
+ * --max-rate Hz (telemetri aboneliklerine max-rate başlığı) --slow-clients K --slow-ms ms (her mesajda bekleyen istemciler)
+ * </pre>
+ * Yavaş istemcilerin mesajları ayrı ("slow") sayılır; raporda backend'in stomp.conflated ve stomp.slow.consumers
+ * sayaçları da yer alır.
+ * Diğer "--anahtar=değer" argümanları uygulamaya (Spring) geçirilir, ör. --ros.recording.enabled=true.
+ */
+public class LoadHarness {
+
+    private static final ObjectMapper OM = new ObjectMapper();
+    private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(60);
+    /** En büyük STOMP frame'i: 384x384 harita snapshot'ı ~200 KB. */
+    private static final int MAX_FRAME = 1 << 20;
+
+    private int clients = 50;
+    private int drivers = 2;
+    private double rate = 20;
+    private int duration = 60;
+    private int warmup = 5;
+    private int report = 5;
+    private int odomHz = 30;
+    private double maxRate;
+    private int slowClients;
+    private long slowMs = 100;
+    private Path out;
+    private final Map<String, String> appArgs = new LinkedHashMap<>();
+
+    private final Stream odom = new Stream("odom", true);
+    private final Stream scan = new Stream("scan", true);
+    private final Stream map = new Stream("map", false);
+    private final Stream teleop = new Stream("teleop", true);
+    private final Stream slow = new Stream("slow", true);
+    private final LongAdder teleopErrors = new LongAdder();
+    private final LongAdder stompErrors = new LongAdder();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private String base;
+
+    public static void main(String[] args) throws Exception {
+        LoadHarness h = new LoadHarness();
+        h.parse(args);
+        int status = 0;
+        try {
+            h.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+        System.exit(status); // uygulamanın ve istemcilerin daemon olmayan thread'leri
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--clients" -> clients = Integer.parseInt(args[++i]);
+                case "--drivers" -> drivers = Integer.parseInt(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--duration" -> duration = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--report" -> report = Integer.parseInt(args[++i]);
+                case "--odom-hz" -> odomHz = Integer.parseInt(args[++i]);
+                case "--max-rate" -> maxRate = Double.parseDouble(args[++i]);
+                case "--slow-clients" -> slowClients = Integer.parseInt(args[++i]);
+                case "--slow-ms" -> slowMs = Long.parseLong(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                default -> {
+                    int eq = a.indexOf('=');
+                    if (!a.startsWith("--") || eq < 0) throw new IllegalArgumentException("bilinmeyen argüman: " + a);
+                    appArgs.put(a.substring(2, eq), a.substring(eq + 1));
+                }
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        int bridgePort = freePort();
+        FakeRosbridge bridge = new FakeRosbridge(bridgePort, odomHz);
+
+        Path recordings = Files.createTempDirectory("rcp-load");
+        int httpPort = freePort();
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("spring.profiles.active", "dev");
+        props.put("spring.main.banner-mode", "off");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("logging.level.root", "WARN");
+        props.put("logging.level.com.samma.rcp", "WARN");
+        props.put("logging.level.org.hibernate.SQL", "WARN");
+        props.put("logging.level.org.springframework.web", "WARN");
+        props.put("logging.level.org.springframework.web.socket.sockjs.client", "OFF"); // kapanışta gelen son frame'ler
+        props.put("server.port", String.valueOf(httpPort));
+        props.put("ros.docker.host", "unix:///nonexistent");        // Engine API yok: compose CLI yolu
+        props.put("ros.docker.cli", "true");                         // compose komutları no-op
+        props.put("ros.sessions.max-sessions", "1");
+        props.put("ros.sessions.host", "127.0.0.1");
+        props.put("ros.sessions.bridge-port-base", String.valueOf(bridgePort)); // slot 0 -> sahte rosbridge
+        props.put("ros.sessions.novnc-port-base", String.valueOf(freePort()));
+        props.put("ros.pool.enabled", "false");
+        props.put("ros.recording.dir", recordings.toString());
+        props.putAll(appArgs);
+        String[] springArgs = props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+
+        long t0 = System.nanoTime();
+        ConfigurableApplicationContext ctx = SpringApplication.run(AppApplication.class, springArgs);
+        base = "http://127.0.0.1:" + httpPort;
+        System.out.printf("[load] app up on :%d in %d ms, fake rosbridge :%d%n", httpPort,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), bridgePort);
+
+        long sessionId = startSession(bridge);
+        System.out.printf("[load] session %d connected; %d STOMP clients (+%d slow), %d teleop drivers @ %.1f Hz, %ds (+%ds warmup)%n",
+                sessionId, clients, slowClients, drivers, rate, duration, warmup);
+
+        WebSocketStompClient stomp = stompClient();
+        List<StompSession> sessions = new ArrayList<>(clients + slowClients);
+        for (int i = 0; i < clients; i++) sessions.add(connect(stomp, sessionId, false));
+        for (int i = 0; i < slowClients; i++) sessions.add(connect(stomp, sessionId, true));
+        MeterRegistry meters = ctx.getBean(MeterRegistry.class);
+
+        ScheduledExecutorService driverPool = Executors.newScheduledThreadPool(Math.max(1, drivers), r -> {
+            Thread t = new Thread(r, "load-driver");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMicros = (long) (1_000_000 / rate);
+        for (int i = 0; i < drivers; i++) {
+            driverPool.scheduleAtFixedRate(() -> drive(sessionId), i * periodMicros / Math.max(1, drivers), periodMicros, TimeUnit.MICROSECONDS);
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        List<Stream> streams = slowClients > 0 ? List.of(odom, scan, map, teleop, slow) : List.of(odom, scan, map, teleop);
+        streams.forEach(Stream::reset);
+        double conflated0 = counter(meters, "stomp.conflated");
+        double lastConflated = conflated0;
+        double dropped0 = counter(meters, "stomp.slow.consumers");
+        long cmdVel0 = bridge.received("/cmd_vel");
+        Gc gc0 = Gc.now();
+        long heapPeak = 0;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(duration);
+        long lastCmdVel = cmdVel0;
+        long lastFrames = bridge.sent();
+        Gc lastGc = gc0;
+        while (System.nanoTime() < end) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(Math.min(report, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(end - System.nanoTime())))));
+            long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            heapPeak = Math.max(heapPeak, heap);
+            long cmdVel = bridge.received("/cmd_vel");
+            long frames = bridge.sent();
+            double conflatedNow = counter(meters, "stomp.conflated");
+            Gc gc = Gc.now();
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "[load] t=%ds",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)));
+            for (Stream s : streams) line.append(" | ").append(s.interval());
+            double secs = Math.max(1e-9, (gc.at - lastGc.at) / 1e9);
+            line.append(String.format(Locale.ROOT, " | errors teleop=%d stomp=%d | cmd_vel=%.0f/s bridge out=%.0f/s"
+                            + " | conflated=%.0f/s slow dropped=%.0f | heap=%dMB gc=%d (%d ms)",
+                    teleopErrors.sum(), stompErrors.sum(), (cmdVel - lastCmdVel) / secs, (frames - lastFrames) / secs,
+                    (conflatedNow - lastConflated) / secs, counter(meters, "stomp.slow.consumers") - dropped0,
+                    heap >> 20, gc.count - lastGc.count, gc.millis - lastGc.millis));
+            System.out.println(line);
+            lastCmdVel = cmdVel;
+            lastFrames = frames;
+            lastConflated = conflatedNow;
+            lastGc = gc;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        Gc gc = Gc.now();
+
+        driverPool.shutdownNow();
+        ObjectNode summary = OM.createObjectNode();
+        summary.put("clients", clients).put("slowClients", slowClients).put("maxRateHz", maxRate)
+                .put("drivers", drivers).put("rateHz", rate).put("durationS", elapsed).put("odomHz", odomHz);
+        ObjectNode dest = summary.putObject("streams");
+        System.out.printf(Locale.ROOT, "[load] summary over %.1fs%n", elapsed);
+        for (Stream s : streams) {
+            s.summary(dest.putObject(s.name), elapsed);
+            System.out.println("[load]   " + s.total(elapsed));
+        }
+        long cmdVel = bridge.received("/cmd_vel") - cmdVel0;
+        summary.put("teleopErrors", teleopErrors.sum());
+        summary.put("stompErrors", stompErrors.sum());
+        summary.put("cmdVelPerSec", cmdVel / elapsed);
+        summary.put("conflatedPerSec", (counter(meters, "stomp.conflated") - conflated0) / elapsed);
+        summary.put("slowConsumersDropped", counter(meters, "stomp.slow.consumers") - dropped0);
+        summary.put("heapUsedMb", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+        summary.put("heapPeakMb", heapPeak >> 20);
+        summary.put("gcCount", gc.count - gc0.count);
+        summary.put("gcMillis", gc.millis - gc0.millis);
+        System.out.printf(Locale.ROOT, "[load]   errors teleop=%d stomp=%d cmd_vel=%.1f/s heap peak=%dMB gc=%d (%d ms)%n",
+                teleopErrors.sum(), stompErrors.sum(), cmdVel / elapsed, heapPeak >> 20, gc.count - gc0.count, gc.millis - gc0.millis);
+        if (out != null) {
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            OM.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), summary);
+            System.out.println("[load] summary written to " + out.toAbsolutePath());
+        }
+
+        for (StompSession s : sessions) {
+            try { s.disconnect(); } catch (RuntimeException ignored) { }
+        }
+        stomp.stop();
+        Thread.sleep(500); // DISCONNECT'ler broker kapanmadan işlensin
+        ctx.close();
+        bridge.stop(1000);
+        try (java.util.stream.Stream<Path> files = Files.walk(recordings)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * POST /api/sim/start ve işin DONE olmasını bekler. PortAllocator dolu portlu slotu atladığından sahte
+     * rosbridge, iş slotu ayırıp QUEUED'dan çıkınca (compose up'ın yerine) dinlemeye başlar.
+     */
+    private long startSession(FakeRosbridge bridge) throws IOException, InterruptedException {
+        JsonNode job = post("/api/sim/start", "").path("data");
+        String jobId = job.path("jobId").asText();
+        boolean started = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            String status = job.path("status").asText();
+            if (!started && !"QUEUED".equals(job.path("phase").asText())) {
+                bridge.start();
+                started = true;
+            }
+            if ("DONE".equals(status)) return job.path("sessionId").asLong();
+            if ("FAILED".equals(status)) throw new IllegalStateException("oturum başlatılamadı: " + job.path("error").asText());
+            Thread.sleep(50);
+            job = get("/api/sim/jobs/" + jobId).path("data");
+        }
+        throw new IllegalStateException("oturum 60 s içinde bağlanmadı (job " + jobId + ")");
+    }
+
+    private WebSocketStompClient stompClient() {
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(MAX_FRAME); // bağlantı başına ayrılır
+        container.setDefaultMaxBinaryMessageBufferSize(64 << 10);
+        WebSocketStompClient stomp = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient(container)))));
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(OM);
+        stomp.setMessageConverter(converter);
+        stomp.setInboundMessageSizeLimit(MAX_FRAME);
+        return stomp;
+    }
+
+    /** slow: tüm mesajlar "slow" akışına sayılır ve her birinde slowMs beklenir (istemcinin okuma thread'i). */
+    private StompSession connect(WebSocketStompClient stomp, long sessionId, boolean slow) throws Exception {
+        StompSession s = stomp.connectAsync(base + "/ws/robot", new StompSessionHandlerAdapter() {
+            @Override
+            public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable e) {
+                stompErrors.increment();
+            }
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable e) {
+                stompErrors.increment();
+            }
+        }).get(10, TimeUnit.SECONDS);
+        String prefix = "/topic/sessions/" + sessionId;
+        long pause = slow ? slowMs : 0;
+        s.subscribe(telemetry(prefix + "/telemetry/odom"), handler(slow ? this.slow : odom, pause, body -> {
+            JsonNode stamp = body.path("header").path("stamp");
+            return stamp.path("sec").asLong() * 1_000_000L + stamp.path("nanosec").asLong() / 1000L;
+        }));
+        s.subscribe(telemetry(prefix + "/scan"), handler(slow ? this.slow : scan, pause, body -> body.path("stampMillis").asLong() * 1000L));
+        s.subscribe(prefix + "/map/delta", handler(slow ? this.slow : map, pause, null));
+        s.subscribe(prefix + "/map/snapshot", handler(slow ? this.slow : map, pause, null));
+        return s;
+    }
+
+    private StompHeaders telemetry(String destination) {
+        StompHeaders h = new StompHeaders();
+        h.setDestination(destination);
+        if (maxRate > 0) h.add("max-rate", String.valueOf(maxRate));
+        return h;
+    }
+
+    /** stampMicros: mesajın ROS zaman damgası (epoch µs); null ise yalnızca sayılır. */
+    private StompFrameHandler handler(Stream stream, long pauseMs, ToLongFunction<JsonNode> stampMicros) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                if (pauseMs > 0) {
+                    try {
+                        Thread.sleep(pauseMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                if (stampMicros == null) {
+                    stream.count();
+                    return;
+                }
+                Instant now = Instant.now();
+                long stamp = stampMicros.applyAsLong((JsonNode) payload);
+                stream.record(now.getEpochSecond() * 1_000_000L + now.getNano() / 1000L - stamp);
+            }
+        };
+    }
+
+    private void drive(long sessionId) {
+        long t = System.nanoTime();
+        try {
+            HttpResponse<Void> r = http.send(HttpRequest.newBuilder(URI.create(base + "/api/teleop/twist?sessionId=" + sessionId))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"linear\":0.2,\"angular\":0.1}")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (r.statusCode() >= 300) teleopErrors.increment();
+        } catch (IOException e) {
+            teleopErrors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        teleop.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t));
+    }
+
+    private JsonNode post(String path, String body) throws IOException, InterruptedException {
+        return OM.readTree(http.send(HttpRequest.newBuilder(URI.create(base + path)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        return OM.readTree(http.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    /** Backend'in sayaç değeri; kayıtlı değilse 0. */
+    private static double counter(MeterRegistry meters, String name) {
+        double sum = 0;
+        for (Meter m : meters.find(name).meters()) {
+            for (Measurement v : m.measure()) sum += v.getValue();
+        }
+        return sum;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            s.setReuseAddress(true);
+            return s.getLocalPort();
+        }
+    }
+
+    /** Bir hedefin mesaj sayısı ve (timed ise) gecikme histogramı; kayıt kilitsiz, okuma tek thread'den. */
+    private static final class Stream {
+        final String name;
+        final boolean timed;
+        final LongAdder messages = new LongAdder();
+        final Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+        final Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        private Histogram interval;
+        /** Isınma sonundaki sayaç. */
+        private long base;
+        private long lastCount;
+        private long lastAt = System.nanoTime();
+
+        Stream(String name, boolean timed) {
+            this.name = name;
+            this.timed = timed;
+        }
+
+        void count() {
+            messages.increment();
+        }
+
+        void record(long micros) {
+            messages.increment();
+            recorder.recordValue(Math.max(0, Math.min(micros, HIGHEST_MICROS)));
+        }
+
+        /** Isınmadan sonra: sayaç tabanı ve histogramlar sıfırlanır. */
+        void reset() {
+            lastCount = messages.sum();
+            lastAt = System.nanoTime();
+            interval = recorder.getIntervalHistogram(interval);
+            total.reset();
+            base = lastCount;
+        }
+
+        String interval() {
+            long n = messages.sum();
+            long at = System.nanoTime();
+            double rate = (n - lastCount) / Math.max(1e-9, (at - lastAt) / 1e9);
+            lastCount = n;
+            lastAt = at;
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            if (!timed) return String.format(Locale.ROOT, "%s %.0f/s", name, rate);
+            return String.format(Locale.ROOT, "%s %.0f/s p50=%.1f p99=%.1f p999=%.1f ms", name, rate,
+                    ms(interval, 50.0), ms(interval, 99.0), ms(interval, 99.9));
+        }
+
+        String total(double elapsed) {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            double rate = (messages.sum() - base) / elapsed;
+            if (!timed) return String.format(Locale.ROOT, "%-6s %8.1f msg/s", name, rate);
+            return String.format(Locale.ROOT, "%-6s %8.1f msg/s  p50=%.2f p99=%.2f p999=%.2f max=%.2f ms", name, rate,
+                    ms(total, 50.0), ms(total, 99.0), ms(total, 99.9), total.getMaxValue() / 1000.0);
+        }
+
+        void summary(ObjectNode node, double elapsed) {
+            node.put("messages", messages.sum() - base);
+            node.put("perSec", (messages.sum() - base) / elapsed);
+            if (!timed) return;
+            node.put("p50Ms", ms(total, 50.0));
+            node.put("p99Ms", ms(total, 99.0));
+            node.put("p999Ms", ms(total, 99.9));
+            node.put("maxMs", total.getMaxValue() / 1000.0);
+        }
+
+        private static double ms(Histogram h, double percentile) {
+            return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    /** Tüm toplayıcıların toplam GC sayısı ve süresi. */
+    private record Gc(long at, long count, long millis) {
+        static Gc now() {
+            long count = 0, millis = 0;
+            for (GarbageCollectorMXBean b : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, b.getCollectionCount());
+                millis += Math.max(0, b.getCollectionTime());
+            }
+            return new Gc(System.nanoTime(), count, millis);
+        }
+    }
+}
@@ -47,10 +47,11 @@ const Simulator = () => {
         }
     }, [])
 
+    // Durum değişiklikleri /topic/status ile itilir; yoklama yalnızca WS koparsa diye seyrek
     const { data: status, refetch: refetchStatus } = useQuery({
         queryKey: ['sim-status'],
         queryFn: simulationAPI.status,
-        refetchInterval: 2000,
+        refetchInterval: 30000,
     })
 
     const startSimulation = useMutation({
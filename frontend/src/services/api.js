@@ -37,10 +37,23 @@ const pickArray = (d, keys = ['data', 'items', 'maps', 'list', 'results']) => {
     return []
 }
 
+// Asenkron iş: DONE/FAILED olana kadar yoklanır, son hali döner
+const awaitJob = async (job, statusUrl, what, { intervalMs = 500, timeoutMs = 60000 } = {}) => {
+    const deadline = Date.now() + timeoutMs
+    while (job && (job.status === 'PENDING' || job.status === 'RUNNING')) {
+        if (Date.now() > deadline) throw new Error(`${what} timed out`)
+        await new Promise((r) => setTimeout(r, intervalMs))
+        job = (await api.get(statusUrl(job.jobId)))?.data
+    }
+    if (job?.status === 'FAILED') throw new Error(job.error || `${what} failed`)
+    return job
+}
+
 // --- Simulation APIs ---
 export const simulationAPI = {
-    start: (data) => api.post('/sim/start', data),
-    stop: () => api.post('/sim/stop'),
+    // Başlatma/durdurma iş tanıtıcısı döner; aşamalar /topic/jobs'a da yayınlanır
+    start: async (data) => awaitJob((await api.post('/sim/start', data))?.data, (id) => `/sim/jobs/${id}`, 'Simulation start', { timeoutMs: 120000 }),
+    stop: async () => awaitJob((await api.post('/sim/stop'))?.data, (id) => `/sim/jobs/${id}`, 'Simulation stop'),
     status: () => api.get('/sim/status'),
 }
 
@@ -67,7 +80,11 @@ export const navigationAPI = {
 
 // --- Map APIs ---
 export const mapAPI = {
-    save: (data) => api.post('/map/save', data),
+    // Kayıt asenkron: iş tanıtıcısı döner, DONE/FAILED olana kadar yoklanır
+    save: async (data, opts) => {
+        const job = await awaitJob((await api.post('/map/save', data))?.data, (id) => `/map/save/${id}`, 'Map save', opts)
+        return job?.map
+    },
 
     // Her zaman array döner
     list: async () => {
@@ -74,12 +74,13 @@ class WebSocketService {
         this.client = null
     }
 
-    subscribe(destination, callback) {
+    // headers: ör. { 'max-rate': '5' } telemetri hedeflerinde teslimi 5 Hz ile sınırlar
+    subscribe(destination, callback, headers = {}) {
         if (!this.connected || !this.client) {
             console.warn('WebSocket not connected')
             return null
         }
-        const sub = this.client.subscribe(destination, callback)
+        const sub = this.client.subscribe(destination, callback, headers)
         this.subscriptions.set(destination, sub)
         return sub
     }